@@ -0,0 +1,42 @@
+package com.itmo.java.benchmarks;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запускает бенчмарки по очереди для каждого количества потоков из -Dthreads (по умолчанию 1,4)
+ * и сохраняет результаты всех запусков в один JSON файл -Dresult (по умолчанию jmh-result.json).
+ * Аргументы - обычные параметры JMH, например: {@code java -Dthreads=1,8 -jar benchmarks.jar TableBenchmark -p hitRatio=0.9}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+            || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (String threads : System.getProperty("threads", "1,4").split(",")) {
+            Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(Integer.parseInt(threads.trim()))
+                .build();
+            results.addAll(new Runner(options).run());
+        }
+
+        String resultPath = System.getProperty("result", "jmh-result.json");
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, resultPath).writeOut(results);
+        System.out.println("Results of " + results.size() + " benchmarks are written to " + resultPath);
+    }
+}
@@ -0,0 +1,118 @@
+package com.itmo.java.benchmarks;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.compaction.CompactionService;
+import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.initialization.impl.DatabaseInitializer;
+import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer;
+import com.itmo.java.basics.initialization.impl.TableInitializer;
+import com.itmo.java.client.command.CreateDatabaseKvsCommand;
+import com.itmo.java.client.command.CreateTableKvsCommand;
+import com.itmo.java.client.command.KvsCommand;
+import com.itmo.java.client.command.MultiSetKvsCommand;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Общая подготовка данных и окружения для бенчмарков
+ */
+final class BenchmarkSupport {
+    static final String DATABASE_NAME = "bench";
+    static final String TABLE_NAME = "table";
+
+    /**
+     * Пары заливаются в таблицу пакетами такого размера
+     */
+    private static final int FILL_BATCH_SIZE = 1000;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * @return ключ длиной size символов с номером index в конце
+     */
+    static String key(int index, int size) {
+        String number = Integer.toString(index);
+        return "k".repeat(Math.max(0, size - number.length())) + number;
+    }
+
+    static String value(int size) {
+        return "v".repeat(size);
+    }
+
+    static Path createDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory("kvs-" + prefix);
+    }
+
+    /**
+     * Дожидается уплотнений, уже поставленных в очередь (сервис выполняет их по очереди) и удаляет директорию.
+     * Вызывается после закрытия таблиц, иначе уплотнение может создать файлы в удаляемой директории
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        CountDownLatch compacted = new CountDownLatch(1);
+        CompactionService.getInstance().schedule(compacted::countDown);
+        try {
+            compacted.await();
+        } catch (InterruptedException intext) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for compaction", intext);
+        }
+
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Запускает сервер в директории, создает в нем базу {@link #DATABASE_NAME} с таблицей {@link #TABLE_NAME}
+     * и заполняет таблицу ключами {@link #key(int, int)} с номерами от 0 до keyCount
+     */
+    static DatabaseServer startServer(Path directory, int keyCount, int keySize, int valueSize) throws DatabaseException {
+        var env = new ExecutionEnvironmentImpl(new DatabaseConfig(directory.toString()));
+        DatabaseServer server = DatabaseServer.initialize(env,
+            new DatabaseServerInitializer(new DatabaseInitializer(new TableInitializer(new SegmentInitializer()))));
+        execute(server, new CreateDatabaseKvsCommand(DATABASE_NAME));
+        execute(server, new CreateTableKvsCommand(DATABASE_NAME, TABLE_NAME));
+
+        String value = value(valueSize);
+        for (int from = 0; from < keyCount; from += FILL_BATCH_SIZE) {
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (int i = from; i < Math.min(keyCount, from + FILL_BATCH_SIZE); i++) {
+                batch.put(key(i, keySize), value);
+            }
+            execute(server, new MultiSetKvsCommand(DATABASE_NAME, TABLE_NAME, batch));
+        }
+        return server;
+    }
+
+    static DatabaseCommandResult execute(DatabaseServer server, KvsCommand command) throws DatabaseException {
+        DatabaseCommandResult result = server.executeNextCommand(command.serialize()).join();
+        if (!result.isSuccess()) {
+            throw new DatabaseException("Benchmark setup command failed: " + result.getPayLoad());
+        }
+        return result;
+    }
+}
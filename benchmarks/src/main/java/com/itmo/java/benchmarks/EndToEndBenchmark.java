@@ -0,0 +1,111 @@
+package com.itmo.java.benchmarks;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.ServerConfig;
+import com.itmo.java.basics.connector.JavaSocketServerConnector;
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.client.client.KvsClient;
+import com.itmo.java.client.client.SimpleKvsClient;
+import com.itmo.java.client.connection.ConnectionConfig;
+import com.itmo.java.client.connection.SocketKvsConnection;
+import com.itmo.java.client.exception.DatabaseExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный путь запроса: {@link SimpleKvsClient} через {@link SocketKvsConnection} к {@link JavaSocketServerConnector}
+ * на loopback. У каждого потока бенчмарка свое соединение, сервер обслуживает соединения виртуальными потоками
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    private static final int KEY_SIZE = 16;
+
+    @Param({"100", "1000"})
+    public int valueSize;
+
+    @Param({"10000"})
+    public int keyCount;
+
+    private Path directory;
+    private DatabaseServer server;
+    private JavaSocketServerConnector connector;
+    private int port;
+    private String[] keys;
+    private String value;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DatabaseException {
+        directory = BenchmarkSupport.createDirectory("end-to-end");
+        server = BenchmarkSupport.startServer(directory, keyCount, KEY_SIZE, valueSize);
+        port = BenchmarkSupport.freePort();
+        connector = new JavaSocketServerConnector(server,
+            new ServerConfig("localhost", port, ServerConfig.ClientThreadMode.VIRTUAL_THREAD_PER_CONNECTION));
+        connector.start();
+
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = BenchmarkSupport.key(i, KEY_SIZE);
+        }
+        value = BenchmarkSupport.value(valueSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, DatabaseException {
+        connector.close();
+        server.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public String get(Client client) throws DatabaseExecutionException {
+        return client.client.get(BenchmarkSupport.TABLE_NAME, randomKey());
+    }
+
+    @Benchmark
+    public String set(Client client) throws DatabaseExecutionException {
+        return client.client.set(BenchmarkSupport.TABLE_NAME, randomKey(), value);
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private SocketKvsConnection connection;
+        private KvsClient client;
+
+        @Setup(Level.Trial)
+        public void connect(EndToEndBenchmark benchmark) {
+            connection = new SocketKvsConnection(new ConnectionConfig("localhost", benchmark.port));
+            client = new SimpleKvsClient(BenchmarkSupport.DATABASE_NAME, () -> connection);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            connection.close();
+        }
+    }
+}
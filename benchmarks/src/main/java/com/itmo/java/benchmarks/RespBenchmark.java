@@ -0,0 +1,74 @@
+package com.itmo.java.benchmarks;
+
+import com.itmo.java.client.command.SetKvsCommand;
+import com.itmo.java.protocol.RespBufferParser;
+import com.itmo.java.protocol.RespReader;
+import com.itmo.java.protocol.RespWriter;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и разбор команды SET_KEY: потоковые {@link RespWriter}/{@link RespReader}
+ * и разбор из буфера {@link RespBufferParser}, которым пользуется неблокирующий коннектор
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RespBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int valueSize;
+
+    private RespArray command;
+    private byte[] encoded;
+    private ByteArrayOutputStream output;
+    private final RespBufferParser parser = new RespBufferParser();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        command = new SetKvsCommand(BenchmarkSupport.DATABASE_NAME, BenchmarkSupport.TABLE_NAME,
+            BenchmarkSupport.key(0, 16), BenchmarkSupport.value(valueSize)).serialize();
+        output = new ByteArrayOutputStream();
+        new RespWriter(output).write(command);
+        encoded = output.toByteArray();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        output.reset();
+        new RespWriter(output).write(command);
+        return output.size();
+    }
+
+    @Benchmark
+    public RespObject read() throws IOException {
+        return new RespReader(new ByteArrayInputStream(encoded)).readObject();
+    }
+
+    @Benchmark
+    public Optional<RespObject> parseBuffer() throws IOException {
+        return parser.tryParse(ByteBuffer.wrap(encoded));
+    }
+}
@@ -0,0 +1,144 @@
+package com.itmo.java.benchmarks;
+
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.logic.Segment;
+import com.itmo.java.basics.logic.impl.SegmentImpl;
+import com.itmo.java.basics.logic.io.HintFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись и чтение одного сегмента: чтение заполненного сегмента идет из отображения в память,
+ * незаполненного - позиционным чтением из канала
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmentBenchmark {
+
+    @Param({"16", "64"})
+    public int keySize;
+
+    @Param({"16", "1024", "16384"})
+    public int valueSize;
+
+    private Path directory;
+    private Segment sealed;
+    private Segment active;
+    private List<String> sealedKeys;
+    private List<String> activeKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DatabaseException {
+        directory = BenchmarkSupport.createDirectory("segment");
+        byte[] value = BenchmarkSupport.value(valueSize).getBytes();
+
+        sealed = SegmentImpl.create("sealed", directory);
+        sealedKeys = new ArrayList<>();
+        while (!sealed.isReadOnly()) {
+            String key = BenchmarkSupport.key(sealedKeys.size(), keySize);
+            sealed.write(key, value);
+            sealedKeys.add(key);
+        }
+
+        // незаполненный сегмент - половина максимального размера, но хотя бы одна запись
+        active = SegmentImpl.create("active", directory);
+        activeKeys = new ArrayList<>();
+        do {
+            String key = BenchmarkSupport.key(activeKeys.size(), keySize);
+            active.write(key, value);
+            activeKeys.add(key);
+        } while (active.getSize() * 2 < sealed.getSize() - valueSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sealed.close();
+        active.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Optional<byte[]> readSealed() throws IOException {
+        return sealed.read(sealedKeys.get(ThreadLocalRandom.current().nextInt(sealedKeys.size())));
+    }
+
+    @Benchmark
+    public Optional<byte[]> readActive() throws IOException {
+        return active.read(activeKeys.get(ThreadLocalRandom.current().nextInt(activeKeys.size())));
+    }
+
+    @Benchmark
+    public boolean write(Writer writer) throws IOException, DatabaseException {
+        return writer.write();
+    }
+
+    /**
+     * У каждого потока свой сегмент: запись в сегмент не потокобезопасна. Заполненный сегмент удаляется
+     * и заменяется новым, чтобы бенчмарк не занимал диск
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        private Path directory;
+        private Segment segment;
+        private byte[] value;
+        private String[] keys;
+        private int segmentCount = 0;
+        private int next = 0;
+
+        @Setup(Level.Trial)
+        public void setUp(SegmentBenchmark benchmark) throws IOException, DatabaseException {
+            directory = BenchmarkSupport.createDirectory("segment-writer");
+            value = BenchmarkSupport.value(benchmark.valueSize).getBytes();
+            keys = new String[1024];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = BenchmarkSupport.key(i, benchmark.keySize);
+            }
+            segment = SegmentImpl.create(segmentName(), directory);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            segment.close();
+            BenchmarkSupport.deleteDirectory(directory);
+        }
+
+        boolean write() throws IOException, DatabaseException {
+            if (segment.isReadOnly()) {
+                segment.close();
+                Path path = directory.resolve(segment.getName());
+                Files.delete(path);
+                Files.deleteIfExists(HintFile.pathFor(path));
+                segment = SegmentImpl.create(segmentName(), directory);
+            }
+            return segment.write(keys[next++ & (keys.length - 1)], value);
+        }
+
+        private String segmentName() {
+            return "writer_" + segmentCount++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.itmo.java.benchmarks;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.client.command.GetKvsCommand;
+import com.itmo.java.client.command.SetKvsCommand;
+import com.itmo.java.protocol.model.RespArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнение уже разобранных команд через {@link DatabaseServer#executeNextCommand(RespArray)} без сети:
+ * создание команды, очередь исполнения и работа с таблицей
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerBenchmark {
+
+    private static final int KEY_SIZE = 16;
+
+    @Param({"100", "1000"})
+    public int valueSize;
+
+    @Param({"10000"})
+    public int keyCount;
+
+    private Path directory;
+    private DatabaseServer server;
+    private RespArray[] getCommands;
+    private RespArray[] setCommands;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DatabaseException {
+        directory = BenchmarkSupport.createDirectory("server");
+        server = BenchmarkSupport.startServer(directory, keyCount, KEY_SIZE, valueSize);
+
+        String value = BenchmarkSupport.value(valueSize);
+        getCommands = new RespArray[keyCount];
+        setCommands = new RespArray[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            String key = BenchmarkSupport.key(i, KEY_SIZE);
+            getCommands[i] = new GetKvsCommand(BenchmarkSupport.DATABASE_NAME, BenchmarkSupport.TABLE_NAME, key).serialize();
+            setCommands[i] = new SetKvsCommand(BenchmarkSupport.DATABASE_NAME, BenchmarkSupport.TABLE_NAME, key, value).serialize();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, DatabaseException {
+        server.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public DatabaseCommandResult get() {
+        return server.executeNextCommand(getCommands[ThreadLocalRandom.current().nextInt(keyCount)]).join();
+    }
+
+    @Benchmark
+    public DatabaseCommandResult set() {
+        return server.executeNextCommand(setCommands[ThreadLocalRandom.current().nextInt(keyCount)]).join();
+    }
+}
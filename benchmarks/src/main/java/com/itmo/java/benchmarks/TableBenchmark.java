@@ -0,0 +1,111 @@
+package com.itmo.java.benchmarks;
+
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.index.impl.TableIndex;
+import com.itmo.java.basics.logic.Table;
+import com.itmo.java.basics.logic.impl.DatabaseCacheImpl;
+import com.itmo.java.basics.logic.impl.TableImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение и перезапись ключей таблицы с кэшем ({@link TableImpl} за {@link com.itmo.java.basics.logic.impl.CachingTable}).
+ * Данные занимают segmentCount заполненных сегментов. Ключи читаются равномерно, а LRU кэш вмещает долю hitRatio
+ * всех пар, поэтому доля попаданий в кэш примерно равна hitRatio (0 - кэш ничего не хранит)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableBenchmark {
+
+    private static final int KEY_SIZE = 16;
+    private static final int SEGMENT_SIZE = 100_000;
+
+    /**
+     * Учтенный размер записи кэша, как в {@link DatabaseCacheImpl}: служебные объекты, символы ключа и значение
+     */
+    private static final int CACHE_ENTRY_OVERHEAD = 64;
+
+    @Param({"100", "1000"})
+    public int valueSize;
+
+    @Param({"1", "16", "128"})
+    public int segmentCount;
+
+    @Param({"0.0", "0.5", "0.9"})
+    public double hitRatio;
+
+    private Path directory;
+    private Table table;
+    private String[] keys;
+    private byte[] value;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DatabaseException {
+        directory = BenchmarkSupport.createDirectory("table");
+        int recordSize = Integer.BYTES * 2 + KEY_SIZE + valueSize;
+        keys = new String[Math.max(1, segmentCount * (SEGMENT_SIZE / recordSize))];
+        value = BenchmarkSupport.value(valueSize).getBytes();
+
+        long entryWeight = CACHE_ENTRY_OVERHEAD + KEY_SIZE * 2L + valueSize;
+        long cacheBytes = Math.max(1, (long) (hitRatio * keys.length * entryWeight));
+        table = TableImpl.create(BenchmarkSupport.TABLE_NAME, directory, new TableIndex(),
+            new DatabaseCacheImpl(cacheBytes, DatabaseCacheImpl.DEFAULT_SHARD_COUNT, DatabaseCacheImpl.EvictionPolicy.LRU));
+
+        Map<String, byte[]> batch = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = BenchmarkSupport.key(i, KEY_SIZE);
+            batch.put(keys[i], value);
+            if (batch.size() == 1000 || i == keys.length - 1) {
+                table.writeAll(batch);
+                batch.clear();
+            }
+        }
+        // кэш заполняется до начала измерений
+        for (String key : keys) {
+            table.read(key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, DatabaseException {
+        table.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Optional<byte[]> read() throws DatabaseException {
+        return table.read(randomKey());
+    }
+
+    @Benchmark
+    public void write() throws DatabaseException {
+        table.write(randomKey(), value);
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+}
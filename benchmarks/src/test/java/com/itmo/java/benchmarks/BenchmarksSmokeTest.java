@@ -0,0 +1,40 @@
+package com.itmo.java.benchmarks;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Проверяет, что каждый бенчмарк проходит подготовку, измерение и очистку без ошибок.
+ * Запускается в том же процессе с одной короткой итерацией, поэтому ничего не измеряет
+ */
+public class BenchmarksSmokeTest {
+
+    @Test
+    public void everyBenchmarkRuns() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(getClass().getPackageName() + "\\.[A-Za-z]+Benchmark\\.")
+            .forks(0)
+            .warmupIterations(0)
+            .measurementIterations(1)
+            .measurementTime(TimeValue.milliseconds(50))
+            .shouldFailOnError(true)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+        for (RunResult result : results) {
+            double score = result.getPrimaryResult().getScore();
+            assertTrue(result.getParams().getBenchmark() + ": " + score, score > 0 && Double.isFinite(score));
+        }
+    }
+}
@@ -5,24 +5,72 @@ import com.itmo.java.basics.console.DatabaseCommandArgPositions;
 import com.itmo.java.basics.console.DatabaseCommandResult;
 import com.itmo.java.basics.console.DatabaseCommands;
 import com.itmo.java.basics.console.ExecutionEnvironment;
+import com.itmo.java.basics.durability.GroupCommitService;
 import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
 import com.itmo.java.basics.initialization.impl.InitializationContextImpl;
+import com.itmo.java.basics.metrics.LatencyHistogram;
+import com.itmo.java.basics.metrics.MetricsRegistry;
+import com.itmo.java.basics.metrics.SlowLog;
 import com.itmo.java.protocol.model.RespArray;
 import com.itmo.java.protocol.model.RespObject;
 
+import java.io.IOException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-public class DatabaseServer {
+/**
+ * Сервер исполняет команды на нескольких однопоточных очередях (полосах). Команды одной таблицы
+ * (а команды без таблицы - одной базы) всегда попадают в одну полосу и исполняются в порядке поступления,
+ * команды разных таблиц исполняются параллельно. Создание базы данных исполняется как барьер на всех полосах:
+ * после команд, поступивших раньше, и до команд, поступивших позже, поэтому команды таблиц не обгоняют его
+ */
+public class DatabaseServer implements AutoCloseable {
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
+    /**
+     * Сколько {@link #close()} ждет завершения уже принятых команд
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService[] lanes;
     private final ExecutionEnvironment env;
+    private final GroupCommitService groupCommitService = GroupCommitService.getInstance();
+    private final SlowLog slowLog = SlowLog.getInstance();
 
-    private DatabaseServer(ExecutionEnvironment env){
+    private final Map<DatabaseCommands, LatencyHistogram> latencies = new EnumMap<>(DatabaseCommands.class);
+    private final Map<DatabaseCommands, LongAdder> errors = new EnumMap<>(DatabaseCommands.class);
+    private final LongAdder unknownCommands;
+    private final LongAdder queueDepth;
+
+    private DatabaseServer(ExecutionEnvironment env, int laneCount){
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("Lane count must be positive, got " + laneCount);
+        }
         this.env = env;
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = "kvs-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, threadName));
+        }
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        for (DatabaseCommands type : DatabaseCommands.values()) {
+            latencies.put(type, metrics.histogram("commands." + type.name() + ".latency"));
+            errors.put(type, metrics.counter("commands." + type.name() + ".errors"));
+        }
+        this.unknownCommands = metrics.counter("commands.unknown.errors");
+        this.queueDepth = metrics.counter("server.queue_depth");
     }
 
     /**
@@ -33,35 +81,223 @@ public class DatabaseServer {
      * @throws DatabaseException если произошла ошибка инициализации
      */
     public static DatabaseServer initialize(ExecutionEnvironment env, DatabaseServerInitializer initializer) throws DatabaseException {
+        return initialize(env, initializer, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param env         env для инициализации. Далее работа происходит с заполненным объектом
+     * @param initializer готовый чейн инициализации
+     * @param laneCount   количество потоков, на которых исполняются команды
+     * @throws DatabaseException если произошла ошибка инициализации
+     */
+    public static DatabaseServer initialize(ExecutionEnvironment env, DatabaseServerInitializer initializer, int laneCount) throws DatabaseException {
         initializer.perform(
             InitializationContextImpl
                 .builder()
                 .executionEnvironment(env)
                 .build());
-        return new DatabaseServer(env);
+        return new DatabaseServer(env, laneCount);
     }
 
+    /**
+     * Исполняет команду на полосе ее таблицы. Результат изменяющей команды завершается после того,
+     * как ее запись сброшена на диск по текущей {@link com.itmo.java.basics.durability.DurabilityPolicy}.
+     * Полоса при этом не ждет сброса и исполняет следующие команды, их записи сбрасываются вместе
+     */
     public CompletableFuture<DatabaseCommandResult> executeNextCommand(RespArray message) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<RespObject> objects = message.getObjects();
+        List<RespObject> objects = message.getObjects();
+        return execute(objects, () -> {
             int commandNamePosition = DatabaseCommandArgPositions.COMMAND_NAME.getPositionIndex();
             
-            return 
+            DatabaseCommand command =
             DatabaseCommands
                 .valueOf(objects.get(commandNamePosition).asString())
-                .getCommand(env, objects)
-                .execute();
-        }, executorService);
+                .getCommand(env, objects);
+            return awaitCommit(command, command.execute());
+        });
     }
 
     public CompletableFuture<DatabaseCommandResult> executeNextCommand(DatabaseCommand command) {
-        return CompletableFuture.supplyAsync(() -> {
-            return command.execute();
-        }, executorService);
+        return execute(command.getCommandArgs(), () -> awaitCommit(command, command.execute()));
     }
 
     public ExecutionEnvironment getEnv() {
         //TODO implement
         return env;
     }
-}
\ No newline at end of file
+
+    /**
+     * Перестает принимать команды, дожидается исполнения уже принятых, сбрасывает несброшенные записи на диск
+     * и закрывает все базы данных окружения
+     *
+     * @throws DatabaseException если команды не завершились за {@link #CLOSE_TIMEOUT_SECONDS} секунд
+     *                           (базы данных тогда не закрываются), не удалось сбросить записи или закрыть базы данных
+     */
+    @Override
+    public void close() throws DatabaseException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT_SECONDS);
+        try {
+            for (ExecutorService lane : lanes) {
+                if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new DatabaseException("Commands are still running after " + CLOSE_TIMEOUT_SECONDS + " seconds, can't close databases");
+                }
+            }
+        } catch (InterruptedException intext) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for running commands", intext);
+        }
+        try {
+            groupCommitService.flush();
+        } catch (IOException ioext) {
+            throw new DatabaseException("Can't sync segments on close", ioext);
+        }
+        env.close();
+    }
+
+    /**
+     * Ставит команду в очередь полосы и учитывает ее в метриках. Задержка считается от постановки
+     * в очередь до готовности результата, то есть включает ожидание в очереди и сброса на диск.
+     * Если она превысила порог {@link SlowLog}, команда записывается в журнал медленных команд
+     */
+    private CompletableFuture<DatabaseCommandResult> execute(List<RespObject> commandArgs,
+                                                             Supplier<CompletableFuture<DatabaseCommandResult>> task) {
+        long start = System.nanoTime();
+        Timing timing = new Timing();
+        Supplier<CompletableFuture<DatabaseCommandResult>> timedTask = () -> {
+            timing.dequeued = System.nanoTime();
+            queueDepth.decrement();
+            try {
+                return task.get();
+            } finally {
+                timing.executed = System.nanoTime();
+            }
+        };
+        CompletableFuture<CompletableFuture<DatabaseCommandResult>> queued;
+        queueDepth.increment();
+        try {
+            queued = commandType(commandArgs) == DatabaseCommands.CREATE_DATABASE
+                ? executeOnAllLanes(timedTask)
+                : CompletableFuture.supplyAsync(timedTask, laneFor(commandArgs));
+        } catch (RejectedExecutionException rejext) {
+            queueDepth.decrement();
+            throw rejext;
+        }
+
+        DatabaseCommands type = commandType(commandArgs);
+        return queued.thenCompose(Function.identity()).whenComplete((result, ext) -> {
+            long end = System.nanoTime();
+            if (slowLog.isSlow(end - start)) {
+                slowLog.record(commandArgs, timing.dequeued - start, timing.executed - timing.dequeued, end - timing.executed);
+            }
+            if (type == null) {
+                unknownCommands.increment();
+                return;
+            }
+            latencies.get(type).record(end - start);
+            if (ext != null || !result.isSuccess()) {
+                errors.get(type).increment();
+            }
+        });
+    }
+
+    /**
+     * @return тип команды по ее имени в аргументах или null, если имени нет или такой команды не существует
+     */
+    private static DatabaseCommands commandType(List<RespObject> commandArgs) {
+        int commandNamePosition = DatabaseCommandArgPositions.COMMAND_NAME.getPositionIndex();
+        if (commandArgs.size() <= commandNamePosition || commandArgs.get(commandNamePosition) == null) {
+            return null;
+        }
+        try {
+            return DatabaseCommands.valueOf(commandArgs.get(commandNamePosition).asString());
+        } catch (IllegalArgumentException iaext) {
+            return null;
+        }
+    }
+
+    private CompletableFuture<DatabaseCommandResult> awaitCommit(DatabaseCommand command, DatabaseCommandResult result) {
+        if (!command.isMutating() || !result.isSuccess()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return groupCommitService.awaitCommit().handle((ignored, ext) -> ext == null
+            ? result
+            : DatabaseCommandResult.error("Write is not durable, because " + ext.getMessage()));
+    }
+
+    /**
+     * Исполняет задачу на первой полосе, когда все остальные полосы исполнят поступившие до нее команды.
+     * Остальные полосы ждут, пока задача исполнится. Барьеры ставятся в очереди всех полос под одной блокировкой,
+     * чтобы два барьера не ждали друг друга на разных полосах
+     *
+     * @return результат задачи. Завершается с ошибкой, если поток первой полосы прервали в ожидании остальных
+     * @throws RejectedExecutionException если первая полоса остановлена
+     */
+    private <T> CompletableFuture<T> executeOnAllLanes(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (lanes) {
+            CountDownLatch othersArrived = new CountDownLatch(lanes.length - 1);
+            CountDownLatch executed = new CountDownLatch(1);
+            lanes[0].execute(() -> {
+                try {
+                    othersArrived.await();
+                    result.complete(task.get());
+                } catch (InterruptedException intext) {
+                    result.completeExceptionally(new DatabaseException("Interrupted while waiting for other lanes", intext));
+                    Thread.currentThread().interrupt();
+                } catch (Throwable ext) {
+                    result.completeExceptionally(ext);
+                } finally {
+                    executed.countDown();
+                }
+            });
+            for (int i = 1; i < lanes.length; i++) {
+                try {
+                    lanes[i].execute(() -> {
+                        othersArrived.countDown();
+                        try {
+                            executed.await();
+                        } catch (InterruptedException intext) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                } catch (RejectedExecutionException rejext) {
+                    // полоса остановлена, ее команды уже не исполнятся
+                    othersArrived.countDown();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Выбирает полосу по имени базы и таблицы из аргументов команды.
+     * Команды с неполными аргументами исполняются на первой полосе
+     */
+    private ExecutorService laneFor(List<RespObject> commandArgs) {
+        int databasePosition = DatabaseCommandArgPositions.DATABASE_NAME.getPositionIndex();
+        int tablePosition = DatabaseCommandArgPositions.TABLE_NAME.getPositionIndex();
+        if (commandArgs.size() <= databasePosition || commandArgs.get(databasePosition) == null) {
+            return lanes[0];
+        }
+
+        String dbName = commandArgs.get(databasePosition).asString();
+        String tableName = commandArgs.size() > tablePosition && commandArgs.get(tablePosition) != null
+            ? commandArgs.get(tablePosition).asString()
+            : null;
+        return lanes[Math.floorMod(Objects.hash(dbName, tableName), lanes.length)];
+    }
+
+    /**
+     * Когда полоса взяла команду и когда закончила ее исполнение. Заполняется потоком полосы,
+     * читается после завершения результата
+     */
+    private static class Timing {
+        private long dequeued;
+        private long executed;
+    }
+}
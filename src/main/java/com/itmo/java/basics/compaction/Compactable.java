@@ -0,0 +1,15 @@
+package com.itmo.java.basics.compaction;
+
+import com.itmo.java.basics.exceptions.DatabaseException;
+
+/**
+ * Сущность, которая умеет уплотнять свои сегменты
+ */
+public interface Compactable {
+    /**
+     * Сливает сегменты, в которые больше не производится запись, в новые, оставляя только актуальные значения.
+     *
+     * @throws DatabaseException если произошла ошибка ввода-вывода
+     */
+    void compact() throws DatabaseException;
+}
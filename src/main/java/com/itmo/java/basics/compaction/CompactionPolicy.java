@@ -0,0 +1,45 @@
+package com.itmo.java.basics.compaction;
+
+/**
+ * Условия, при которых таблицу пора уплотнить:
+ * - доля "мертвых" байт в read-only сегментах не меньше deadBytesRatio
+ * - с момента последнего уплотнения появилось не меньше maxNewSegments read-only сегментов
+ * Уплотнение не запускается, если в read-only сегментах нет "мертвых" байт
+ */
+public class CompactionPolicy {
+    public static final double DEFAULT_DEAD_BYTES_RATIO = 0.5;
+    public static final int DEFAULT_MAX_NEW_SEGMENTS = 16;
+
+    private final double deadBytesRatio;
+    private final int maxNewSegments;
+
+    public CompactionPolicy(double deadBytesRatio, int maxNewSegments) {
+        this.deadBytesRatio = deadBytesRatio;
+        this.maxNewSegments = maxNewSegments;
+    }
+
+    public CompactionPolicy() {
+        this(DEFAULT_DEAD_BYTES_RATIO, DEFAULT_MAX_NEW_SEGMENTS);
+    }
+
+    public double getDeadBytesRatio() {
+        return deadBytesRatio;
+    }
+
+    public int getMaxNewSegments() {
+        return maxNewSegments;
+    }
+
+    /**
+     * @param newSegments количество read-only сегментов, появившихся после последнего уплотнения
+     * @param sealedBytes суммарный размер read-only сегментов
+     * @param deadBytes   количество "мертвых" байт в read-only сегментах
+     * @return {@code true} - если таблицу пора уплотнить
+     */
+    public boolean shouldCompact(int newSegments, long sealedBytes, long deadBytes) {
+        if (deadBytes <= 0 || sealedBytes <= 0) {
+            return false;
+        }
+        return (double) deadBytes / sealedBytes >= deadBytesRatio || newSegments >= maxNewSegments;
+    }
+}
@@ -0,0 +1,88 @@
+package com.itmo.java.basics.compaction;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Выполняет уплотнение таблиц в фоновом потоке. Одна и та же таблица не ставится в очередь повторно,
+ * пока не закончится ее текущее уплотнение
+ */
+public class CompactionService {
+
+    private static final CompactionService INSTANCE = new CompactionService(new CompactionPolicy());
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kvs-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Compactable> scheduled = ConcurrentHashMap.newKeySet();
+    private volatile CompactionPolicy policy;
+
+    public CompactionService(CompactionPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Сервис, которым по умолчанию пользуются таблицы
+     */
+    public static CompactionService getInstance() {
+        return INSTANCE;
+    }
+
+    public CompactionPolicy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(CompactionPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Ставит уплотнение в очередь, если этого требует текущая политика
+     *
+     * @see CompactionPolicy#shouldCompact(int, long, long)
+     */
+    public void scheduleIfNeeded(Compactable compactable, int newSegments, long sealedBytes, long deadBytes) {
+        if (policy.shouldCompact(newSegments, sealedBytes, deadBytes)) {
+            schedule(compactable);
+        }
+    }
+
+    /**
+     * Выполняет фоновую работу с файлами сегментов (например, запись файла-подсказки) в потоке уплотнения.
+     * Задачи и уплотнения выполняются по одной, поэтому задача не пересекается с заменой сегментов уплотнением
+     *
+     * @return результат, который завершается после выполнения задачи
+     */
+    public Future<?> execute(Runnable task) {
+        return executorService.submit(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException ext) {
+                new Exception("background segment task", ext).printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Ставит уплотнение в очередь, если оно еще не запланировано
+     */
+    public void schedule(Compactable compactable) {
+        if (!scheduled.add(compactable)) {
+            return;
+        }
+        executorService.submit(() -> {
+            try {
+                compactable.compact();
+            } catch (Exception ext) {
+                new Exception("compaction", ext).printStackTrace();
+            } finally {
+                scheduled.remove(compactable);
+            }
+        });
+    }
+}
@@ -1,5 +1,11 @@
     package com.itmo.java.basics.config;
 
+import com.itmo.java.basics.durability.DurabilityPolicy;
+import com.itmo.java.basics.logic.impl.DatabaseCacheImpl;
+import com.itmo.java.basics.metrics.SlowLogPolicy;
+import com.itmo.java.protocol.RespBufferParser;
+import com.itmo.java.protocol.RespReader;
+
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
@@ -17,6 +23,18 @@ public class ConfigLoader {
     private final String kvsWorkingPathKey = "kvs.workingPath";
     private final String kvsHostKey = "kvs.host";
     private final String kvsPortKey = "kvs.port";
+    private final String kvsConnectorKey = "kvs.connector";
+    private final String kvsClientThreadModeKey = "kvs.clientThreadMode";
+    private final String kvsMaxBulkLengthKey = "kvs.protoMaxBulkLength";
+    private final String kvsMaxCommandLengthKey = "kvs.protoMaxCommandLength";
+    private final String kvsInitParallelismKey = "kvs.initParallelism";
+    private final String kvsDurabilityKey = "kvs.durability";
+    private final String kvsDurabilityIntervalKey = "kvs.durabilityIntervalMillis";
+    private final String kvsSlowLogThresholdKey = "kvs.slowlogThresholdMicros";
+    private final String kvsSlowLogCapacityKey = "kvs.slowlogCapacity";
+    private final String kvsSegmentSizeKey = "kvs.segmentSize";
+    private final String kvsTableCacheBytesKey = "kvs.tableCacheBytes";
+    private final String kvsTableEvictionPolicyKey = "kvs.tableEvictionPolicy";
 
     /**
      * По умолчанию читает из server.properties
@@ -37,7 +55,10 @@ public class ConfigLoader {
      * Если не удалось считать из заданного файла, или какого-то конкретно значения не оказалось,
      * то используют дефолтные значения из {@link DatabaseConfig} и {@link ServerConfig}
      * <br/>
-     * Читаются: "kvs.workingPath", "kvs.host", "kvs.port" (но в конфигурационном файле допустимы и другие проперти)
+     * Читаются: "kvs.workingPath", "kvs.host", "kvs.port", "kvs.connector", "kvs.clientThreadMode",
+     * "kvs.protoMaxBulkLength", "kvs.protoMaxCommandLength", "kvs.initParallelism",
+     * "kvs.durability", "kvs.durabilityIntervalMillis", "kvs.slowlogThresholdMicros", "kvs.slowlogCapacity",
+     * "kvs.segmentSize", "kvs.tableCacheBytes" (но в конфигурационном файле допустимы и другие проперти)
      * @throws FileNotFoundException
      */
     public DatabaseServerConfig readConfig() {
@@ -57,12 +78,33 @@ public class ConfigLoader {
         String workingPath = properties.getProperty(kvsWorkingPathKey, DatabaseConfig.DEFAULT_WORKING_PATH);
         String host = properties.getProperty(kvsHostKey, ServerConfig.DEFAULT_HOST);
         String port = properties.getProperty(kvsPortKey, String.valueOf(ServerConfig.DEFAULT_PORT));
+        String connector = properties.getProperty(kvsConnectorKey, ServerConfig.DEFAULT_CONNECTOR.name());
+        String clientThreadMode = properties.getProperty(kvsClientThreadModeKey, ServerConfig.DEFAULT_CLIENT_THREAD_MODE.name());
+        String maxBulkLength = properties.getProperty(kvsMaxBulkLengthKey, String.valueOf(RespReader.DEFAULT_MAX_BULK_LENGTH));
+        String maxCommandLength = properties.getProperty(kvsMaxCommandLengthKey, String.valueOf(RespBufferParser.DEFAULT_MAX_COMMAND_LENGTH));
+        String initParallelism = properties.getProperty(kvsInitParallelismKey, String.valueOf(ServerConfig.DEFAULT_INIT_PARALLELISM));
+        String durability = properties.getProperty(kvsDurabilityKey, DurabilityPolicy.Mode.NONE.name());
+        String durabilityInterval = properties.getProperty(kvsDurabilityIntervalKey, String.valueOf(DurabilityPolicy.DEFAULT_INTERVAL_MILLIS));
+        String slowLogThreshold = properties.getProperty(kvsSlowLogThresholdKey, String.valueOf(SlowLogPolicy.DEFAULT_THRESHOLD_MICROS));
+        String slowLogCapacity = properties.getProperty(kvsSlowLogCapacityKey, String.valueOf(SlowLogPolicy.DEFAULT_CAPACITY));
+        String segmentSize = properties.getProperty(kvsSegmentSizeKey, String.valueOf(TableOptions.DEFAULT_SEGMENT_SIZE));
+        String tableCacheBytes = properties.getProperty(kvsTableCacheBytesKey, String.valueOf(DatabaseCacheImpl.DEFAULT_MAX_BYTES));
+        String tableEvictionPolicy = properties.getProperty(kvsTableEvictionPolicyKey, DatabaseCacheImpl.DEFAULT_EVICTION_POLICY.name());
 
         return
         DatabaseServerConfig
             .builder()
-            .dbConfig(new DatabaseConfig(workingPath))
-            .serverConfig(new ServerConfig(host, Integer.parseInt(port)))
+            .dbConfig(new DatabaseConfig(workingPath,
+                new DurabilityPolicy(DurabilityPolicy.Mode.valueOf(durability), Long.parseLong(durabilityInterval)),
+                new SlowLogPolicy(Long.parseLong(slowLogThreshold), Integer.parseInt(slowLogCapacity)),
+                new TableOptions(Long.parseLong(segmentSize), Long.parseLong(tableCacheBytes),
+                    DatabaseCacheImpl.EvictionPolicy.valueOf(tableEvictionPolicy))))
+            .serverConfig(new ServerConfig(host, Integer.parseInt(port),
+                ServerConfig.Connector.valueOf(connector),
+                ServerConfig.ClientThreadMode.valueOf(clientThreadMode),
+                Integer.parseInt(maxBulkLength),
+                Integer.parseInt(maxCommandLength),
+                Integer.parseInt(initParallelism)))
             .build();
     }
 
@@ -1,18 +1,56 @@
 package com.itmo.java.basics.config;
 
+import com.itmo.java.basics.durability.DurabilityPolicy;
+import com.itmo.java.basics.metrics.SlowLogPolicy;
+
 public class DatabaseConfig {
     public static final String DEFAULT_WORKING_PATH = "db_files";
     private final String workingPath;
+    private final DurabilityPolicy durabilityPolicy;
+    private final SlowLogPolicy slowLogPolicy;
+    private final TableOptions defaultTableOptions;
 
-    public DatabaseConfig(String workingPath) {
+    /**
+     * @param defaultTableOptions настройки новых таблиц, для которых при создании не указано другое,
+     *                            и таблиц, созданных до появления настроек
+     */
+    public DatabaseConfig(String workingPath, DurabilityPolicy durabilityPolicy, SlowLogPolicy slowLogPolicy,
+                          TableOptions defaultTableOptions) {
         this.workingPath = workingPath;
+        this.durabilityPolicy = durabilityPolicy;
+        this.slowLogPolicy = slowLogPolicy;
+        this.defaultTableOptions = defaultTableOptions;
+    }
+
+    public DatabaseConfig(String workingPath, DurabilityPolicy durabilityPolicy, SlowLogPolicy slowLogPolicy) {
+        this(workingPath, durabilityPolicy, slowLogPolicy, new TableOptions());
+    }
+
+    public DatabaseConfig(String workingPath, DurabilityPolicy durabilityPolicy) {
+        this(workingPath, durabilityPolicy, new SlowLogPolicy());
+    }
+
+    public DatabaseConfig(String workingPath) {
+        this(workingPath, new DurabilityPolicy());
     }
 
     public DatabaseConfig() {
-        this.workingPath = DEFAULT_WORKING_PATH;
+        this(DEFAULT_WORKING_PATH);
     }
 
     public String getWorkingPath() {
         return this.workingPath;
     }
+
+    public DurabilityPolicy getDurabilityPolicy() {
+        return durabilityPolicy;
+    }
+
+    public SlowLogPolicy getSlowLogPolicy() {
+        return slowLogPolicy;
+    }
+
+    public TableOptions getDefaultTableOptions() {
+        return defaultTableOptions;
+    }
 }
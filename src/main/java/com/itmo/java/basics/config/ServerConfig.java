@@ -1,5 +1,7 @@
 package com.itmo.java.basics.config;
 
+import com.itmo.java.protocol.RespBufferParser;
+import com.itmo.java.protocol.RespReader;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -12,7 +14,69 @@ public class ServerConfig {
 
     public static final String DEFAULT_HOST = "localhost";
     public static final int DEFAULT_PORT = 8080;
+    public static final ClientThreadMode DEFAULT_CLIENT_THREAD_MODE = ClientThreadMode.SINGLE_THREAD;
+    public static final Connector DEFAULT_CONNECTOR = Connector.SOCKET;
+    public static final int DEFAULT_INIT_PARALLELISM = 1;
+
+    /**
+     * Через какой коннектор сервер принимает клиентов (см {@link com.itmo.java.basics.connector.ServerConnector#open})
+     */
+    public enum Connector {
+        /**
+         * {@link com.itmo.java.basics.connector.JavaSocketServerConnector}: блокирующие сокеты
+         */
+        SOCKET,
+        /**
+         * {@link com.itmo.java.basics.connector.NioServerConnector}: неблокирующие каналы и селекторы
+         */
+        NIO
+    }
+
+    /**
+     * Как {@link com.itmo.java.basics.connector.JavaSocketServerConnector} обслуживает клиентские сокеты
+     */
+    public enum ClientThreadMode {
+        /**
+         * Все клиенты обслуживаются по очереди одним потоком
+         */
+        SINGLE_THREAD,
+        /**
+         * Каждый клиент обслуживается своим виртуальным потоком
+         */
+        VIRTUAL_THREAD_PER_CONNECTION
+    }
 
     private final String host;
     private final int port;
+    private final Connector connector;
+    private final ClientThreadMode clientThreadMode;
+
+    /**
+     * Максимальная длина bulk строки в команде клиента. Команды с более длинными строками считаются ошибкой протокола
+     */
+    private final int maxBulkLength;
+
+    /**
+     * Максимальный размер команды клиента, который принимает {@link com.itmo.java.basics.connector.NioServerConnector}
+     */
+    private final int maxCommandLength;
+
+    /**
+     * Сколько потоков загружает базы, таблицы и сегменты при старте сервера. 1 - загрузка идет по очереди в одном потоке
+     */
+    private final int initParallelism;
+
+    public ServerConfig(String host, int port) {
+        this(host, port, DEFAULT_CLIENT_THREAD_MODE);
+    }
+
+    public ServerConfig(String host, int port, ClientThreadMode clientThreadMode) {
+        this(host, port, DEFAULT_CONNECTOR, clientThreadMode,
+            RespReader.DEFAULT_MAX_BULK_LENGTH, RespBufferParser.DEFAULT_MAX_COMMAND_LENGTH);
+    }
+
+    public ServerConfig(String host, int port, Connector connector, ClientThreadMode clientThreadMode,
+                        int maxBulkLength, int maxCommandLength) {
+        this(host, port, connector, clientThreadMode, maxBulkLength, maxCommandLength, DEFAULT_INIT_PARALLELISM);
+    }
 }
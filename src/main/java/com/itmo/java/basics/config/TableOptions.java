@@ -0,0 +1,141 @@
+package com.itmo.java.basics.config;
+
+import com.itmo.java.basics.logic.impl.DatabaseCacheImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Настройки хранения таблицы. Задаются при создании таблицы (по умолчанию берутся из {@link DatabaseConfig})
+ * и хранятся в директории таблицы в файле {@link #FILE_NAME}
+ */
+public class TableOptions {
+    public static final String FILE_NAME = "table.properties";
+
+    public static final String SEGMENT_SIZE_KEY = "segmentSize";
+    public static final String CACHE_BYTES_KEY = "cacheBytes";
+    public static final String EVICTION_POLICY_KEY = "evictionPolicy";
+
+    public static final long DEFAULT_SEGMENT_SIZE = 100_000;
+
+    /**
+     * Сегмент должен помещаться в одно отображение в память, поэтому размер ограничен с запасом
+     * на последнюю запись, которая может выйти за него
+     */
+    public static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final long segmentSize;
+    private final long cacheBytes;
+    private final DatabaseCacheImpl.EvictionPolicy evictionPolicy;
+
+    /**
+     * @param segmentSize    размер, по достижении которого сегмент становится read-only
+     * @param cacheBytes     бюджет кэша значений таблицы в байтах
+     * @param evictionPolicy политика вытеснения кэша значений таблицы
+     */
+    public TableOptions(long segmentSize, long cacheBytes, DatabaseCacheImpl.EvictionPolicy evictionPolicy) {
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Segment size must be in (0, " + MAX_SEGMENT_SIZE + "], got " + segmentSize);
+        }
+        if (cacheBytes <= 0) {
+            throw new IllegalArgumentException("Cache budget must be positive, got " + cacheBytes);
+        }
+        this.segmentSize = segmentSize;
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException("Eviction policy must be specified");
+        }
+        this.cacheBytes = cacheBytes;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    public TableOptions(long segmentSize, long cacheBytes) {
+        this(segmentSize, cacheBytes, DatabaseCacheImpl.DEFAULT_EVICTION_POLICY);
+    }
+
+    public TableOptions() {
+        this(DEFAULT_SEGMENT_SIZE, DatabaseCacheImpl.DEFAULT_MAX_BYTES);
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    public long getCacheBytes() {
+        return cacheBytes;
+    }
+
+    public DatabaseCacheImpl.EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * @param overrides настройки, которые нужно заменить (ключи - {@link #SEGMENT_SIZE_KEY}, {@link #CACHE_BYTES_KEY}, {@link #EVICTION_POLICY_KEY})
+     * @return настройки с замененными значениями
+     * @throws IllegalArgumentException если ключ неизвестен или значение недопустимо
+     */
+    public TableOptions with(Map<String, String> overrides) {
+        long newSegmentSize = segmentSize;
+        long newCacheBytes = cacheBytes;
+        DatabaseCacheImpl.EvictionPolicy newEvictionPolicy = evictionPolicy;
+        for (var entry : overrides.entrySet()) {
+            switch (entry.getKey()) {
+                case SEGMENT_SIZE_KEY:
+                    newSegmentSize = Long.parseLong(entry.getValue().trim());
+                    break;
+                case CACHE_BYTES_KEY:
+                    newCacheBytes = Long.parseLong(entry.getValue().trim());
+                    break;
+                case EVICTION_POLICY_KEY:
+                    newEvictionPolicy = DatabaseCacheImpl.EvictionPolicy.valueOf(entry.getValue().trim());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown table option " + entry.getKey());
+            }
+        }
+        return new TableOptions(newSegmentSize, newCacheBytes, newEvictionPolicy);
+    }
+
+    /**
+     * Читает настройки таблицы. Ключи, которых нет в файле, берутся из настроек по умолчанию
+     *
+     * @param tablePath путь к директории таблицы
+     * @param defaults  настройки по умолчанию. Возвращаются как есть, если файла нет (таблица создана до появления настроек)
+     * @throws IOException              если файл не удалось прочитать
+     * @throws IllegalArgumentException если в файле неизвестный ключ или недопустимое значение
+     */
+    public static TableOptions read(Path tablePath, TableOptions defaults) throws IOException {
+        Path path = Paths.get(tablePath.toString(), FILE_NAME);
+        if (!Files.exists(path)) {
+            return defaults;
+        }
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(path)) {
+            properties.load(is);
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return defaults.with(values);
+    }
+
+    /**
+     * Сохраняет настройки в директорию таблицы
+     */
+    public void write(Path tablePath) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(SEGMENT_SIZE_KEY, String.valueOf(segmentSize));
+        properties.setProperty(CACHE_BYTES_KEY, String.valueOf(cacheBytes));
+        properties.setProperty(EVICTION_POLICY_KEY, evictionPolicy.name());
+        try (OutputStream os = Files.newOutputStream(Paths.get(tablePath.toString(), FILE_NAME))) {
+            properties.store(os, "Table options");
+        }
+    }
+}
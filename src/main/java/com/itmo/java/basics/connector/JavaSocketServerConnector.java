@@ -1,9 +1,17 @@
 package com.itmo.java.basics.connector;
 
 import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.ConfigLoader;
+import com.itmo.java.basics.config.DatabaseServerConfig;
 import com.itmo.java.basics.config.ServerConfig;
 import com.itmo.java.basics.console.DatabaseCommand;
 import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.initialization.impl.DatabaseInitializer;
+import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer;
+import com.itmo.java.basics.initialization.impl.TableInitializer;
+import com.itmo.java.basics.metrics.MetricsRegistry;
 import com.itmo.java.basics.resp.CommandReader;
 import com.itmo.java.protocol.RespReader;
 import com.itmo.java.protocol.RespWriter;
@@ -12,20 +20,27 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Класс, который предоставляет доступ к серверу через сокеты
  */
-public class JavaSocketServerConnector implements Closeable {
+public class JavaSocketServerConnector implements ServerConnector {
 
     private final DatabaseServer databaseServer;
+    private final int maxBulkLength;
 
     /**
-     * Экзекьютор для выполнения ClientTask
+     * Экзекьютор для выполнения ClientTask. В режиме {@link ServerConfig.ClientThreadMode#VIRTUAL_THREAD_PER_CONNECTION}
+     * каждая задача получает свой виртуальный поток, поэтому клиенты не ждут друг друга
      */
-    private final ExecutorService clientIOWorkers = Executors.newSingleThreadExecutor();
+    private final ExecutorService clientIOWorkers;
 
     private final ServerSocket serverSocket;
     private final ExecutorService connectionAcceptorExecutor = Executors.newSingleThreadExecutor();
@@ -35,12 +50,17 @@ public class JavaSocketServerConnector implements Closeable {
      */
     public JavaSocketServerConnector(DatabaseServer databaseServer, ServerConfig config) throws IOException {
         this.databaseServer = databaseServer;
+        this.maxBulkLength = config.getMaxBulkLength();
+        this.clientIOWorkers = config.getClientThreadMode() == ServerConfig.ClientThreadMode.VIRTUAL_THREAD_PER_CONNECTION
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newSingleThreadExecutor();
         serverSocket = new ServerSocket(config.getPort());
     }
  
      /**
      * Начинает слушать заданный порт, начинает аксептить клиентские сокеты. На каждый из них начинает клиентскую таску
      */
+    @Override
     public void start() {
         connectionAcceptorExecutor.submit(() -> {
             try {
@@ -48,7 +68,8 @@ public class JavaSocketServerConnector implements Closeable {
                     clientIOWorkers.submit(
                         new ClientTask(
                             serverSocket.accept(),
-                            databaseServer
+                            databaseServer,
+                            maxBulkLength
                         )
                     );
                 }
@@ -75,8 +96,28 @@ public class JavaSocketServerConnector implements Closeable {
     }
 
 
+    /**
+     * Запускает сервер с конфигурацией из файла (первый аргумент, по умолчанию {@link ConfigLoader#DEFAULT_FILE_NAME})
+     * на коннекторе, выбранном в ней. Если {@link ServerConfig#getInitParallelism()} больше 1, базы, таблицы и сегменты
+     * загружаются параллельно на пуле такого размера
+     */
     public static void main(String[] args) throws Exception {
-        //some code here
+        DatabaseServerConfig config = new ConfigLoader(args.length > 0 ? args[0] : ConfigLoader.DEFAULT_FILE_NAME).readConfig();
+        int initParallelism = config.getServerConfig().getInitParallelism();
+        ForkJoinPool initPool = initParallelism > 1 ? new ForkJoinPool(initParallelism) : null;
+        DatabaseServer server;
+        try {
+            server = DatabaseServer.initialize(
+                new ExecutionEnvironmentImpl(config.getDbConfig()),
+                new DatabaseServerInitializer(
+                    new DatabaseInitializer(new TableInitializer(new SegmentInitializer(), initPool), initPool),
+                    initPool));
+        } finally {
+            if (initPool != null) {
+                initPool.shutdown();
+            }
+        }
+        ServerConnector.open(server, config.getServerConfig()).start();
     }
 
     /**
@@ -84,44 +125,74 @@ public class JavaSocketServerConnector implements Closeable {
      */
     static class ClientTask implements Runnable, Closeable {
 
+        /**
+         * Сколько присланных подряд команд исполняется до отправки ответов
+         */
+        private static final int MAX_PIPELINE_BATCH = 1024;
+
+        private static final LongAdder ACTIVE_CONNECTIONS = MetricsRegistry.getInstance().counter("server.connections_active");
+        private static final LongAdder ACCEPTED_CONNECTIONS = MetricsRegistry.getInstance().counter("server.connections_accepted");
+
         private final Socket client;
         private final DatabaseServer server;
-
+        private final int maxBulkLength;
 
         /**
          * @param client клиентский сокет
          * @param server сервер, на котором исполняется задача
          */
         public ClientTask(Socket client, DatabaseServer server) {
+            this(client, server, RespReader.DEFAULT_MAX_BULK_LENGTH);
+        }
+
+        /**
+         * @param maxBulkLength максимальная длина bulk строки в команде клиента
+         */
+        public ClientTask(Socket client, DatabaseServer server, int maxBulkLength) {
             this.client = client;
             this.server = server;
+            this.maxBulkLength = maxBulkLength;
         }
 
         /**
          * Исполняет задачи из одного клиентского сокета, пока клиент не отсоединился или текущий поток не был прерван (interrupted).
-         * Для кажной из задач:
-         * 1. Читает из сокета команду с помощью {@link CommandReader}
-         * 2. Исполняет ее на сервере
-         * 3. Записывает результат в сокет с помощью {@link RespWriter}
+         * Задачи обрабатываются пачками:
+         * 1. Читает из сокета команду с помощью {@link CommandReader}, а также все команды, которые клиент уже прислал
+         * 2. Отправляет их на исполнение на сервере
+         * 3. Записывает результаты в порядке команд с помощью {@link RespWriter} и отправляет их одним flush
          */
         @Override
         public void run() {
+            ACTIVE_CONNECTIONS.increment();
+            ACCEPTED_CONNECTIONS.increment();
             try (
                     CommandReader commandReader =
                         new CommandReader(
-                            new RespReader(client.getInputStream()),
+                            new RespReader(client.getInputStream(), maxBulkLength),
                             server.getEnv());
                     RespWriter writer = new RespWriter(client.getOutputStream())
                 ) {
+                // ответы отправляются явным flush после пачки, ждать склейки пакетов незачем
+                client.setTcpNoDelay(true);
+                List<CompletableFuture<DatabaseCommandResult>> batch = new ArrayList<>();
                 while (!client.isClosed()) {
-                    DatabaseCommand command = commandReader.readCommand();
-                    DatabaseCommandResult result = server.executeNextCommand(command).get();
-                    writer.write(result.serialize());
+                    do {
+                        DatabaseCommand command = commandReader.readCommand();
+                        batch.add(server.executeNextCommand(command));
+                    } while (batch.size() < MAX_PIPELINE_BATCH && commandReader.hasBufferedCommand());
+
+                    for (CompletableFuture<DatabaseCommandResult> result : batch) {
+                        writer.append(result.get().serialize());
+                    }
+                    writer.flush();
+                    batch.clear();
                 }
             } catch (Exception ext) {
                 //something happened
                 close();
                 new Exception("client task run", ext).printStackTrace();
+            } finally {
+                ACTIVE_CONNECTIONS.decrement();
             }
         }
 
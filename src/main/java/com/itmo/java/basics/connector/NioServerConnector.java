@@ -0,0 +1,445 @@
+package com.itmo.java.basics.connector;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.ServerConfig;
+import com.itmo.java.basics.console.DatabaseCommandArgPositions;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.metrics.MetricsRegistry;
+import com.itmo.java.protocol.RespBufferParser;
+import com.itmo.java.protocol.RespOutputBuffer;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Неблокирующий доступ к серверу через {@link Selector}. Соединения распределяются между несколькими потоками
+ * ввода-вывода, у каждого из которых свой селектор. Команды разбираются из буфера соединения по мере
+ * поступления данных и исполняются на {@link DatabaseServer}, ответы отправляются в порядке поступления команд
+ */
+public class NioServerConnector implements ServerConnector {
+
+    public static final int DEFAULT_IO_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Буфер чтения не расширяется: парсер сразу забирает из него все пришедшие данные
+     */
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Сколько команд одного клиента может исполняться одновременно. Дальше соединение перестает читаться,
+     * пока ответы не будут отправлены
+     */
+    private static final int MAX_PENDING_COMMANDS = 1024;
+
+    /**
+     * Сколько байт неотправленных ответов может накопиться у клиента. Дальше соединение перестает читаться,
+     * пока клиент не заберет ответы
+     */
+    private static final long MAX_OUTGOING_BYTES = 4L * 1024 * 1024;
+
+    private final DatabaseServer databaseServer;
+    private final int maxBulkLength;
+    private final int maxCommandLength;
+    private final LongAdder activeConnections = MetricsRegistry.getInstance().counter("server.connections_active");
+    private final LongAdder acceptedConnections = MetricsRegistry.getInstance().counter("server.connections_accepted");
+    private final ServerSocketChannel serverChannel;
+    private final IoWorker[] workers;
+    private int nextWorker = 0;
+    private volatile boolean closed = false;
+
+    public NioServerConnector(DatabaseServer databaseServer, ServerConfig config) throws IOException {
+        this(databaseServer, config, DEFAULT_IO_THREADS);
+    }
+
+    /**
+     * Открывает серверный канал на порту из конфигурации. Соединения начинают приниматься после {@link #start()}
+     *
+     * @param ioThreads количество потоков ввода-вывода
+     */
+    public NioServerConnector(DatabaseServer databaseServer, ServerConfig config, int ioThreads) throws IOException {
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("I/O thread count must be positive, got " + ioThreads);
+        }
+        this.databaseServer = databaseServer;
+        this.maxBulkLength = config.getMaxBulkLength();
+        this.maxCommandLength = config.getMaxCommandLength();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(config.getPort()));
+        serverChannel.configureBlocking(false);
+
+        workers = new IoWorker[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            workers[i] = new IoWorker("kvs-nio-" + i);
+        }
+    }
+
+    /**
+     * Запускает потоки ввода-вывода. Новые соединения принимает первый из них
+     */
+    @Override
+    public void start() throws IOException {
+        serverChannel.register(workers[0].selector, SelectionKey.OP_ACCEPT);
+        for (IoWorker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Перестает принимать соединения и закрывает все открытые
+     */
+    @Override
+    public void close() {
+        System.out.println("Stopping nio connector");
+        closed = true;
+        for (IoWorker worker : workers) {
+            worker.selector.wakeup();
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException ioext) {
+            throw new RuntimeException("Cannot close server channel", ioext);
+        }
+    }
+
+    /**
+     * Принимает все ожидающие соединения. Ошибка принятия (например, исчерпание дескрипторов)
+     * не останавливает поток: соединение будет принято при следующей готовности канала
+     */
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                workers[nextWorker].register(channel);
+                nextWorker = (nextWorker + 1) % workers.length;
+            }
+        } catch (IOException ioext) {
+            if (!closed) {
+                new IOException("connector accept", ioext).printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Поток ввода-вывода со своим селектором. Остальные потоки общаются с ним только через очереди
+     */
+    private class IoWorker implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<ClientConnection> completedConnections = new ConcurrentLinkedQueue<>();
+
+        IoWorker(String name) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, name);
+        }
+
+        void register(SocketChannel channel) {
+            newChannels.add(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Сообщает потоку, что у соединения исполнилась команда. Вызывается из потоков исполнения команд
+         */
+        void onCommandCompleted(ClientConnection connection) {
+            completedConnections.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    registerNewChannels();
+                    sendCompletedResults();
+                    processSelectedKeys();
+                }
+            } catch (IOException ioext) {
+                new IOException("nio worker " + thread.getName(), ioext).printStackTrace();
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void registerNewChannels() {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    key.attach(new ClientConnection(channel, key, this));
+                    activeConnections.increment();
+                    acceptedConnections.increment();
+                } catch (IOException ioext) {
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        private void sendCompletedResults() {
+            ClientConnection connection;
+            while ((connection = completedConnections.poll()) != null) {
+                connection.sendCompletedResults();
+            }
+        }
+
+        private void processSelectedKeys() {
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+
+                ClientConnection connection = (ClientConnection) key.attachment();
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.flush();
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof ClientConnection) {
+                    ((ClientConnection) key.attachment()).close();
+                } else {
+                    closeQuietly(key.channel());
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ioext) {
+                new IOException("nio worker close", ioext).printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Состояние одного клиентского соединения. Все методы, кроме колбэков завершения команд,
+     * вызываются только потоком ввода-вывода соединения
+     */
+    private class ClientConnection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final IoWorker worker;
+        private final RespBufferParser parser = new RespBufferParser(maxBulkLength, maxCommandLength);
+        private final Deque<CompletableFuture<DatabaseCommandResult>> pending = new ArrayDeque<>();
+        private final Deque<ByteBuffer> outgoing = new ArrayDeque<>();
+        private long outgoingBytes = 0;
+        private final RespOutputBuffer encoded = new RespOutputBuffer();
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private boolean throttled = false;
+
+        /**
+         * Клиент нарушил протокол или сервер перестал принимать команды: соединение больше не читается
+         * и закрывается после отправки ответов
+         */
+        private boolean closing = false;
+
+        ClientConnection(SocketChannel channel, SelectionKey key, IoWorker worker) {
+            this.channel = channel;
+            this.key = key;
+            this.worker = worker;
+        }
+
+        void onReadable() {
+            try {
+                if (channel.read(readBuffer) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException ioext) {
+                close();
+                new IOException("client connection read", ioext).printStackTrace();
+                return;
+            }
+            parseBuffered();
+        }
+
+        void sendCompletedResults() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+                    pending.pollFirst().join().serialize().write(encoded);
+                }
+            } catch (IOException ioext) {
+                throw new IllegalStateException("Can't serialize result into memory", ioext);
+            }
+            if (encoded.size() > 0) {
+                // все готовые ответы уходят одним буфером
+                outgoing.add(encoded.toByteBuffer());
+                outgoingBytes += encoded.size();
+                encoded.reset();
+            }
+            flush();
+        }
+
+        void flush() {
+            try {
+                while (!outgoing.isEmpty()) {
+                    ByteBuffer head = outgoing.peekFirst();
+                    outgoingBytes -= channel.write(head);
+                    if (head.hasRemaining()) {
+                        break;
+                    }
+                    outgoing.pollFirst();
+                }
+                if (closing && pending.isEmpty() && outgoing.isEmpty()) {
+                    close();
+                    return;
+                }
+                if (throttled && canAccept()) {
+                    // команды, оставшиеся в буфере, разбираются сразу: новых данных от клиента может не быть
+                    parseBuffered();
+                    return;
+                }
+                updateInterest();
+            } catch (IOException ioext) {
+                close();
+                new IOException("client connection write", ioext).printStackTrace();
+            }
+        }
+
+        /**
+         * Отправляет на исполнение все команды, полностью пришедшие в буфер, пока не достигнуто ограничение
+         * на количество исполняемых команд или размер неотправленных ответов. Начало недошедшей команды парсер хранит у себя.
+         * При нарушении протокола (в том числе слишком большой команде) клиент получает ошибку, и соединение закрывается
+         */
+        private void parseBuffered() {
+            readBuffer.flip();
+            try {
+                Optional<RespObject> object;
+                while (canAccept() && (object = parser.tryParse(readBuffer)).isPresent()) {
+                    submit(object.get());
+                }
+            } catch (IOException ioext) {
+                closing = true;
+                readBuffer.clear();
+                pending.addLast(CompletableFuture.completedFuture(DatabaseCommandResult.error("Protocol error: " + ioext.getMessage())));
+                sendCompletedResults();
+                return;
+            }
+            throttled = !canAccept();
+            readBuffer.compact();
+            updateInterest();
+        }
+
+        /**
+         * Передает команду серверу. Если сервер уже не принимает команды (остановлен), клиент получает ошибку,
+         * и соединение закрывается после отправки ответов: остальные соединения потока продолжают работать
+         */
+        private void submit(RespObject object) {
+            CompletableFuture<DatabaseCommandResult> result;
+            String error = validate(object);
+            if (error != null) {
+                result = CompletableFuture.completedFuture(DatabaseCommandResult.error(error));
+            } else {
+                try {
+                    result = databaseServer
+                        .executeNextCommand((RespArray) object)
+                        .exceptionally(ext -> DatabaseCommandResult.error(
+                            "Can't execute command, because " + (ext.getCause() != null ? ext.getCause() : ext).getMessage()));
+                } catch (RejectedExecutionException rejext) {
+                    closing = true;
+                    result = CompletableFuture.completedFuture(DatabaseCommandResult.error("Server is not accepting commands"));
+                }
+            }
+            pending.addLast(result);
+            result.whenComplete((ignored, ext) -> worker.onCommandCompleted(this));
+        }
+
+        /**
+         * Проверяет формальные признаки команды (см {@link com.itmo.java.basics.resp.CommandReader})
+         *
+         * @return сообщение об ошибке или null, если команду можно исполнять
+         */
+        private String validate(RespObject object) {
+            if (!(object instanceof RespArray)) {
+                return "Command must be an array";
+            }
+            List<RespObject> objects = ((RespArray) object).getObjects();
+            if (objects.size() < 3) {
+                return "Not enough arguments to read a command";
+            }
+            if (!(objects.get(DatabaseCommandArgPositions.COMMAND_ID.getPositionIndex()) instanceof RespCommandId)) {
+                return "No command id found";
+            }
+            if (!(objects.get(DatabaseCommandArgPositions.COMMAND_NAME.getPositionIndex()) instanceof RespBulkString)) {
+                return "No command name found";
+            }
+            return null;
+        }
+
+        /**
+         * @return можно ли принимать от клиента новые команды: соединение не закрывается, а исполняемые команды
+         * и неотправленные ответы не превышают ограничений
+         */
+        private boolean canAccept() {
+            return !closing && pending.size() < MAX_PENDING_COMMANDS && outgoingBytes < MAX_OUTGOING_BYTES;
+        }
+
+        private void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            int ops = 0;
+            if (canAccept()) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (!outgoing.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(ops);
+        }
+
+        private void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            key.cancel();
+            closeQuietly(channel);
+            activeConnections.decrement();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ioext) {
+            new IOException("close", ioext).printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.itmo.java.basics.connector;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.ServerConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Доступ клиентов к серверу по сети
+ */
+public interface ServerConnector extends Closeable {
+
+    /**
+     * Начинает принимать клиентов
+     */
+    void start() throws IOException;
+
+    /**
+     * Открывает коннектор, выбранный в конфигурации ({@link ServerConfig#getConnector()})
+     */
+    static ServerConnector open(DatabaseServer databaseServer, ServerConfig config) throws IOException {
+        switch (config.getConnector()) {
+            case NIO:
+                return new NioServerConnector(databaseServer, config);
+            case SOCKET:
+                return new JavaSocketServerConnector(databaseServer, config);
+            default:
+                throw new IllegalArgumentException("Unknown connector " + config.getConnector());
+        }
+    }
+}
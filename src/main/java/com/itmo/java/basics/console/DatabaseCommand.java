@@ -1,5 +1,10 @@
 package com.itmo.java.basics.console;
 
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.Collections;
+import java.util.List;
+
 public interface DatabaseCommand {
     /**
      * Запускает команду.
@@ -7,4 +12,23 @@ public interface DatabaseCommand {
      * @return Сообщение о выполнении результата команды.
      */
     DatabaseCommandResult execute();
+
+    /**
+     * Возвращает аргументы, с которыми создана команда (порядок - {@link DatabaseCommandArgPositions}).
+     * По ним сервер определяет, с какими командами нужно сохранить порядок исполнения
+     *
+     * @return аргументы команды или пустой список, если они неизвестны
+     */
+    default List<RespObject> getCommandArgs() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return {@code true} - если команда изменяет данные таблиц. Результат такой команды
+     * сообщается клиенту только после сброса записи на диск, если этого требует
+     * {@link com.itmo.java.basics.durability.DurabilityPolicy}
+     */
+    default boolean isMutating() {
+        return false;
+    }
 }
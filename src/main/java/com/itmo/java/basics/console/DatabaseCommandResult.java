@@ -1,9 +1,12 @@
 package com.itmo.java.basics.console;
 
 import com.itmo.java.basics.console.impl.FailedDatabaseCommandResult;
+import com.itmo.java.basics.console.impl.MultiValueDatabaseCommandResult;
 import com.itmo.java.basics.console.impl.SuccessDatabaseCommandResult;
 import com.itmo.java.protocol.model.RespObject;
 
+import java.util.List;
+
 public interface DatabaseCommandResult extends DatabaseApiSerializable {
 
     /**
@@ -16,6 +19,16 @@ public interface DatabaseCommandResult extends DatabaseApiSerializable {
         return new SuccessDatabaseCommandResult(result);
     }
 
+    /**
+     * Формирует успешный результат выполнения команды из нескольких значений.
+     *
+     * @param results значения результата, null для отсутствующих
+     * @return успешный результат выполнения команды, который был сформирован
+     */
+    static DatabaseCommandResult successValues(List<byte[]> results) {
+        return new MultiValueDatabaseCommandResult(results);
+    }
+
     /**
      * Формирует зафейленный результат команды, при выполнении которой произошла ошибка.
      *
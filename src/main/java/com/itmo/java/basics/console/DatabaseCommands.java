@@ -4,8 +4,14 @@ import com.itmo.java.basics.console.impl.CreateDatabaseCommand;
 import com.itmo.java.basics.console.impl.CreateTableCommand;
 import com.itmo.java.basics.console.impl.DeleteKeyCommand;
 import com.itmo.java.basics.console.impl.GetKeyCommand;
+import com.itmo.java.basics.console.impl.InfoCommand;
+import com.itmo.java.basics.console.impl.MultiGetKeysCommand;
+import com.itmo.java.basics.console.impl.MultiSetKeysCommand;
 import com.itmo.java.basics.console.impl.SetKeyCommand;
+import com.itmo.java.basics.console.impl.SlowLogCommand;
 import com.itmo.java.basics.logic.impl.DatabaseImpl;
+import com.itmo.java.basics.metrics.MetricsRegistry;
+import com.itmo.java.basics.metrics.SlowLog;
 import com.itmo.java.protocol.model.RespObject;
 
 import java.util.List;
@@ -45,6 +51,30 @@ public enum DatabaseCommands {
         public DatabaseCommand getCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
             return new DeleteKeyCommand(env, commandArgs);
         }
+    },
+    MULTI_SET_KEYS {
+        @Override
+        public DatabaseCommand getCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
+            return new MultiSetKeysCommand(env, commandArgs);
+        }
+    },
+    MULTI_GET_KEYS {
+        @Override
+        public DatabaseCommand getCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
+            return new MultiGetKeysCommand(env, commandArgs);
+        }
+    },
+    INFO {
+        @Override
+        public DatabaseCommand getCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
+            return new InfoCommand(MetricsRegistry.getInstance(), commandArgs);
+        }
+    },
+    SLOWLOG {
+        @Override
+        public DatabaseCommand getCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
+            return new SlowLogCommand(SlowLog.getInstance(), commandArgs);
+        }
     };
 
     /**
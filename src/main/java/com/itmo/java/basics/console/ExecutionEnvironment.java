@@ -1,5 +1,7 @@
 package com.itmo.java.basics.console;
 
+import com.itmo.java.basics.config.TableOptions;
+import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.logic.Database;
 
 import java.nio.file.Path;
@@ -11,6 +13,11 @@ public interface ExecutionEnvironment {
      */
     Path getWorkingPath();
 
+    /**
+     * @return настройки хранения для таблиц, при создании которых не указано другое
+     */
+    TableOptions getDefaultTableOptions();
+
     /**
      * Возвращает {@code Optional<Database>} или {@code Optional#EMPTY}.
      *
@@ -25,4 +32,11 @@ public interface ExecutionEnvironment {
      * @param db база данных, которую нужно добавить
      */
     void addDatabase(Database db);
+
+    /**
+     * Закрывает все базы данных окружения.
+     *
+     * @throws DatabaseException если не удалось закрыть какую-либо из баз
+     */
+    void close() throws DatabaseException;
 }
@@ -65,4 +65,9 @@ public class CreateDatabaseCommand implements DatabaseCommand {
             return DatabaseCommandResult.error("Can't create database, because " + ext.getMessage());
         }
     }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
 }
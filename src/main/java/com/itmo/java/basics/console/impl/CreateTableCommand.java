@@ -1,5 +1,6 @@
 package com.itmo.java.basics.console.impl;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.console.DatabaseCommand;
 import com.itmo.java.basics.console.DatabaseCommandArgPositions;
 import com.itmo.java.basics.console.DatabaseCommandResult;
@@ -8,7 +9,9 @@ import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.logic.Database;
 import com.itmo.java.protocol.model.RespObject;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,7 +19,7 @@ import java.util.Optional;
  */
 public class CreateTableCommand implements DatabaseCommand {
 
-    private static final int NUM_OF_ARGS = 4;
+    private static final int MIN_NUM_OF_ARGS = 4;
 
     private final ExecutionEnvironment env;
     private final List<RespObject> commandArgs;
@@ -28,16 +31,14 @@ public class CreateTableCommand implements DatabaseCommand {
      *
      * @param env         env
      * @param commandArgs аргументы для создания (порядок - {@link DatabaseCommandArgPositions}.
-     *                    Id команды, имя команды, имя бд, имя таблицы
+     *                    Id команды, имя команды, имя бд, имя таблицы и, необязательно, настройки хранения
+     *                    вида "имя=значение" (см {@link TableOptions}), которые заменяют настройки по умолчанию
      * @throws IllegalArgumentException если передано неправильное количество аргументов
      */
     public CreateTableCommand(ExecutionEnvironment env, List<RespObject> commandArgs) throws IllegalArgumentException {
-        if (commandArgs.size() < NUM_OF_ARGS) {
+        if (commandArgs.size() < MIN_NUM_OF_ARGS) {
             throw new IllegalArgumentException("Not enough arguments to create table");
         }
-        if (commandArgs.size() > NUM_OF_ARGS) {
-            throw new IllegalArgumentException("Too much arguments to create table");
-        }
 
         for (var object : commandArgs) {
             if (object == null) {
@@ -63,10 +64,28 @@ public class CreateTableCommand implements DatabaseCommand {
             if (database.isEmpty()) {
                 throw new DatabaseException("No database with name " + dbName);
             }
-            database.get().createTableIfNotExists(tableName);
+            database.get().createTableIfNotExists(tableName, env.getDefaultTableOptions().with(parseOptions()));
             return DatabaseCommandResult.success(("Table " + tableName + " created successfully").getBytes());
         } catch (Exception ext) {
             return DatabaseCommandResult.error("Can't create table because " + ext.getMessage());
         }
     }
+
+    private Map<String, String> parseOptions() {
+        Map<String, String> options = new HashMap<>();
+        for (int i = MIN_NUM_OF_ARGS; i < commandArgs.size(); i++) {
+            String option = commandArgs.get(i).asString();
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Table option " + option + " is not in name=value form");
+            }
+            options.put(option.substring(0, separator).trim(), option.substring(separator + 1));
+        }
+        return options;
+    }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
 }
@@ -63,4 +63,14 @@ public class DeleteKeyCommand implements DatabaseCommand {
             return DatabaseCommandResult.error("Can't delete key, because " + ext.getMessage());
         }
     }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
+
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
 }
@@ -1,21 +1,31 @@
 package com.itmo.java.basics.console.impl;
 
 import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.console.ExecutionEnvironment;
+import com.itmo.java.basics.durability.GroupCommitService;
+import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.logic.Database;
+import com.itmo.java.basics.metrics.SlowLog;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ExecutionEnvironmentImpl implements ExecutionEnvironment {
     private final DatabaseConfig dbConfig;
-    private final Map<String, Database> databases = new HashMap<>();
+    private final Map<String, Database> databases = new ConcurrentHashMap<>();
 
+    /**
+     * Политика сброса на диск из конфигурации применяется ко всем таблицам ({@link GroupCommitService#getInstance()}),
+     * настройки журнала медленных команд - к {@link SlowLog#getInstance()}
+     */
     public ExecutionEnvironmentImpl(DatabaseConfig config) {
         this.dbConfig = config;
+        GroupCommitService.getInstance().setPolicy(config.getDurabilityPolicy());
+        SlowLog.getInstance().setPolicy(config.getSlowLogPolicy());
     }
 
     @Override
@@ -32,4 +42,16 @@ public class ExecutionEnvironmentImpl implements ExecutionEnvironment {
     public Path getWorkingPath() {
         return Paths.get(dbConfig.getWorkingPath());
     }
+
+    @Override
+    public TableOptions getDefaultTableOptions() {
+        return dbConfig.getDefaultTableOptions();
+    }
+
+    @Override
+    public void close() throws DatabaseException {
+        for (Database db : databases.values()) {
+            db.close();
+        }
+    }
 }
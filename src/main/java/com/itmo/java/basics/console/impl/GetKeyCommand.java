@@ -73,4 +73,9 @@ public class GetKeyCommand implements DatabaseCommand {
             return DatabaseCommandResult.error("Can't get key's value, because" + ext.getMessage());
         }
     }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
 }
@@ -0,0 +1,75 @@
+package com.itmo.java.basics.console.impl;
+
+import com.itmo.java.basics.console.DatabaseCommand;
+import com.itmo.java.basics.console.DatabaseCommandArgPositions;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.metrics.MetricsRegistry;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.List;
+
+/**
+ * Команда для получения метрик сервера
+ */
+public class InfoCommand implements DatabaseCommand {
+
+    private static final int NUM_OF_ARGS = 3;
+
+    /**
+     * Раздел метрик передается на месте имени базы данных
+     */
+    private static final int SECTION_POSITION = DatabaseCommandArgPositions.DATABASE_NAME.getPositionIndex();
+
+    private final MetricsRegistry registry;
+    private final List<RespObject> commandArgs;
+
+    /**
+     * Создает команду.
+     * <br/>
+     * Обратите внимание, что в конструкторе нет логики проверки валидности данных. Не проверяется, можно ли исполнить команду.
+     * Только формальные признаки (например, количество переданных значений или ненуловость объектов)
+     *
+     * @param registry    реестр, из которого читаются метрики
+     * @param commandArgs аргументы для создания (порядок - {@link DatabaseCommandArgPositions}.
+     *                    Id команды, имя команды, раздел метрик ("server", "commands", "cache", "storage" или "all")
+     * @throws IllegalArgumentException если передано неправильное количество аргументов
+     */
+    public InfoCommand(MetricsRegistry registry, List<RespObject> commandArgs) {
+        if (commandArgs.size() < NUM_OF_ARGS) {
+            throw new IllegalArgumentException("Not enough arguments to get info");
+        }
+        if (commandArgs.size() > NUM_OF_ARGS) {
+            throw new IllegalArgumentException("Too much arguments to get info");
+        }
+
+        for (var object : commandArgs) {
+            if (object == null) {
+                throw new IllegalArgumentException("Some arguments are null");
+            }
+        }
+
+        this.registry = registry;
+        this.commandArgs = commandArgs;
+    }
+
+    /**
+     * Формирует отчет по метрикам раздела
+     *
+     * @return {@link DatabaseCommandResult#success(byte[])} со строками "имя:значение", разделенными CRLF.
+     * Например, "cache.hits:42\r\ncache.misses:3\r\n"
+     */
+    @Override
+    public DatabaseCommandResult execute() {
+        try {
+            String section = commandArgs.get(SECTION_POSITION).asString();
+            return DatabaseCommandResult.success(registry.report(section).getBytes());
+        } catch (Exception ext) {
+            return DatabaseCommandResult.error("Can't get info, because " + ext.getMessage());
+        }
+    }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
+}
@@ -0,0 +1,80 @@
+package com.itmo.java.basics.console.impl;
+
+import com.itmo.java.basics.console.DatabaseCommand;
+import com.itmo.java.basics.console.DatabaseCommandArgPositions;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.console.ExecutionEnvironment;
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.logic.Database;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Команда для чтения значений по нескольким ключам одной таблицы
+ */
+public class MultiGetKeysCommand implements DatabaseCommand {
+    private static final int MIN_NUM_OF_ARGS = 5;
+
+    private final ExecutionEnvironment env;
+    private final List<RespObject> commandArgs;
+
+    /**
+     * Создает команду.
+     * <br/>
+     * Обратите внимание, что в конструкторе нет логики проверки валидности данных. Не проверяется, можно ли исполнить команду. Только формальные признаки (например, количество переданных значений или ненуловость объектов
+     *
+     * @param env         env
+     * @param commandArgs аргументы для создания (порядок - {@link DatabaseCommandArgPositions}.
+     *                    Id команды, имя команды, имя бд, таблицы, ключи
+     * @throws IllegalArgumentException если не передано ни одного ключа
+     */
+    public MultiGetKeysCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
+        if (commandArgs.size() < MIN_NUM_OF_ARGS) {
+            throw new IllegalArgumentException("Not enough arguments to get values by keys");
+        }
+
+        for (var object : commandArgs) {
+            if (object == null) {
+                throw new IllegalArgumentException("Some arguments are null");
+            }
+        }
+
+        this.env = env;
+        this.commandArgs = commandArgs;
+    }
+
+    /**
+     * Читает значения по ключам
+     *
+     * @return {@link DatabaseCommandResult#successValues(List)} со значениями в порядке ключей. Null для отсутствующих ключей
+     */
+    @Override
+    public DatabaseCommandResult execute() {
+        try {
+            String dbName = commandArgs.get(DatabaseCommandArgPositions.DATABASE_NAME.getPositionIndex()).asString();
+            String tableName = commandArgs.get(DatabaseCommandArgPositions.TABLE_NAME.getPositionIndex()).asString();
+
+            Optional<Database> database = env.getDatabase(dbName);
+            if (database.isEmpty()) {
+                throw new DatabaseException("No database with name " + dbName);
+            }
+
+            int firstKey = DatabaseCommandArgPositions.KEY.getPositionIndex();
+            List<byte[]> values = new ArrayList<>(commandArgs.size() - firstKey);
+            for (int i = firstKey; i < commandArgs.size(); i++) {
+                values.add(database.get().read(tableName, commandArgs.get(i).asString()).orElse(null));
+            }
+            return DatabaseCommandResult.successValues(values);
+        } catch (Exception ext) {
+            return DatabaseCommandResult.error("Can't get keys' values, because" + ext.getMessage());
+        }
+    }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
+}
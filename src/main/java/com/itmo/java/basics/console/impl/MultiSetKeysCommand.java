@@ -0,0 +1,89 @@
+package com.itmo.java.basics.console.impl;
+
+import com.itmo.java.basics.console.DatabaseCommand;
+import com.itmo.java.basics.console.DatabaseCommandArgPositions;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.console.ExecutionEnvironment;
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.logic.Database;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Команда для записи значений по нескольким ключам одной таблицы одной операцией
+ */
+public class MultiSetKeysCommand implements DatabaseCommand {
+    private static final int MIN_NUM_OF_ARGS = 6;
+
+    private final ExecutionEnvironment env;
+    private final List<RespObject> commandArgs;
+
+    /**
+     * Создает команду.
+     * <br/>
+     * Обратите внимание, что в конструкторе нет логики проверки валидности данных. Не проверяется, можно ли исполнить команду. Только формальные признаки (например, количество переданных значений или ненуловость объектов
+     *
+     * @param env         env
+     * @param commandArgs аргументы для создания (порядок - {@link DatabaseCommandArgPositions}.
+     *                    Id команды, имя команды, имя бд, таблицы, затем чередующиеся ключи и значения
+     * @throws IllegalArgumentException если не передано ни одной пары или у последнего ключа нет значения
+     */
+    public MultiSetKeysCommand(ExecutionEnvironment env, List<RespObject> commandArgs) {
+        if (commandArgs.size() < MIN_NUM_OF_ARGS) {
+            throw new IllegalArgumentException("Not enough arguments to set keys");
+        }
+        if ((commandArgs.size() - DatabaseCommandArgPositions.KEY.getPositionIndex()) % 2 != 0) {
+            throw new IllegalArgumentException("Every key must have a value");
+        }
+
+        for (var object : commandArgs) {
+            if (object == null) {
+                throw new IllegalArgumentException("Some arguments are null");
+            }
+        }
+
+        this.env = env;
+        this.commandArgs = commandArgs;
+    }
+
+    /**
+     * Записывает все значения одной операцией над таблицей. Если ключ повторяется, записывается последнее значение
+     *
+     * @return {@link DatabaseCommandResult#success(byte[])} с количеством записанных ключей
+     */
+    @Override
+    public DatabaseCommandResult execute() {
+        try {
+            String dbName = commandArgs.get(DatabaseCommandArgPositions.DATABASE_NAME.getPositionIndex()).asString();
+            String tableName = commandArgs.get(DatabaseCommandArgPositions.TABLE_NAME.getPositionIndex()).asString();
+
+            Optional<Database> database = env.getDatabase(dbName);
+            if (database.isEmpty()) {
+                throw new DatabaseException("No database with name " + dbName);
+            }
+
+            Map<String, byte[]> values = new LinkedHashMap<>();
+            for (int i = DatabaseCommandArgPositions.KEY.getPositionIndex(); i < commandArgs.size(); i += 2) {
+                values.put(commandArgs.get(i).asString(), commandArgs.get(i + 1).asString().getBytes());
+            }
+            database.get().writeAll(tableName, values);
+            return DatabaseCommandResult.success(String.valueOf(values.size()).getBytes());
+        } catch (Exception ext) {
+            return DatabaseCommandResult.error("Can't set keys' values, because" + ext.getMessage());
+        }
+    }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
+
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
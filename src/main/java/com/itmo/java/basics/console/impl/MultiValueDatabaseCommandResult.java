@@ -0,0 +1,45 @@
+package com.itmo.java.basics.console.impl;
+
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат успешной команды, возвращающей несколько значений
+ */
+public class MultiValueDatabaseCommandResult implements DatabaseCommandResult {
+    private final List<byte[]> values;
+
+    public MultiValueDatabaseCommandResult(List<byte[]> values) {
+        this.values = values;
+    }
+
+    /**
+     * @return значения через пробел, отсутствующие значения - "null"
+     */
+    @Override
+    public String getPayLoad() {
+        return serialize().asString();
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return true;
+    }
+
+    /**
+     * Сериализуется в {@link RespArray} из {@link RespBulkString} в порядке значений
+     */
+    @Override
+    public RespObject serialize() {
+        List<RespObject> objects = new ArrayList<>(values.size());
+        for (byte[] value : values) {
+            objects.add(value == null ? RespBulkString.NULL_STRING : new RespBulkString(value));
+        }
+        return new RespArray(objects);
+    }
+}
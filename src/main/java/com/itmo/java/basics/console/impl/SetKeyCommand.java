@@ -76,4 +76,14 @@ public class SetKeyCommand implements DatabaseCommand {
             return DatabaseCommandResult.error("Can't set key's value, because" + ext.getMessage());
         }
     }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
+
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
 }
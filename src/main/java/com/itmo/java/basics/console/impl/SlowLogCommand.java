@@ -0,0 +1,92 @@
+package com.itmo.java.basics.console.impl;
+
+import com.itmo.java.basics.console.DatabaseCommand;
+import com.itmo.java.basics.console.DatabaseCommandArgPositions;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.metrics.SlowLog;
+import com.itmo.java.basics.metrics.SlowLogEntry;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Команда для работы с журналом медленных команд
+ */
+public class SlowLogCommand implements DatabaseCommand {
+
+    private static final int NUM_OF_ARGS = 3;
+
+    /**
+     * Подкоманда передается на месте имени базы данных
+     */
+    private static final int SUBCOMMAND_POSITION = DatabaseCommandArgPositions.DATABASE_NAME.getPositionIndex();
+
+    private final SlowLog slowLog;
+    private final List<RespObject> commandArgs;
+
+    /**
+     * Создает команду.
+     * <br/>
+     * Обратите внимание, что в конструкторе нет логики проверки валидности данных. Не проверяется, можно ли исполнить команду.
+     * Только формальные признаки (например, количество переданных значений или ненуловость объектов)
+     *
+     * @param slowLog     журнал медленных команд
+     * @param commandArgs аргументы для создания (порядок - {@link DatabaseCommandArgPositions}.
+     *                    Id команды, имя команды, подкоманда ("GET", "LEN" или "RESET")
+     * @throws IllegalArgumentException если передано неправильное количество аргументов
+     */
+    public SlowLogCommand(SlowLog slowLog, List<RespObject> commandArgs) {
+        if (commandArgs.size() < NUM_OF_ARGS) {
+            throw new IllegalArgumentException("Not enough arguments to access slow log");
+        }
+        if (commandArgs.size() > NUM_OF_ARGS) {
+            throw new IllegalArgumentException("Too much arguments to access slow log");
+        }
+
+        for (var object : commandArgs) {
+            if (object == null) {
+                throw new IllegalArgumentException("Some arguments are null");
+            }
+        }
+
+        this.slowLog = slowLog;
+        this.commandArgs = commandArgs;
+    }
+
+    /**
+     * Исполняет подкоманду
+     *
+     * @return для GET - {@link DatabaseCommandResult#successValues(List)} с записями от самой новой к самой старой
+     * (формат записи - {@link SlowLogEntry#toString()}), для LEN - {@link DatabaseCommandResult#success(byte[])}
+     * с количеством записей, для RESET - {@link DatabaseCommandResult#success(byte[])} с сообщением об очистке
+     */
+    @Override
+    public DatabaseCommandResult execute() {
+        try {
+            String subcommand = commandArgs.get(SUBCOMMAND_POSITION).asString();
+            switch (subcommand.toUpperCase()) {
+                case "GET":
+                    List<byte[]> entries = new ArrayList<>();
+                    for (SlowLogEntry entry : slowLog.getEntries()) {
+                        entries.add(entry.toString().getBytes());
+                    }
+                    return DatabaseCommandResult.successValues(entries);
+                case "LEN":
+                    return DatabaseCommandResult.success(String.valueOf(slowLog.size()).getBytes());
+                case "RESET":
+                    slowLog.reset();
+                    return DatabaseCommandResult.success("Slow log cleared".getBytes());
+                default:
+                    return DatabaseCommandResult.error("Unknown slow log subcommand " + subcommand);
+            }
+        } catch (Exception ext) {
+            return DatabaseCommandResult.error("Can't access slow log, because " + ext.getMessage());
+        }
+    }
+
+    @Override
+    public List<RespObject> getCommandArgs() {
+        return commandArgs;
+    }
+}
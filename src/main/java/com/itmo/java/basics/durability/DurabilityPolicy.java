@@ -0,0 +1,55 @@
+package com.itmo.java.basics.durability;
+
+/**
+ * Когда записанные в сегменты данные сбрасываются на диск ({@link java.nio.channels.FileChannel#force(boolean)})
+ */
+public class DurabilityPolicy {
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    public enum Mode {
+        /**
+         * Данные не сбрасываются явно, момент записи на диск выбирает ОС
+         */
+        NONE,
+        /**
+         * Измененные сегменты сбрасываются раз в интервал. Команды не ждут сброса,
+         * при сбое теряются записи не более чем за последний интервал
+         */
+        PERIODIC,
+        /**
+         * Измененные сегменты сбрасываются сразу после записи. Записи, сделанные, пока идет предыдущий сброс,
+         * сбрасываются вместе следующим. Команда завершается только после сброса ее записи
+         */
+        EVERY_BATCH
+    }
+
+    private final Mode mode;
+    private final long intervalMillis;
+
+    public DurabilityPolicy(Mode mode, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Sync interval must be positive, got " + intervalMillis);
+        }
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public DurabilityPolicy(Mode mode) {
+        this(mode, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public DurabilityPolicy() {
+        this(Mode.NONE);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return интервал между сбросами в режиме {@link Mode#PERIODIC}
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+}
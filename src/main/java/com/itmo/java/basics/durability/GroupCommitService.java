@@ -0,0 +1,243 @@
+package com.itmo.java.basics.durability;
+
+import com.itmo.java.basics.logic.Segment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Групповой сброс записей на диск. Таблицы сообщают, в какие сегменты писали, а фоновый поток
+ * сбрасывает все накопившиеся сегменты одним проходом: сколько бы записей ни пришло, пока идет
+ * предыдущий сброс, на каждый сегмент приходится один {@link Segment#sync()} за проход.
+ * Когда сбрасывать, определяет {@link DurabilityPolicy}
+ */
+public class GroupCommitService {
+
+    private static final GroupCommitService INSTANCE = new GroupCommitService(new DurabilityPolicy());
+
+    /**
+     * Пауза перед повторным сбросом после ошибки. Сегмент, который не удалось сбросить, остается измененным,
+     * и без паузы фоновый поток повторял бы сброс непрерывно
+     */
+    private static final long RETRY_DELAY_MILLIS = 100;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    /**
+     * Проходы сброса выполняются по одному: {@link #flush()} дожидается прохода фонового потока
+     */
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private volatile DurabilityPolicy policy;
+
+    /**
+     * Сегменты с записями, еще не сброшенными на диск, и команды, ждущие следующего сброса
+     */
+    private Set<Segment> dirtySegments = new LinkedHashSet<>();
+    private List<CompletableFuture<Void>> waiters = new ArrayList<>();
+    private Thread committer;
+    private long nextPeriodicCommit = 0;
+
+    public GroupCommitService(DurabilityPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Сервис, которым по умолчанию пользуются таблицы
+     */
+    public static GroupCommitService getInstance() {
+        return INSTANCE;
+    }
+
+    public DurabilityPolicy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(DurabilityPolicy policy) {
+        lock.lock();
+        try {
+            this.policy = policy;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запоминает, что в сегмент были записаны данные, которые нужно сбросить на диск
+     */
+    public void markDirty(Segment segment) {
+        if (policy.getMode() == DurabilityPolicy.Mode.NONE) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (dirtySegments.add(segment) && policy.getMode() == DurabilityPolicy.Mode.EVERY_BATCH) {
+                changed.signalAll();
+            }
+            startIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return результат, который завершается, когда все записи, сделанные до вызова, сброшены на диск.
+     * В режимах, где команды не ждут сброса, уже завершен. Завершается с ошибкой, если сброс не удался
+     */
+    public CompletableFuture<Void> awaitCommit() {
+        if (policy.getMode() != DurabilityPolicy.Mode.EVERY_BATCH) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> commit = new CompletableFuture<>();
+        lock.lock();
+        try {
+            waiters.add(commit);
+            changed.signalAll();
+            startIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+        return commit;
+    }
+
+    /**
+     * Сбрасывает все измененные сегменты в вызывающем потоке (например, перед остановкой сервера)
+     *
+     * @throws IOException если не удалось сбросить один из сегментов
+     */
+    public void flush() throws IOException {
+        IOException failure = commit();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void startIfNeeded() {
+        if (committer == null) {
+            committer = new Thread(this::run, "kvs-group-commit");
+            committer.setDaemon(true);
+            committer.start();
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                awaitNextCommit();
+                IOException failure = commit();
+                if (failure != null) {
+                    new IOException("group commit", failure).printStackTrace();
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                }
+            }
+        } catch (InterruptedException intext) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ждет, пока по политике не придет время следующего сброса
+     */
+    private void awaitNextCommit() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                DurabilityPolicy current = policy;
+                boolean pending = !dirtySegments.isEmpty() || !waiters.isEmpty();
+                switch (current.getMode()) {
+                    case EVERY_BATCH:
+                        if (pending) {
+                            return;
+                        }
+                        changed.await();
+                        break;
+                    case PERIODIC:
+                        long now = System.nanoTime();
+                        if (nextPeriodicCommit - now <= 0) {
+                            nextPeriodicCommit = now + TimeUnit.MILLISECONDS.toNanos(current.getIntervalMillis());
+                            if (pending) {
+                                return;
+                            }
+                            continue;
+                        }
+                        changed.awaitNanos(nextPeriodicCommit - now);
+                        break;
+                    default:
+                        // ожидающие могли остаться от прежней политики
+                        if (!waiters.isEmpty()) {
+                            return;
+                        }
+                        changed.await();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Забирает накопившиеся сегменты и ожидающих, сбрасывает сегменты и завершает ожидающих.
+     * Сегменты, которые не удалось сбросить, снова помечаются измененными: пока их сброс не удастся,
+     * все следующие ожидающие завершаются с ошибкой, а не считают свои записи сохраненными
+     *
+     * @return первую ошибку сброса или null
+     */
+    private IOException commit() {
+        commitLock.lock();
+        try {
+            return commitPending();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private IOException commitPending() {
+        Set<Segment> segments;
+        List<CompletableFuture<Void>> committed;
+        lock.lock();
+        try {
+            segments = dirtySegments;
+            committed = waiters;
+            dirtySegments = new LinkedHashSet<>();
+            waiters = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        IOException failure = null;
+        List<Segment> failed = new ArrayList<>();
+        for (Segment segment : segments) {
+            try {
+                segment.sync();
+            } catch (IOException ioext) {
+                failed.add(segment);
+                if (failure == null) {
+                    failure = ioext;
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            lock.lock();
+            try {
+                dirtySegments.addAll(failed);
+            } finally {
+                lock.unlock();
+            }
+        }
+        for (CompletableFuture<Void> waiter : committed) {
+            if (failure == null) {
+                waiter.complete(null);
+            } else {
+                waiter.completeExceptionally(failure);
+            }
+        }
+        return failure;
+    }
+}
@@ -1,5 +1,23 @@
 package com.itmo.java.basics.index;
 
+/**
+ * Расположение записи в сегменте. Запись состоит из размера ключа, ключа, размера значения и значения
+ */
 public interface SegmentOffsetInfo {
     long getOffset();
+
+    /**
+     * Размер записи в сегменте в байтах
+     */
+    long getSize();
+
+    /**
+     * Смещение значения в сегменте: позиция сразу за ключом и размером значения
+     */
+    long getValueOffset();
+
+    /**
+     * Размер значения в байтах
+     */
+    int getValueSize();
 }
@@ -0,0 +1,400 @@
+package com.itmo.java.basics.index.impl;
+
+import com.itmo.java.basics.index.KvsIndex;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Индекс ключ -> {@link KeyLocation}, хранящийся вне кучи: хэш-таблица с открытой адресацией и линейным пробированием.
+ * Байты ключей дописываются в буферы ключей, а на каждый слот таблицы приходится три long: ссылка на ключ,
+ * упакованные номер сегмента и смещение, хэш ключа и размер записи. Объекты на запись не создаются,
+ * поэтому размер индекса ограничен не кучей, а памятью для прямых буферов (-XX:MaxDirectMemorySize).
+ * <p>
+ * Размер ключа в записи не хранится: это длина самого ключа в байтах.
+ * Значение null (удаление) хранится как запись без размера. Изменения выполняются под монитором индекса.
+ * Поиск не блокируется: если во время поиска индекс менялся, поиск повторяется (счетчик версий, как в seqlock).
+ * При расширении новая таблица строится рядом со старой, по которой в это время продолжается поиск.
+ * Байты удаленных ключей остаются в буфере, пока таблица не будет перестроена: это происходит,
+ * когда их становится больше, чем байт живых ключей
+ */
+public class KeyDirectory implements KvsIndex<String, KeyLocation> {
+
+    /**
+     * Смещение записи в сегменте занимает младшие 32 бита, номер сегмента - старшие
+     */
+    private static final long MAX_OFFSET = 0xFFFFFFFFL;
+
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+    private static final int NO_VALUE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final double MAX_LOAD = 0.7;
+
+    /**
+     * Меньше байт удаленных ключей не стоит перестроения таблицы
+     */
+    private static final long MIN_DEAD_KEY_BYTES = 64 * 1024;
+
+    private volatile Slots slots = new Slots(MIN_CAPACITY, new KeyArena());
+
+    /**
+     * Нечетное значение - индекс изменяется, поиск нужно повторить
+     */
+    private volatile long version = 0;
+
+    private int size = 0;
+    private int removed = 0;
+
+    /**
+     * Сколько байт буфера ключей занимают ключи в таблице и сколько - удаленные ключи
+     */
+    private long liveKeyBytes = 0;
+    private long deadKeyBytes = 0;
+
+    @Override
+    public synchronized void onIndexedEntityUpdated(String key, KeyLocation value) {
+        if (value == null) {
+            put(key, 0, 0, NO_VALUE);
+            return;
+        }
+        if (value.getSegmentId() < 0 || value.getOffset() < 0 || value.getOffset() > MAX_OFFSET
+            || value.getSize() < 0 || value.getSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Location of key " + key + " can't be stored in the index: segment "
+                + value.getSegmentId() + ", offset " + value.getOffset() + ", size " + value.getSize());
+        }
+        put(key, value.getSegmentId(), value.getOffset(), (int) value.getSize());
+    }
+
+    @Override
+    public Optional<KeyLocation> searchForKey(String key) {
+        byte[] bytes = key.getBytes();
+        int hash = key.hashCode();
+        while (true) {
+            long stamp = version;
+            if ((stamp & 1) == 0) {
+                Slots current = slots;
+                long slot = current.find(bytes, hash);
+                long location = 0;
+                long meta = 0;
+                if (slot >= 0) {
+                    location = current.locations.get(slot);
+                    meta = current.meta.get(slot);
+                }
+                VarHandle.loadLoadFence();
+                if (version == stamp) {
+                    return slot < 0 || (int) meta == NO_VALUE
+                        ? Optional.empty()
+                        : Optional.of(toLocation(location, (int) meta, bytes.length));
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Удаляет ключ из индекса
+     *
+     * @return {@code true} - если ключ был в индексе
+     */
+    public synchronized boolean remove(String key) {
+        byte[] bytes = key.getBytes();
+        Slots current = slots;
+        long slot = current.find(bytes, key.hashCode());
+        if (slot < 0) {
+            return false;
+        }
+        beginWrite();
+        current.refs.set(slot, REMOVED);
+        endWrite();
+        size--;
+        removed++;
+        liveKeyBytes -= KeyArena.footprint(bytes);
+        deadKeyBytes += KeyArena.footprint(bytes);
+        return true;
+    }
+
+    /**
+     * @return количество ключей в индексе, включая удаленные значения
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return сколько байт прямой памяти занимает буфер ключей
+     */
+    synchronized long keyBufferBytes() {
+        return slots.arena.allocatedBytes();
+    }
+
+    /**
+     * Обходит все пары ключ-значение индекса, включая ключи со значением null. Изменения индекса на время обхода блокируются
+     *
+     * @param action действие над каждой парой
+     */
+    public synchronized void forEach(BiConsumer<? super String, ? super KeyLocation> action) {
+        Slots current = slots;
+        for (long slot = 0; slot < current.capacity; slot++) {
+            long ref = current.refs.get(slot);
+            if (ref == EMPTY || ref == REMOVED) {
+                continue;
+            }
+            int recordSize = (int) current.meta.get(slot);
+            byte[] key = current.arena.read(ref - 1);
+            action.accept(
+                new String(key),
+                recordSize == NO_VALUE ? null : toLocation(current.locations.get(slot), recordSize, key.length));
+        }
+    }
+
+    private void put(String key, int segmentId, long offset, int recordSize) {
+        byte[] bytes = key.getBytes();
+        int hash = key.hashCode();
+        long location = ((long) segmentId << Integer.SIZE) | offset;
+        long meta = ((long) hash << Integer.SIZE) | (recordSize & 0xFFFFFFFFL);
+
+        Slots current = slots;
+        long slot = current.find(bytes, hash);
+        if (slot >= 0) {
+            beginWrite();
+            current.locations.set(slot, location);
+            current.meta.set(slot, meta);
+            endWrite();
+            return;
+        }
+
+        if (size + removed + 1L > current.capacity * MAX_LOAD
+            || (deadKeyBytes > MIN_DEAD_KEY_BYTES && deadKeyBytes > liveKeyBytes)) {
+            current = rehash();
+        }
+        // ключ дописывается в свободное место буфера, на которое еще нет ссылок
+        long ref = current.arena.append(bytes);
+        slot = current.freeSlot(hash);
+        if (current.refs.get(slot) == REMOVED) {
+            removed--;
+        }
+        beginWrite();
+        current.locations.set(slot, location);
+        current.meta.set(slot, meta);
+        current.refs.set(slot, ref + 1);
+        endWrite();
+        size++;
+        liveKeyBytes += KeyArena.footprint(bytes);
+    }
+
+    /**
+     * Строит новую таблицу под текущее количество ключей (половина слотов свободна) с новым буфером ключей
+     * без удаленных ключей и подменяет ею старую. Пока таблица строится, поиск идет по старой: она не изменяется
+     */
+    private Slots rehash() {
+        Slots old = slots;
+        long capacity = MIN_CAPACITY;
+        while (capacity * 0.5 < size + 1L) {
+            capacity <<= 1;
+        }
+
+        Slots rebuilt = new Slots(capacity, new KeyArena());
+        for (long slot = 0; slot < old.capacity; slot++) {
+            long ref = old.refs.get(slot);
+            if (ref == EMPTY || ref == REMOVED) {
+                continue;
+            }
+            long meta = old.meta.get(slot);
+            long target = rebuilt.freeSlot((int) (meta >>> Integer.SIZE));
+            rebuilt.locations.set(target, old.locations.get(slot));
+            rebuilt.meta.set(target, meta);
+            rebuilt.refs.set(target, rebuilt.arena.append(old.arena.read(ref - 1)) + 1);
+        }
+
+        beginWrite();
+        slots = rebuilt;
+        endWrite();
+        removed = 0;
+        deadKeyBytes = 0;
+        return rebuilt;
+    }
+
+    private void beginWrite() {
+        version++;
+        // записи в таблицу не должны стать видны раньше нечетной версии
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        version++;
+    }
+
+    private static KeyLocation toLocation(long location, int recordSize, int keySize) {
+        return new KeyLocation((int) (location >>> Integer.SIZE), location & MAX_OFFSET, recordSize, keySize);
+    }
+
+    private static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    /**
+     * Слоты таблицы фиксированной вместимости (степень двойки) и буфер их ключей.
+     * В refs лежит ссылка на ключ в буфере плюс один: 0 - слот свободен, -1 - ключ удален
+     */
+    private static class Slots {
+        private final long capacity;
+        private final long mask;
+        private final OffHeapLongArray refs;
+        private final OffHeapLongArray locations;
+        private final OffHeapLongArray meta;
+        private final KeyArena arena;
+
+        Slots(long capacity, KeyArena arena) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.refs = new OffHeapLongArray(capacity);
+            this.locations = new OffHeapLongArray(capacity);
+            this.meta = new OffHeapLongArray(capacity);
+            this.arena = arena;
+        }
+
+        /**
+         * Ищет слот ключа. При параллельном изменении может прочитать несогласованные данные,
+         * поэтому не выходит за пределы буферов и делает не больше capacity проб
+         *
+         * @return номер слота или -1, если ключа нет
+         */
+        long find(byte[] key, int hash) {
+            long slot = spread(hash) & mask;
+            for (long probe = 0; probe < capacity; probe++) {
+                long ref = refs.get(slot);
+                if (ref == EMPTY) {
+                    return -1;
+                }
+                if (ref != REMOVED && (int) (meta.get(slot) >>> Integer.SIZE) == hash && arena.keyEquals(ref - 1, key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * @return первый свободный или освобожденный удалением слот на пути пробирования
+         */
+        long freeSlot(int hash) {
+            long slot = spread(hash) & mask;
+            while (true) {
+                long ref = refs.get(slot);
+                if (ref == EMPTY || ref == REMOVED) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * Массив long в прямых буферах. Буфер ограничен 2 ГБ, поэтому большой массив делится на части
+     */
+    private static class OffHeapLongArray {
+        private static final int CHUNK_SHIFT = 24;
+        private static final long CHUNK_LENGTH = 1L << CHUNK_SHIFT;
+        private static final long CHUNK_MASK = CHUNK_LENGTH - 1;
+
+        private final ByteBuffer[] chunks;
+
+        OffHeapLongArray(long length) {
+            chunks = new ByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long chunkLength = Math.min(CHUNK_LENGTH, length - i * CHUNK_LENGTH);
+                chunks[i] = ByteBuffer.allocateDirect((int) chunkLength * Long.BYTES);
+            }
+        }
+
+        long get(long index) {
+            return chunks[(int) (index >>> CHUNK_SHIFT)].getLong((int) (index & CHUNK_MASK) * Long.BYTES);
+        }
+
+        void set(long index, long value) {
+            chunks[(int) (index >>> CHUNK_SHIFT)].putLong((int) (index & CHUNK_MASK) * Long.BYTES, value);
+        }
+    }
+
+    /**
+     * Буферы, в которые подряд дописываются ключи в виде (длина, байты). Ключ не пересекает границу буфера,
+     * ссылка на ключ - номер буфера в старших 32 битах и позиция в младших.
+     * Каждый следующий буфер вдвое больше предыдущего, пока не достигнет {@link #MAX_CHUNK_SIZE}
+     */
+    private static class KeyArena {
+        private static final int MIN_CHUNK_SIZE = 4 * 1024;
+        private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+        private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+        private int position = 0;
+
+        /**
+         * @return сколько байт буфера занимает ключ
+         */
+        static long footprint(byte[] key) {
+            return Integer.BYTES + key.length;
+        }
+
+        long append(byte[] key) {
+            int needed = Integer.BYTES + key.length;
+            ByteBuffer[] current = chunks;
+            if (current.length == 0 || current[current.length - 1].capacity() - position < needed) {
+                int chunkSize = current.length == 0
+                    ? MIN_CHUNK_SIZE
+                    : Math.min(MAX_CHUNK_SIZE, current[current.length - 1].capacity() * 2);
+                current = Arrays.copyOf(current, current.length + 1);
+                current[current.length - 1] = ByteBuffer.allocateDirect(Math.max(chunkSize, needed));
+                chunks = current;
+                position = 0;
+            }
+
+            int chunk = current.length - 1;
+            current[chunk].putInt(position, key.length);
+            current[chunk].put(position + Integer.BYTES, key);
+            long ref = ((long) chunk << Integer.SIZE) | position;
+            position += needed;
+            return ref;
+        }
+
+        /**
+         * Сравнивает ключ по ссылке с переданным. Ссылка может быть прочитана из изменяющейся таблицы,
+         * поэтому некорректная ссылка считается несовпадением
+         */
+        boolean keyEquals(long ref, byte[] key) {
+            ByteBuffer[] current = chunks;
+            int chunk = (int) (ref >>> Integer.SIZE);
+            int keyPosition = (int) ref;
+            if (chunk < 0 || chunk >= current.length) {
+                return false;
+            }
+            ByteBuffer buffer = current[chunk];
+            if (keyPosition < 0 || keyPosition > buffer.capacity() - Integer.BYTES - key.length
+                || buffer.getInt(keyPosition) != key.length) {
+                return false;
+            }
+            return buffer.slice(keyPosition + Integer.BYTES, key.length).mismatch(ByteBuffer.wrap(key)) < 0;
+        }
+
+        long allocatedBytes() {
+            long total = 0;
+            for (ByteBuffer chunk : chunks) {
+                total += chunk.capacity();
+            }
+            return total;
+        }
+
+        byte[] read(long ref) {
+            ByteBuffer buffer = chunks[(int) (ref >>> Integer.SIZE)];
+            int keyPosition = (int) ref;
+            byte[] key = new byte[buffer.getInt(keyPosition)];
+            buffer.get(keyPosition + Integer.BYTES, key);
+            return key;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.itmo.java.basics.index.impl;
+
+import com.itmo.java.basics.index.SegmentOffsetInfo;
+
+/**
+ * Расположение записи: номер сегмента в таблице, смещение и размер записи в нем
+ */
+public class KeyLocation extends SegmentOffsetInfoImpl {
+    private final int segmentId;
+
+    public KeyLocation(int segmentId, long offset, long size, int keySize) {
+        super(offset, size, keySize);
+        this.segmentId = segmentId;
+    }
+
+    /**
+     * @param segmentId номер сегмента
+     * @param record    расположение записи в этом сегменте
+     */
+    public KeyLocation(int segmentId, SegmentOffsetInfo record) {
+        this(segmentId, record.getOffset(), record.getSize(), (int) (record.getSize() - record.getValueSize() - Integer.BYTES * 2));
+    }
+
+    public int getSegmentId() {
+        return segmentId;
+    }
+}
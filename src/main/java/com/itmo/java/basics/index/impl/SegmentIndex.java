@@ -1,7 +1,34 @@
 package com.itmo.java.basics.index.impl;
 
+import com.itmo.java.basics.index.KvsIndex;
 import com.itmo.java.basics.index.SegmentOffsetInfo;
 
-public class SegmentIndex extends MapBasedKvsIndex<String, SegmentOffsetInfo> {
-    
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Индекс записей одного сегмента: ключ -> смещение и размер последней записи по ключу.
+ * Хранится в {@link KeyDirectory}, номер сегмента в расположениях не используется
+ */
+public class SegmentIndex implements KvsIndex<String, SegmentOffsetInfo> {
+    private final KeyDirectory directory = new KeyDirectory();
+
+    @Override
+    public void onIndexedEntityUpdated(String key, SegmentOffsetInfo value) {
+        directory.onIndexedEntityUpdated(key, value == null ? null : new KeyLocation(0, value));
+    }
+
+    @Override
+    public Optional<SegmentOffsetInfo> searchForKey(String key) {
+        return directory.searchForKey(key).map(SegmentOffsetInfo.class::cast);
+    }
+
+    /**
+     * Обходит все пары ключ-значение индекса, включая ключи со значением null
+     *
+     * @param action действие над каждой парой
+     */
+    public void forEach(BiConsumer<? super String, ? super SegmentOffsetInfo> action) {
+        directory.forEach(action::accept);
+    }
 }
@@ -4,13 +4,41 @@ import com.itmo.java.basics.index.SegmentOffsetInfo;
 
 public class SegmentOffsetInfoImpl implements SegmentOffsetInfo {
     private final long offset;
+    private final long size;
+    private final int keySize;
 
     public SegmentOffsetInfoImpl(long offset) {
+        this(offset, 0, 0);
+    }
+
+    /**
+     * @param offset  смещение записи в сегменте
+     * @param size    размер записи
+     * @param keySize размер ключа записи
+     */
+    public SegmentOffsetInfoImpl(long offset, long size, int keySize) {
         this.offset = offset;
+        this.size = size;
+        this.keySize = keySize;
     }
 
     @Override
     public long getOffset() {
         return this.offset;
     }
+
+    @Override
+    public long getSize() {
+        return this.size;
+    }
+
+    @Override
+    public long getValueOffset() {
+        return offset + Integer.BYTES + keySize + Integer.BYTES;
+    }
+
+    @Override
+    public int getValueSize() {
+        return (int) (size - keySize - Integer.BYTES * 2);
+    }
 }
@@ -2,5 +2,54 @@ package com.itmo.java.basics.index.impl;
 
 import com.itmo.java.basics.logic.Segment;
 
-public class TableIndex extends MapBasedKvsIndex<String, Segment> {
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс таблицы: по каждому ключу хранится расположение последней записи (номер сегмента, смещение, размер),
+ * поэтому для чтения не нужен отдельный индекс сегмента. Удаленные ключи в индексе не хранятся.
+ * <p>
+ * Номера выдаются сегментам при регистрации и не переиспользуются: запись о ключе, прочитанная до замены
+ * сегмента, не может указать на другой сегмент
+ */
+public class TableIndex extends KeyDirectory {
+    private final Map<Integer, Segment> segmentsById = new ConcurrentHashMap<>();
+    private final Map<Segment, Integer> idsBySegment = new ConcurrentHashMap<>();
+    private int nextSegmentId = 0;
+
+    /**
+     * @return номер, под которым сегмент будет указан в расположениях ключей
+     */
+    public synchronized int register(Segment segment) {
+        if (nextSegmentId == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Segment ids are exhausted");
+        }
+        int segmentId = nextSegmentId++;
+        segmentsById.put(segmentId, segment);
+        idsBySegment.put(segment, segmentId);
+        return segmentId;
+    }
+
+    /**
+     * Убирает сегмент из таблицы. Вызывается после того, как ни один ключ не указывает на сегмент
+     */
+    public void unregister(Segment segment) {
+        Integer segmentId = idsBySegment.remove(segment);
+        if (segmentId != null) {
+            segmentsById.remove(segmentId);
+        }
+    }
+
+    public Optional<Segment> getSegment(int segmentId) {
+        return Optional.ofNullable(segmentsById.get(segmentId));
+    }
+
+    public int getSegmentId(Segment segment) {
+        Integer segmentId = idsBySegment.get(segment);
+        if (segmentId == null) {
+            throw new IllegalArgumentException("Segment " + segment.getName() + " is not registered in the table index");
+        }
+        return segmentId;
+    }
 }
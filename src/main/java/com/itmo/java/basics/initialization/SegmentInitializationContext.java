@@ -32,4 +32,11 @@ public interface SegmentInitializationContext {
      * @return текущий размер инициализируемого сегмента
      */
     long getCurrentSize();
+
+    /**
+     * Возвращает размер, по достижении которого сегмент становится read-only.
+     *
+     * @return максимальный размер сегмента
+     */
+    long getMaxSize();
 }
@@ -1,9 +1,11 @@
 package com.itmo.java.basics.initialization;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.index.impl.TableIndex;
 import com.itmo.java.basics.logic.Segment;
 
 import java.nio.file.Path;
+import java.util.List;
 
 public interface TableInitializationContext {
     /**
@@ -27,6 +29,20 @@ public interface TableInitializationContext {
      */
     TableIndex getTableIndex();
 
+    /**
+     * Возвращает настройки хранения инициализируемой таблицы.
+     *
+     * @return настройки хранения таблицы
+     */
+    TableOptions getTableOptions();
+
+    /**
+     * Обновляет настройки хранения (например, прочитанные из директории таблицы).
+     *
+     * @param options настройки хранения таблицы
+     */
+    void updateTableOptions(TableOptions options);
+
     /**
      * Возвращает текущий активный сегмент для инициализируемой таблицы.
      *
@@ -40,4 +56,11 @@ public interface TableInitializationContext {
      * @param segment новый сегмент
      */
     void updateCurrentSegment(Segment segment);
+
+    /**
+     * Возвращает все проинициализированные сегменты таблицы в порядке их создания.
+     *
+     * @return сегменты таблицы
+     */
+    List<Segment> getSegments();
 }
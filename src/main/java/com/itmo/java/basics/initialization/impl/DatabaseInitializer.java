@@ -3,24 +3,37 @@ package com.itmo.java.basics.initialization.impl;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.index.impl.TableIndex;
 import com.itmo.java.basics.initialization.InitializationContext;
 import com.itmo.java.basics.initialization.Initializer;
+import com.itmo.java.basics.initialization.impl.InitializationTasks.InitializationTask;
 import com.itmo.java.basics.logic.impl.DatabaseImpl;
 
 public class DatabaseInitializer implements Initializer {
 
     private final TableInitializer tableInitializer;
+    private final ForkJoinPool pool;
 
     public DatabaseInitializer(TableInitializer tableInitializer) {
+        this(tableInitializer, null);
+    }
+
+    /**
+     * @param pool пул, на котором параллельно инициализируются таблицы базы. Если null - таблицы инициализируются по очереди
+     */
+    public DatabaseInitializer(TableInitializer tableInitializer, ForkJoinPool pool) {
         this.tableInitializer = tableInitializer;
+        this.pool = pool;
     }
 
     /**
      * Добавляет в контекст информацию об инициализируемой бд.
-     * Запускает инициализацию всех таблиц это базы
+     * Запускает инициализацию всех таблиц это базы (параллельно, если задан пул)
      *
      * @param initialContext контекст с информацией об инициализируемой бд и об окружении
      * @throws DatabaseException если в контексте лежит неправильный путь к базе, невозможно прочитать содержимого папки,
@@ -42,20 +55,26 @@ public class DatabaseInitializer implements Initializer {
             return;
         }
 
+        List<InitializationTask<Void>> tasks = new ArrayList<>();
         for(File tableDir : tableDirList) {
             var curContext =
                 new TableInitializationContextImpl(
                     tableDir.getName(),
                     databasePath,
                     new TableIndex());
-            this.tableInitializer.perform(
-                InitializationContextImpl
-                .builder()
-                .currentDatabaseContext(curDBContext)
-                .currentTableContext(curContext)
-                .build()
-            );
+            tasks.add(() -> {
+                this.tableInitializer.perform(
+                    InitializationContextImpl
+                    .builder()
+                    .executionEnvironment(initialContext.executionEnvironment())
+                    .currentDatabaseContext(curDBContext)
+                    .currentTableContext(curContext)
+                    .build()
+                );
+                return null;
+            });
         }
+        InitializationTasks.invokeAll(pool, tasks);
 
         initialContext.executionEnvironment().addDatabase(DatabaseImpl.initializeFromContext(curDBContext));
     }
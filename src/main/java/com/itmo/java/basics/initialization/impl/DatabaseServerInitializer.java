@@ -4,22 +4,35 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.initialization.InitializationContext;
 import com.itmo.java.basics.initialization.Initializer;
+import com.itmo.java.basics.initialization.impl.InitializationTasks.InitializationTask;
 
 public class DatabaseServerInitializer implements Initializer {
 
     private final DatabaseInitializer databaseInitializer;
+    private final ForkJoinPool pool;
 
     public DatabaseServerInitializer(DatabaseInitializer databaseInitializer) {
+        this(databaseInitializer, null);
+    }
+
+    /**
+     * @param pool пул, на котором параллельно инициализируются базы. Если null - базы инициализируются по очереди
+     */
+    public DatabaseServerInitializer(DatabaseInitializer databaseInitializer, ForkJoinPool pool) {
         this.databaseInitializer = databaseInitializer;
+        this.pool = pool;
     }
 
     /**
      * Если заданная в окружении директория не существует - создает ее
-     * Добавляет информацию о существующих в директории базах, начинает их инициализацию
+     * Добавляет информацию о существующих в директории базах, начинает их инициализацию (параллельно, если задан пул)
      *
      * @param context контекст, содержащий информацию об окружении
      * @throws DatabaseException если произошла ошибка при создании директории, ее обходе или ошибка инициализации бд
@@ -42,18 +55,23 @@ public class DatabaseServerInitializer implements Initializer {
             return;
         }
   
+        List<InitializationTask<Void>> tasks = new ArrayList<>();
         for(File dbDir : dbDirList) {
             var curContext =
                 new DatabaseInitializationContextImpl(
                     dbDir.getName(),
                     envPath);
-            this.databaseInitializer.perform(
-                InitializationContextImpl
-                .builder()
-                .executionEnvironment(env)
-                .currentDatabaseContext(curContext)
-                .build()
-                );
+            tasks.add(() -> {
+                this.databaseInitializer.perform(
+                    InitializationContextImpl
+                    .builder()
+                    .executionEnvironment(env)
+                    .currentDatabaseContext(curContext)
+                    .build()
+                    );
+                return null;
+            });
         }
+        InitializationTasks.invokeAll(pool, tasks);
     }
 }
@@ -0,0 +1,68 @@
+package com.itmo.java.basics.initialization.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.itmo.java.basics.exceptions.DatabaseException;
+
+/**
+ * Запуск независимых шагов инициализации. Без пула шаги выполняются по очереди в вызывающем потоке
+ */
+class InitializationTasks {
+
+    @FunctionalInterface
+    interface InitializationTask<T> {
+        T call() throws DatabaseException;
+    }
+
+    private InitializationTasks() {
+    }
+
+    /**
+     * Выполняет шаги и возвращает их результаты в порядке шагов
+     *
+     * @param pool  пул, на котором выполняются шаги, или null
+     * @param tasks шаги инициализации
+     * @throws DatabaseException первая по порядку ошибка шагов
+     */
+    static <T> List<T> invokeAll(ForkJoinPool pool, List<InitializationTask<T>> tasks) throws DatabaseException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (pool == null) {
+            for (InitializationTask<T> task : tasks) {
+                results.add(task.call());
+            }
+            return results;
+        }
+
+        List<ForkJoinTask<T>> submitted = new ArrayList<>(tasks.size());
+        for (InitializationTask<T> task : tasks) {
+            submitted.add(pool.submit(ForkJoinTask.adapt(task::call)));
+        }
+        for (ForkJoinTask<T> task : submitted) {
+            try {
+                results.add(task.get());
+            } catch (InterruptedException intext) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseException("Initialization was interrupted", intext);
+            } catch (ExecutionException execext) {
+                throw unwrap(execext);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Пул оборачивает проверяемые исключения шагов, поэтому исходная ошибка ищется по цепочке причин
+     */
+    private static DatabaseException unwrap(ExecutionException execext) {
+        for (Throwable cause = execext.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseException) {
+                return (DatabaseException) cause;
+            }
+        }
+        return new DatabaseException("Initialization failed", execext.getCause());
+    }
+}
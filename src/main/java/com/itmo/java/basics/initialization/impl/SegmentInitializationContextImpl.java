@@ -1,5 +1,6 @@
 package com.itmo.java.basics.initialization.impl;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.index.impl.SegmentIndex;
 import com.itmo.java.basics.initialization.SegmentInitializationContext;
 
@@ -12,12 +13,18 @@ public class SegmentInitializationContextImpl implements SegmentInitializationCo
     private final Path segmentPath;
     private final long currentSize;
     private final SegmentIndex index;
+    private final long maxSize;
 
-    public SegmentInitializationContextImpl(String segmentName, Path segmentPath, long currentSize, SegmentIndex index) {
+    public SegmentInitializationContextImpl(String segmentName, Path segmentPath, long currentSize, SegmentIndex index, long maxSize) {
         this.segmentName = segmentName;
         this.segmentPath = segmentPath;
         this.currentSize = currentSize;
         this.index = index;
+        this.maxSize = maxSize;
+    }
+
+    public SegmentInitializationContextImpl(String segmentName, Path segmentPath, long currentSize, SegmentIndex index) {
+        this(segmentName, segmentPath, currentSize, index, TableOptions.DEFAULT_SEGMENT_SIZE);
     }
 
     /**
@@ -28,6 +35,7 @@ public class SegmentInitializationContextImpl implements SegmentInitializationCo
         this.segmentPath = Paths.get(tablePath.toString(), segmentName);
         this.currentSize = currentSize;
         this.index = new SegmentIndex();
+        this.maxSize = TableOptions.DEFAULT_SEGMENT_SIZE;
     }
 
     @Override
@@ -49,4 +57,9 @@ public class SegmentInitializationContextImpl implements SegmentInitializationCo
     public long getCurrentSize() {
         return currentSize;
     }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize;
+    }
 }
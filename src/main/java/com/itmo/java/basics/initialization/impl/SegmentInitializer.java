@@ -4,18 +4,21 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Optional;
 
 import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.index.impl.KeyLocation;
 import com.itmo.java.basics.index.impl.SegmentIndex;
 import com.itmo.java.basics.index.impl.SegmentOffsetInfoImpl;
 import com.itmo.java.basics.initialization.InitializationContext;
 import com.itmo.java.basics.initialization.Initializer;
+import com.itmo.java.basics.initialization.SegmentInitializationContext;
+import com.itmo.java.basics.initialization.TableInitializationContext;
 import com.itmo.java.basics.logic.DatabaseRecord;
+import com.itmo.java.basics.logic.Segment;
 import com.itmo.java.basics.logic.impl.SegmentImpl;
 import com.itmo.java.basics.logic.io.DatabaseInputStream;
+import com.itmo.java.basics.logic.io.HintFile;
 
 public class SegmentInitializer implements Initializer {
 
@@ -29,42 +32,109 @@ public class SegmentInitializer implements Initializer {
      */
     @Override
     public void perform(InitializationContext context) throws DatabaseException {
-        var curContext = context.currentSegmentContext();
+        merge(context.currentTableContext(), load(context.currentSegmentContext()));
+    }
+
+    /**
+     * Составляет индекс сегмента, не затрагивая таблицу. Сегменты одной таблицы можно загружать параллельно
+     *
+     * @param curContext контекст инициализируемого сегмента
+     * @return сегмент и его индекс
+     * @throws DatabaseException если в контексте лежит неправильный путь к сегменту, невозможно прочитать содержимое
+     */
+    LoadedSegment load(SegmentInitializationContext curContext) throws DatabaseException {
         String segmentName = curContext.getSegmentName();
         Path segmentPath = curContext.getSegmentPath();
-        int currentSize = 0;
+        long currentSize;
         SegmentIndex index = curContext.getIndex();
 
         if(!Files.exists(segmentPath)) {
             throw new DatabaseException("Segment " + segmentName + "(" + segmentPath.toString() + ") doesn't exsist");
         }
 
-        List<String> keyList = new LinkedList<>();
+        Optional<HintFile> hint;
+        try {
+            hint = HintFile.read(segmentPath);
+        } catch (IOException ioext) {
+            throw new DatabaseException("Problems with reading hint file of " + segmentPath.toString(), ioext);
+        }
+
+        if (hint.isPresent()) {
+            hint.get().getEntries().forEach(index::onIndexedEntityUpdated);
+            currentSize = hint.get().getSegmentSize();
+        } else {
+            currentSize = scanSegment(segmentPath, index);
+        }
+
+        var currentSegment = SegmentImpl.initializeFromContext(
+            new SegmentInitializationContextImpl(
+                curContext.getSegmentName(),
+                curContext.getSegmentPath(),
+                currentSize,
+                index,
+                curContext.getMaxSize()));
+        return new LoadedSegment(currentSegment, index);
+    }
+
+    /**
+     * Регистрирует загруженный сегмент в индексе таблицы, переносит в него расположения записей сегмента
+     * и делает сегмент текущим. Сегменты должны сливаться в порядке их создания, чтобы в индексе осталась последняя запись
+     *
+     * @param tableContext контекст таблицы, которой принадлежит сегмент
+     * @param loaded       загруженный сегмент
+     */
+    void merge(TableInitializationContext tableContext, LoadedSegment loaded) {
+        var tableIndex = tableContext.getTableIndex();
+        int segmentId = tableIndex.register(loaded.segment);
+        loaded.index.forEach((key, info) -> {
+            tableIndex.searchForKey(key)
+                .flatMap(previous -> tableIndex.getSegment(previous.getSegmentId()))
+                .ifPresent(previous -> previous.markDead(key));
+            if (info == null) {
+                tableIndex.remove(key);
+            } else {
+                tableIndex.onIndexedEntityUpdated(key, new KeyLocation(segmentId, info));
+            }
+        });
+        loaded.segment.attachTo(tableIndex, segmentId);
+        tableContext.updateCurrentSegment(loaded.segment);
+    }
 
+    /**
+     * Читает сегмент целиком и составляет его индекс
+     *
+     * @return размер сегмента в байтах
+     */
+    private long scanSegment(Path segmentPath, SegmentIndex index) throws DatabaseException {
+        long currentSize = 0;
         try (DatabaseInputStream dbis = new DatabaseInputStream(new FileInputStream(segmentPath.toString()))) {
             Optional<DatabaseRecord> odbr = dbis.readDbUnit();
             while(odbr.isPresent()) {
-                index.onIndexedEntityUpdated(new String(odbr.get().getKey()), new SegmentOffsetInfoImpl(currentSize));
-                keyList.add(new String(odbr.get().getKey()));
+                String key = new String(odbr.get().getKey());
+                if (odbr.get().isValuePresented()) {
+                    index.onIndexedEntityUpdated(key, new SegmentOffsetInfoImpl(currentSize, odbr.get().size(), odbr.get().getKey().length));
+                } else {
+                    index.onIndexedEntityUpdated(key, null);
+                }
                 currentSize += odbr.get().size();
                 odbr = dbis.readDbUnit();
             }
         } catch (IOException ioext) {
             throw new DatabaseException("Problems with reading file " + segmentPath.toString(), ioext);
         }
+        return currentSize;
+    }
 
-        var currentSegment = SegmentImpl.initializeFromContext(
-            new SegmentInitializationContextImpl(
-                curContext.getSegmentName(),
-                curContext.getSegmentPath(),
-                currentSize,
-                index));
-        
-        for(var key : keyList) {
-            context.currentTableContext().getTableIndex().onIndexedEntityUpdated(
-                key,
-                currentSegment);
+    /**
+     * Сегмент, загруженный с диска, но еще не добавленный в таблицу
+     */
+    static class LoadedSegment {
+        private final Segment segment;
+        private final SegmentIndex index;
+
+        private LoadedSegment(Segment segment, SegmentIndex index) {
+            this.segment = segment;
+            this.index = index;
         }
-        context.currentTableContext().updateCurrentSegment(currentSegment);
     }
 }
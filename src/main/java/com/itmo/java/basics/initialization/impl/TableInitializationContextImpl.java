@@ -1,17 +1,22 @@
 package com.itmo.java.basics.initialization.impl;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.index.impl.TableIndex;
 import com.itmo.java.basics.initialization.TableInitializationContext;
 import com.itmo.java.basics.logic.Segment;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TableInitializationContextImpl implements TableInitializationContext {
     private final String tableName;
     private final Path tablePath;
     private final TableIndex tableIndex;
+    private final List<Segment> segments = new ArrayList<>();
     private Segment currentSegment;
+    private TableOptions tableOptions = new TableOptions();
 
     public TableInitializationContextImpl(String tableName, Path databasePath, TableIndex tableIndex) {
         this.tableName = tableName;
@@ -34,6 +39,16 @@ public class TableInitializationContextImpl implements TableInitializationContex
         return tableIndex;
     }
 
+    @Override
+    public TableOptions getTableOptions() {
+        return tableOptions;
+    }
+
+    @Override
+    public void updateTableOptions(TableOptions options) {
+        tableOptions = options;
+    }
+
     @Override
     public Segment getCurrentSegment() {
         return currentSegment;
@@ -42,5 +57,11 @@ public class TableInitializationContextImpl implements TableInitializationContex
     @Override
     public void updateCurrentSegment(Segment segment) {
         currentSegment = segment;
+        segments.add(segment);
+    }
+
+    @Override
+    public List<Segment> getSegments() {
+        return segments;
     }
 }
@@ -1,26 +1,49 @@
 package com.itmo.java.basics.initialization.impl;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.index.impl.SegmentIndex;
 import com.itmo.java.basics.initialization.InitializationContext;
 import com.itmo.java.basics.initialization.Initializer;
 import com.itmo.java.basics.initialization.TableInitializationContext;
+import com.itmo.java.basics.initialization.impl.InitializationTasks.InitializationTask;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer.LoadedSegment;
+import com.itmo.java.basics.logic.impl.SegmentImpl;
 import com.itmo.java.basics.logic.impl.TableImpl;
+import com.itmo.java.basics.logic.io.HintFile;
 
 public class TableInitializer implements Initializer {
     private final SegmentInitializer segmentInitializer;
+    private final ForkJoinPool pool;
 
     public TableInitializer(SegmentInitializer segmentInitializer) {
+        this(segmentInitializer, null);
+    }
+
+    /**
+     * @param pool пул, на котором параллельно загружаются сегменты таблицы. Если null - сегменты загружаются по очереди
+     */
+    public TableInitializer(SegmentInitializer segmentInitializer, ForkJoinPool pool) {
         this.segmentInitializer = segmentInitializer;
+        this.pool = pool;
     }
 
     /**
-     * Добавляет в контекст информацию об инициализируемой таблице.
-     * Запускает инициализацию всех сегментов в порядке их создания (из имени)
+     * Добавляет в контекст информацию об инициализируемой таблице и ее настройки хранения ({@link TableOptions#FILE_NAME}).
+     * Если файла настроек нет, используются настройки окружения по умолчанию.
+     * Запускает инициализацию всех сегментов в порядке их создания (из имени).
+     * Если задан пул, сегменты читаются параллельно, а индекс таблицы обновляется в порядке их создания
      *
      * @param context контекст с информацией об инициализируемой бд, окружении, таблицы
      * @throws DatabaseException если в контексте лежит неправильный путь к таблице, невозможно прочитать содержимого папки,
@@ -36,30 +59,64 @@ public class TableInitializer implements Initializer {
             throw new DatabaseException("Table " + tableName + "(" + tablePath.toString() + ") doesn't exsist");
         }
         
-        var segmentFileList = tablePath.toFile().listFiles();
+        TableOptions defaults = context.executionEnvironment() == null
+            ? new TableOptions()
+            : context.executionEnvironment().getDefaultTableOptions();
+        try {
+            curTableContext.updateTableOptions(TableOptions.read(tablePath, defaults));
+        } catch (IOException | IllegalArgumentException ext) {
+            throw new DatabaseException("Can't read options of table " + tableName, ext);
+        }
+        long segmentSize = curTableContext.getTableOptions().getSegmentSize();
+
+        var segmentFileList = tablePath.toFile().listFiles(
+            file -> !file.getName().endsWith(TableImpl.COMPACTION_SUFFIX)
+                && !HintFile.isHintFile(file.getName())
+                && !file.getName().equals(TableOptions.FILE_NAME));
 
         if(segmentFileList == null) {
             return;
         }
 
-        Arrays.sort(segmentFileList);
+        Arrays.sort(segmentFileList, Comparator
+            .comparingLong((File file) -> SegmentImpl.getSequence(file.getName()))
+            .thenComparing(File::getName));
 
-        for(File segmentFile : segmentFileList) {
-            var curContext =
-                new SegmentInitializationContextImpl(
-                    segmentFile.getName(),
-                    tablePath,
-                    0);
+        if (pool == null) {
+            for(File segmentFile : segmentFileList) {
+                var curContext =
+                    new SegmentInitializationContextImpl(
+                        segmentFile.getName(),
+                        Paths.get(tablePath.toString(), segmentFile.getName()),
+                        0,
+                        new SegmentIndex(),
+                        segmentSize);
 
-            this.segmentInitializer.perform(
-                InitializationContextImpl
-                .builder()
-                .currentTableContext(curTableContext)
-                .currentSegmentContext(curContext)
-                .build()
-            );
-        }
+                this.segmentInitializer.perform(
+                    InitializationContextImpl
+                    .builder()
+                    .currentTableContext(curTableContext)
+                    .currentSegmentContext(curContext)
+                    .build()
+                );
+            }
+        } else {
+            List<InitializationTask<LoadedSegment>> tasks = new ArrayList<>();
+            for(File segmentFile : segmentFileList) {
+                var curContext =
+                    new SegmentInitializationContextImpl(
+                        segmentFile.getName(),
+                        Paths.get(tablePath.toString(), segmentFile.getName()),
+                        0,
+                        new SegmentIndex(),
+                        segmentSize);
+                tasks.add(() -> segmentInitializer.load(curContext));
+            }
 
+            for(LoadedSegment loaded : InitializationTasks.invokeAll(pool, tasks)) {
+                segmentInitializer.merge(curTableContext, loaded);
+            }
+        }
 
         context.currentDbContext().addTable(TableImpl.initializeFromContext(curTableContext));
     }
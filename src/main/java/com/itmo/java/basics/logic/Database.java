@@ -1,7 +1,9 @@
 package com.itmo.java.basics.logic;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.exceptions.DatabaseException;
 
+import java.util.Map;
 import java.util.Optional;
 
 public interface Database {
@@ -18,7 +20,18 @@ public interface Database {
      * @param tableName имя таблицы
      * @throws DatabaseException если таблица с данным именем уже существует или если произошла ошибка ввода-вывода
      */
-    void createTableIfNotExists(String tableName) throws DatabaseException;
+    default void createTableIfNotExists(String tableName) throws DatabaseException {
+        createTableIfNotExists(tableName, new TableOptions());
+    }
+
+    /**
+     * Создает таблицу с указанным именем и настройками хранения, если это имя еще не занято.
+     *
+     * @param tableName имя таблицы
+     * @param options   настройки хранения таблицы
+     * @throws DatabaseException если таблица с данным именем уже существует или если произошла ошибка ввода-вывода
+     */
+    void createTableIfNotExists(String tableName, TableOptions options) throws DatabaseException;
 
     /**
      * Записывает значение в указанную таблицу по переданному ключу.
@@ -30,6 +43,15 @@ public interface Database {
      */
     void write(String tableName, String objectKey, byte[] objectValue) throws DatabaseException;
 
+    /**
+     * Записывает несколько значений в указанную таблицу одной операцией.
+     *
+     * @param tableName таблица, в которую нужно записать значения
+     * @param values    пары ключ-значение в порядке записи
+     * @throws DatabaseException если указанная таблица не была найдена или если произошла ошибка ввода-вывода
+     */
+    void writeAll(String tableName, Map<String, byte[]> values) throws DatabaseException;
+
     /**
      * Считывает значение из указанной таблицы по заданному ключу.
      *
@@ -41,4 +63,11 @@ public interface Database {
     Optional<byte[]> read(String tableName, String objectKey) throws DatabaseException;
 
     void delete(String tableName, String objectKey) throws DatabaseException;
+
+    /**
+     * Закрывает все таблицы базы данных.
+     *
+     * @throws DatabaseException если произошла ошибка ввода-вывода
+     */
+    void close() throws DatabaseException;
 }
\ No newline at end of file
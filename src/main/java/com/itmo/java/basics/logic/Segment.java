@@ -1,11 +1,16 @@
 package com.itmo.java.basics.logic;
 
+import com.itmo.java.basics.index.SegmentOffsetInfo;
+import com.itmo.java.basics.index.impl.TableIndex;
+
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Сегмент - append-only файл, хранящий пары ключ-значение, разделенные специальным символом.
- * - имеет ограниченный размер, большие значения (>100000) записываются в последний сегмент, если он не read-only
+ * - имеет ограниченный размер, большие значения записываются в последний сегмент, если он не read-only
  * - при превышении размера сегмента создается новый сегмент и дальнейшие операции записи производятся в него
  * - именование файла-сегмента должно позволять установить очередность их появления
  * - является неизменяемым после появления более нового сегмента
@@ -28,6 +33,16 @@ public interface Segment {
      */
     boolean write(String objectKey, byte[] objectValue) throws IOException;
 
+    /**
+     * Записывает пары по порядку одной последовательной записью в файл, пока сегмент не станет read-only.
+     * Пара со значением null записывается как удаление.
+     *
+     * @param entries пары ключ-значение
+     * @return расположения записанных пар по порядку (с начала списка), null - для удалений
+     * @throws IOException если произошла ошибка ввода-вывода.
+     */
+    List<SegmentOffsetInfo> writeAll(List<Map.Entry<String, byte[]>> entries) throws IOException;
+
     /**
      * Считывает значение из сегмента по переданному ключу.
      *
@@ -37,6 +52,15 @@ public interface Segment {
      */
     Optional<byte[]> read(String objectKey) throws IOException;
 
+    /**
+     * Считывает значение записи с известным расположением, не обращаясь к индексу.
+     *
+     * @param record расположение записи со значением (не удаления)
+     * @return значение записи
+     * @throws IOException если произошла ошибка ввода-вывода
+     */
+    Optional<byte[]> read(SegmentOffsetInfo record) throws IOException;
+
     /**
      * Возвращает {@code true} - если данный сегмент открыт только на чтение, {@code false} - если данный сегмент открыт на чтение и запись.
      *
@@ -45,4 +69,83 @@ public interface Segment {
     boolean isReadOnly();
 
     boolean delete(String objectKey) throws IOException;
+
+    /**
+     * Возвращает текущий размер сегмента в байтах.
+     *
+     * @return размер сегмента
+     */
+    long getSize();
+
+    /**
+     * Возвращает количество байт, занятых записями, которые больше не нужны для чтения:
+     * перезаписанными или удаленными значениями и метками удаления.
+     *
+     * @return количество "мертвых" байт
+     */
+    long getDeadBytes();
+
+    /**
+     * Сообщает сегменту, что значение по ключу было перезаписано или удалено в более новом месте.
+     *
+     * @param objectKey ключ, значение которого устарело
+     */
+    void markDead(String objectKey);
+
+    /**
+     * Передает учет ключей сегмента индексу таблицы. После заполнения сегмента собственный индекс
+     * освобождается, и записи сегмента ищутся по индексу таблицы - только те, последняя запись о которых лежит в нем.
+     *
+     * @param tableIndex индекс таблицы
+     * @param segmentId  номер, под которым сегмент зарегистрирован в индексе
+     */
+    void attachTo(TableIndex tableIndex, int segmentId);
+
+    /**
+     * Открывает файл сегмента на чтение, если он еще не открыт. Дальнейшие чтения идут из открытого файла,
+     * даже если файл по пути сегмента будет заменен или удален.
+     *
+     * @throws IOException если произошла ошибка ввода-вывода
+     */
+    void openForReading() throws IOException;
+
+    /**
+     * Сбрасывает записанные в сегмент данные на диск. Может вызываться из любого потока параллельно с записью:
+     * гарантированно сбрасываются записи, завершившиеся до вызова.
+     *
+     * @throws IOException если произошла ошибка ввода-вывода
+     */
+    void sync() throws IOException;
+
+    /**
+     * Начинает чтение из сегмента: пока оно не завершено вызовом {@link #release()}, сегмент не закрывается,
+     * даже если его уже вывели из таблицы.
+     *
+     * @return {@code true} - если чтение можно начинать, {@code false} - если сегмент выведен из таблицы
+     * (например, заменен уплотнением), и расположение ключа нужно искать заново
+     */
+    boolean acquire();
+
+    /**
+     * Завершает чтение, начатое {@link #acquire()}. Последнее чтение выведенного из таблицы сегмента закрывает его.
+     *
+     * @throws IOException если не удалось закрыть выведенный сегмент
+     */
+    void release() throws IOException;
+
+    /**
+     * Выводит сегмент из таблицы: новые чтения больше не начинаются, а сегмент закрывается сразу
+     * или после завершения уже начатых чтений.
+     *
+     * @throws IOException если не удалось закрыть сегмент
+     */
+    void retire() throws IOException;
+
+    /**
+     * Освобождает ресурсы сегмента (открытые каналы, отображения файла в память).
+     * Сегмент можно продолжать использовать, ресурсы будут заново открыты при необходимости.
+     *
+     * @throws IOException если произошла ошибка ввода-вывода
+     */
+    void close() throws IOException;
 }
\ No newline at end of file
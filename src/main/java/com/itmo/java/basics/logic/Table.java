@@ -2,6 +2,7 @@ package com.itmo.java.basics.logic;
 
 import com.itmo.java.basics.exceptions.DatabaseException;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -30,6 +31,15 @@ public interface Table {
      */
     void write(String objectKey, byte[] objectValue) throws DatabaseException;
 
+    /**
+     * Записывает в таблицу несколько значений как одну операцию: параллельные записи
+     * не вклиниваются между значениями пакета. Значение null означает удаление ключа.
+     *
+     * @param values пары ключ-значение в порядке записи
+     * @throws DatabaseException если произошла ошибка ввода-вывода
+     */
+    void writeAll(Map<String, byte[]> values) throws DatabaseException;
+
     /**
      * Считывает значение из таблицы по заданному ключу.
      *
@@ -40,5 +50,12 @@ public interface Table {
     Optional<byte[]> read(String objectKey) throws DatabaseException;
 
     void delete(String objectKey) throws DatabaseException;
+
+    /**
+     * Освобождает ресурсы, занятые сегментами таблицы.
+     *
+     * @throws DatabaseException если произошла ошибка ввода-вывода
+     */
+    void close() throws DatabaseException;
 }
 
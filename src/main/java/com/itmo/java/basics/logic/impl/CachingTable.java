@@ -3,18 +3,34 @@ package com.itmo.java.basics.logic.impl;
 import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.logic.DatabaseCache;
 import com.itmo.java.basics.logic.Table;
+import com.itmo.java.basics.metrics.MetricsRegistry;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Декоратор для таблицы. Кэширует данные
+ * Декоратор для таблицы. Кэширует данные, а также отсутствие значений: удаленные ключи
+ * и ключи, которые не нашлись при чтении
  */
 public class CachingTable implements Table {    
+    /**
+     * Значение в кэше, означающее, что ключа в таблице нет. Сравнивается по ссылке
+     */
+    private static final byte[] ABSENT = new byte[0];
+
     private final Table table;
-    private final DatabaseCache cache = new DatabaseCacheImpl();
+    private final DatabaseCache cache;
+    private final LongAdder hits = MetricsRegistry.getInstance().counter("cache.hits");
+    private final LongAdder misses = MetricsRegistry.getInstance().counter("cache.misses");
 
     public CachingTable(Table table) {
+        this(table, new DatabaseCacheImpl());
+    }
+
+    public CachingTable(Table table, DatabaseCache cache) {
         this.table = table;
+        this.cache = cache;
     }
 
     @Override
@@ -22,24 +38,62 @@ public class CachingTable implements Table {
         return table.getName();
     }
 
+    /**
+     * Запись в таблицу и в кэш выполняется атомарно, чтобы параллельные записи одного ключа
+     * не оставили в кэше устаревшее значение
+     */
     @Override
-    public void write(String objectKey, byte[] objectValue) throws DatabaseException {
+    public synchronized void write(String objectKey, byte[] objectValue) throws DatabaseException {
         table.write(objectKey, objectValue);
-        cache.set(objectKey, objectValue);
+        cache.set(objectKey, objectValue == null ? ABSENT : objectValue);
+    }
+
+    @Override
+    public synchronized void writeAll(Map<String, byte[]> values) throws DatabaseException {
+        table.writeAll(values);
+        for (var entry : values.entrySet()) {
+            cache.set(entry.getKey(), entry.getValue() == null ? ABSENT : entry.getValue());
+        }
     }
 
+    /**
+     * Если ключ не нашелся, это запоминается в кэше. Запоминание идет под той же блокировкой, что и запись,
+     * и перепроверяет таблицу: иначе запись, попавшая между чтением и запоминанием, была бы скрыта.
+     * Запомненное отсутствие ключа считается попаданием в кэш
+     */
     @Override
     public Optional<byte[]> read(String objectKey) throws DatabaseException {
         var cacheValue = cache.get(objectKey);
+        if (cacheValue == ABSENT) {
+            hits.increment();
+            return Optional.empty();
+        }
         if(cacheValue != null) {
+            hits.increment();
             return Optional.of(cacheValue); 
         }
-        return table.read(objectKey);
+        misses.increment();
+        Optional<byte[]> value = table.read(objectKey);
+        if (value.isEmpty()) {
+            rememberAbsent(objectKey);
+        }
+        return value;
     }
 
     @Override
-    public void delete(String objectKey) throws DatabaseException {
+    public synchronized void delete(String objectKey) throws DatabaseException {
         table.delete(objectKey);
-        cache.delete(objectKey);
+        cache.set(objectKey, ABSENT);
+    }
+
+    private synchronized void rememberAbsent(String objectKey) throws DatabaseException {
+        if (table.read(objectKey).isEmpty()) {
+            cache.set(objectKey, ABSENT);
+        }
+    }
+
+    @Override
+    public void close() throws DatabaseException {
+        table.close();
     }
 }
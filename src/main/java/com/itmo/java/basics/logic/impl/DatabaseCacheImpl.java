@@ -1,38 +1,273 @@
 package com.itmo.java.basics.logic.impl;
 
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.itmo.java.basics.logic.DatabaseCache;
 
+/**
+ * Кэш с ограничением по суммарному размеру ключей и значений. Ключи распределены по шардам,
+ * у каждого шарда своя блокировка и своя доля бюджета, поэтому обращения к разным шардам не блокируют друг друга.
+ * Значение больше бюджета шарда не кэшируется.
+ * <p>
+ * Вытеснение определяет {@link EvictionPolicy}
+ */
 public class DatabaseCacheImpl implements DatabaseCache {
 
-    public static int CAPACITY = 5_000;
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    public static final int DEFAULT_SHARD_COUNT = 8;
+    public static final EvictionPolicy DEFAULT_EVICTION_POLICY = EvictionPolicy.LRU;
 
-    private class CacheMap extends LinkedHashMap<String, byte[]> {
-        public CacheMap() {
-            super(CAPACITY, 1f, true);
-        }
+    /**
+     * Примерный размер служебных объектов одной записи (узел карты, заголовки ключа и массива)
+     */
+    private static final int ENTRY_OVERHEAD = 64;
 
-        @Override
-        protected boolean removeEldestEntry(java.util.Map.Entry<String, byte[]> eldest) {
-            return size() > CAPACITY;
-        }
+    public enum EvictionPolicy {
+        /**
+         * Вытесняется запись, к которой дольше всего не обращались
+         */
+        LRU,
+        /**
+         * W-TinyLFU: новые записи попадают в небольшое LRU окно, а вытесненные из окна допускаются
+         * в основную область, только если обращались к ним чаще, чем к кандидату на вытеснение из нее.
+         * Так единичные обращения не вытесняют часто используемые значения
+         */
+        TINY_LFU
+    }
+
+    private final Shard[] shards;
+
+    public DatabaseCacheImpl() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_SHARD_COUNT, DEFAULT_EVICTION_POLICY);
     }
 
-    private final CacheMap cacheMap = new CacheMap();
+    /**
+     * @param maxBytes       суммарный бюджет кэша в байтах
+     * @param shardCount     количество шардов
+     * @param evictionPolicy политика вытеснения
+     */
+    public DatabaseCacheImpl(long maxBytes, int shardCount, EvictionPolicy evictionPolicy) {
+        if (maxBytes <= 0 || shardCount < 1) {
+            throw new IllegalArgumentException("Cache budget and shard count must be positive, got " + maxBytes + " and " + shardCount);
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(Math.max(1, maxBytes / shardCount), evictionPolicy);
+        }
+    }
 
     @Override
     public byte[] get(String key) {
-        return cacheMap.get(key);
+        return shardFor(key).get(key);
     }
 
     @Override
     public void set(String key, byte[] value) {
-        cacheMap.put(key, value);
+        shardFor(key).put(key, value);
     }
 
     @Override
     public void delete(String key) {
-        cacheMap.remove(key);    
+        shardFor(key).remove(key);
+    }
+
+    /**
+     * @return суммарный учтенный размер закэшированных записей
+     */
+    public long getWeightedSize() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.getWeightedSize();
+        }
+        return size;
+    }
+
+    private Shard shardFor(String key) {
+        int hash = key.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private static long weigh(String key, byte[] value) {
+        return ENTRY_OVERHEAD + key.length() * 2L + value.length;
+    }
+
+    /**
+     * Часть кэша под своей блокировкой. Для LRU используется только основная область
+     */
+    private static class Shard {
+        private final long maxBytes;
+        private final long windowMaxBytes;
+        private final FrequencySketch sketch;
+
+        private final LinkedHashMap<String, byte[]> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, byte[]> main = new LinkedHashMap<>(16, 0.75f, true);
+        private long windowBytes = 0;
+        private long mainBytes = 0;
+
+        Shard(long maxBytes, EvictionPolicy evictionPolicy) {
+            this.maxBytes = maxBytes;
+            if (evictionPolicy == EvictionPolicy.TINY_LFU) {
+                this.windowMaxBytes = Math.max(1, maxBytes / 100);
+                this.sketch = new FrequencySketch(maxBytes / (ENTRY_OVERHEAD * 2));
+            } else {
+                this.windowMaxBytes = 0;
+                this.sketch = null;
+            }
+        }
+
+        synchronized byte[] get(String key) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            byte[] value = window.get(key);
+            return value != null ? value : main.get(key);
+        }
+
+        /**
+         * Старое значение удаляется в любом случае, даже если новое не будет закэшировано
+         */
+        synchronized void put(String key, byte[] value) {
+            remove(key);
+            long weight = weigh(key, value);
+            if (weight > maxBytes) {
+                return;
+            }
+            if (sketch == null) {
+                main.put(key, value);
+                mainBytes += weight;
+                evictLeastRecent();
+                return;
+            }
+
+            sketch.increment(key);
+            window.put(key, value);
+            windowBytes += weight;
+            while (windowBytes > windowMaxBytes) {
+                Map.Entry<String, byte[]> candidate = window.entrySet().iterator().next();
+                window.remove(candidate.getKey());
+                windowBytes -= weigh(candidate.getKey(), candidate.getValue());
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+
+        synchronized void remove(String key) {
+            byte[] previous = window.remove(key);
+            if (previous != null) {
+                windowBytes -= weigh(key, previous);
+            }
+            previous = main.remove(key);
+            if (previous != null) {
+                mainBytes -= weigh(key, previous);
+            }
+        }
+
+        synchronized long getWeightedSize() {
+            return windowBytes + mainBytes;
+        }
+
+        /**
+         * Переносит вытесненную из окна запись в основную область, если к ней обращались чаще,
+         * чем к каждой записи, которую для этого придется вытеснить
+         */
+        private void admit(String key, byte[] value) {
+            long weight = weigh(key, value);
+            long mainMaxBytes = maxBytes - windowMaxBytes;
+            if (weight > mainMaxBytes) {
+                return;
+            }
+            int candidateFrequency = sketch.frequency(key);
+            Iterator<Map.Entry<String, byte[]>> victims = main.entrySet().iterator();
+            long freed = 0;
+            int victimCount = 0;
+            while (mainBytes - freed + weight > mainMaxBytes) {
+                Map.Entry<String, byte[]> victim = victims.next();
+                if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                    return;
+                }
+                freed += weigh(victim.getKey(), victim.getValue());
+                victimCount++;
+            }
+
+            Iterator<Map.Entry<String, byte[]>> evicted = main.entrySet().iterator();
+            for (int i = 0; i < victimCount; i++) {
+                evicted.next();
+                evicted.remove();
+            }
+            mainBytes -= freed;
+            main.put(key, value);
+            mainBytes += weight;
+        }
+
+        private void evictLeastRecent() {
+            Iterator<Map.Entry<String, byte[]>> eldest = main.entrySet().iterator();
+            while (mainBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                mainBytes -= weigh(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Приблизительный счетчик частоты обращений к ключам (count-min sketch с 4-битными счетчиками).
+     * Когда число обращений достигает десятикратной ширины таблицы, все счетчики уменьшаются вдвое,
+     * чтобы давние обращения переставали влиять на решения
+     */
+    static class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions = 0;
+
+        FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.min(1 << 20, Math.max(64, expectedEntries)) * 2 - 1);
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[row][indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        void increment(String key) {
+            int hash = key.hashCode();
+            boolean incremented = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = indexOf(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    incremented = true;
+                }
+            }
+            if (incremented && ++additions >= sampleSize) {
+                halve();
+            }
+        }
+
+        private int indexOf(int hash, int row) {
+            int mixed = (hash ^ SEEDS[row]) * SEEDS[row];
+            return (mixed ^ (mixed >>> 16)) & mask;
+        }
+
+        private void halve() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
     }
 }
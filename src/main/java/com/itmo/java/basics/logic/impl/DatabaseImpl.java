@@ -1,5 +1,6 @@
 package com.itmo.java.basics.logic.impl;
 
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.initialization.DatabaseInitializationContext;
 import com.itmo.java.basics.index.impl.TableIndex;
@@ -10,9 +11,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class DatabaseImpl implements Database {
@@ -23,7 +24,7 @@ public class DatabaseImpl implements Database {
     private DatabaseImpl(String dbName, Path path) {
         this.dbName = dbName;
         this.pathToDataBase = path;
-        databaseTables = new HashMap<>();
+        databaseTables = new ConcurrentHashMap<>();
     }
 
     private DatabaseImpl(DatabaseInitializationContext context) {
@@ -66,7 +67,7 @@ public class DatabaseImpl implements Database {
     }
 
     @Override
-    public void createTableIfNotExists(String tableName) throws DatabaseException {
+    public void createTableIfNotExists(String tableName, TableOptions options) throws DatabaseException {
         if (tableName == null) {
             throw new DatabaseException("Invalid table name");
         }
@@ -74,7 +75,7 @@ public class DatabaseImpl implements Database {
         if (containsTable(tableName)) {
             throw new DatabaseException("Table " + tableName + " already exists");
         }
-        databaseTables.put(tableName, TableImpl.create(tableName, pathToDataBase, new TableIndex()));
+        databaseTables.put(tableName, TableImpl.create(tableName, pathToDataBase, new TableIndex(), options));
     }
 
     @Override
@@ -82,6 +83,11 @@ public class DatabaseImpl implements Database {
         getTable(tableName).write(objectKey, objectValue);
     }
 
+    @Override
+    public void writeAll(String tableName, Map<String, byte[]> values) throws DatabaseException {
+        getTable(tableName).writeAll(values);
+    }
+
     @Override
     public Optional<byte[]> read(String tableName, String objectKey) throws DatabaseException {
         return getTable(tableName).read(objectKey);
@@ -92,6 +98,13 @@ public class DatabaseImpl implements Database {
         getTable(tableName).delete(objectKey);
     }
 
+    @Override
+    public void close() throws DatabaseException {
+        for (Table table : databaseTables.values()) {
+            table.close();
+        }
+    }
+
     private boolean containsTable(String tableName) {
         return databaseTables.containsKey(tableName);
     }
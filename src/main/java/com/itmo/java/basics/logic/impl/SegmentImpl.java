@@ -1,27 +1,41 @@
 package com.itmo.java.basics.logic.impl;
 
+import com.itmo.java.basics.compaction.CompactionService;
+import com.itmo.java.basics.config.TableOptions;
 import com.itmo.java.basics.exceptions.DatabaseException;
 import com.itmo.java.basics.initialization.SegmentInitializationContext;
-import com.itmo.java.basics.logic.DatabaseRecord;
 import com.itmo.java.basics.logic.Segment;
 import com.itmo.java.basics.logic.WritableDatabaseRecord;
-import com.itmo.java.basics.logic.io.DatabaseInputStream;
-import com.itmo.java.basics.logic.io.DatabaseOutputStream;
+import com.itmo.java.basics.logic.io.HintFile;
 import com.itmo.java.basics.index.SegmentOffsetInfo;
 import com.itmo.java.basics.index.impl.SegmentIndex;
 import com.itmo.java.basics.index.impl.SegmentOffsetInfoImpl;
+import com.itmo.java.basics.index.impl.TableIndex;
+import com.itmo.java.basics.metrics.MetricsRegistry;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Сегмент - append-only файл, хранящий пары ключ-значение, разделенные специальным символом.
- * - имеет ограниченный размер, большие значения (>100000) записываются в последний сегмент, если он не read-only
+ * - имеет ограниченный размер (см {@link TableOptions#getSegmentSize()}), большие значения записываются в последний сегмент, если он не read-only
  * - при превышении размера сегмента создается новый сегмент и дальнейшие операции записи производятся в него
  * - именование файла-сегмента должно позволять установить очередность их появления
  * - является неизменяемым после появления более нового сегмента
@@ -30,27 +44,124 @@ public class SegmentImpl implements Segment {
 
     private final String segmentName;
     private final Path segmentPath;
-    private SegmentOffsetInfoImpl actualOffset;
-    private final SegmentIndex segmentIndex;
-    private final long maxOffset = 100_000;
+    private volatile SegmentOffsetInfoImpl actualOffset;
+    private final long maxOffset;
 
-    private SegmentImpl(String segmentName, Path path) {
+    /**
+     * Собственный индекс сегмента. Нужен, пока сегмент заполняется, и для записи файла-подсказки.
+     * Заполненный сегмент, переданный индексу таблицы, освобождает его (см {@link #attachTo(TableIndex, int)})
+     */
+    private volatile SegmentIndex segmentIndex;
+    private volatile TableIndex tableIndex;
+    private volatile int segmentId;
+
+    /**
+     * Количество цифр в номере сегмента: столько, сколько в {@link Long#MAX_VALUE}
+     */
+    private static final int SEQUENCE_DIGITS = 19;
+
+    /**
+     * Размер переиспользуемого буфера записи. Записи большего размера кодируются в отдельный буфер
+     */
+    private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Суммарно по всем сегментам: отдельные счетчики для каждого сегмента копились бы без ограничений,
+     * ведь уплотнение постоянно создает новые сегменты
+     */
+    private static final LongAdder BYTES_WRITTEN = MetricsRegistry.getInstance().counter("storage.bytes_written");
+    private static final LongAdder BYTES_READ = MetricsRegistry.getInstance().counter("storage.bytes_read");
+
+    /**
+     * Канал на запись и буфер, в который кодируются записи. Открываются при первой записи
+     * и закрываются, когда сегмент становится read-only
+     */
+    private volatile FileChannel writeChannel;
+    private ByteBuffer writeBuffer;
+
+    /**
+     * Канал для сброса на диск заполненного сегмента, канал записи которого уже закрыт.
+     * Открывается при первом таком сбросе и закрывается вместе с сегментом
+     */
+    private FileChannel syncChannel;
+
+    /**
+     * Канал на чтение. Открывается один раз, после чего чтения идут из открытого файла,
+     * даже если по пути сегмента окажется другой файл (например, после уплотнения)
+     */
+    private volatile FileChannel readChannel;
+
+    /**
+     * Отображение read-only сегмента в память. Создается при первом чтении
+     */
+    private volatile MappedByteBuffer mappedSegment;
+
+    /**
+     * Суммарный размер записей, которые еще могут понадобиться при чтении.
+     * Остальные байты сегмента занимают перезаписанные значения и метки удаления
+     */
+    private long liveBytes;
+
+    /**
+     * Сегмент закрыт на запись независимо от размера (например, получен уплотнением)
+     */
+    private volatile boolean sealed = false;
+
+    /**
+     * Запись о файле сегмента в директории таблицы уже сброшена на диск
+     */
+    private volatile boolean directorySynced = false;
+
+    /**
+     * Количество незавершенных чтений через {@link #acquire()}. Старший бит - признак того,
+     * что сегмент выведен из таблицы ({@link #retire()}) и закрывается после последнего чтения
+     */
+    private final AtomicInteger readers = new AtomicInteger();
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private SegmentImpl(String segmentName, Path path, long maxSize) {
         this.segmentName = segmentName;
         this.segmentPath = path;
+        this.maxOffset = maxSize;
         this.actualOffset = new SegmentOffsetInfoImpl(0);
         this.segmentIndex = new SegmentIndex();
     }
 
+    private SegmentImpl(String segmentName, Path path, long maxSize, long currentSize, SegmentIndex index) {
+        this.segmentName = segmentName;
+        this.segmentPath = path;
+        this.maxOffset = maxSize;
+        this.actualOffset = new SegmentOffsetInfoImpl(currentSize);
+        this.segmentIndex = index;
+
+        AtomicLong indexedSize = new AtomicLong();
+        index.forEach((key, info) -> {
+            if (info != null) {
+                indexedSize.addAndGet(info.getSize());
+            }
+        });
+        this.liveBytes = indexedSize.get();
+    }
+
     private SegmentImpl(SegmentInitializationContext context) {
-        this.segmentName = context.getSegmentName();
-        this.segmentPath = context.getSegmentPath();
-        this.actualOffset = new SegmentOffsetInfoImpl(context.getCurrentSize());
-        this.segmentIndex = context.getIndex();
+        this(context.getSegmentName(), context.getSegmentPath(), context.getMaxSize(), context.getCurrentSize(), context.getIndex());
     }
 
     public static Segment create(String segmentName, Path tableRootPath) throws DatabaseException {
-        Path path = Paths.get(tableRootPath.toString(), segmentName);
-        
+        return create(segmentName, tableRootPath, TableOptions.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param maxSize размер, по достижении которого сегмент становится read-only
+     */
+    public static Segment create(String segmentName, Path tableRootPath, long maxSize) throws DatabaseException {
+        return createFile(segmentName, Paths.get(tableRootPath.toString(), segmentName), maxSize);
+    }
+
+    /**
+     * Создает пустой сегмент по указанному пути. Имя сегмента может не совпадать с именем файла
+     */
+    static SegmentImpl createFile(String segmentName, Path path, long maxSize) throws DatabaseException {
         if (Files.exists(path)) {
             throw new DatabaseException("Segment " + segmentName + " already exists");
         }
@@ -60,21 +171,36 @@ public class SegmentImpl implements Segment {
             throw new DatabaseException("Can't create file " + path.toString(), ioext);
         }
 
-        return new SegmentImpl(segmentName, path); // todo implement
+        return new SegmentImpl(segmentName, path, maxSize);
     }
 
     public static Segment initializeFromContext(SegmentInitializationContext context) {
         return new SegmentImpl(context);
     }
 
-    static String createSegmentName(String tableName) {
+    /**
+     * @param sequence порядковый номер сегмента в таблице. Дополняется нулями, чтобы имена сортировались так же, как номера
+     */
+    static String createSegmentName(String tableName, long sequence) {
+        return String.format("%s_%0" + SEQUENCE_DIGITS + "d", tableName, sequence);
+    }
+
+    /**
+     * Сегменты, созданные до появления номеров, вместо номера содержат время создания в миллисекундах.
+     * Оно тоже возрастает и меньше номеров, продолжающих его, поэтому такие сегменты упорядочиваются вместе с новыми
+     *
+     * @return порядковый номер сегмента из его имени, -1 - если имя не содержит номера
+     */
+    public static long getSequence(String segmentName) {
+        String suffix = segmentName.substring(segmentName.lastIndexOf('_') + 1);
+        if (suffix.isEmpty() || !suffix.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return -1;
+        }
         try {
-            Thread.sleep(1);
-        } catch (InterruptedException intext) {
-            return tableName + "_" + System.currentTimeMillis();
+            return Long.parseLong(suffix);
+        } catch (NumberFormatException nfext) {
+            return -1;
         }
-        
-        return tableName + "_" + System.currentTimeMillis();
     }
 
     @Override
@@ -88,45 +214,419 @@ public class SegmentImpl implements Segment {
             return delete(objectKey);
         }
 
-        return writeInfoToFile(new SetDatabaseRecord(objectKey.getBytes(), objectValue), actualOffset);
+        return writeInfoToFile(new SetDatabaseRecord(objectKey.getBytes(), objectValue));
+    }
+
+    @Override
+    public List<SegmentOffsetInfo> writeAll(List<Map.Entry<String, byte[]>> entries) throws IOException {
+        List<WritableDatabaseRecord> records = new ArrayList<>(entries.size());
+        for (Map.Entry<String, byte[]> entry : entries) {
+            byte[] key = entry.getKey().getBytes();
+            records.add(entry.getValue() == null
+                ? new RemoveDatabaseRecord(key)
+                : new SetDatabaseRecord(key, entry.getValue()));
+        }
+        return writeRecords(records);
     }
 
     @Override
     public Optional<byte[]> read(String objectKey) throws IOException {
-        Optional<SegmentOffsetInfo> osoi = segmentIndex.searchForKey(objectKey);
+        Optional<SegmentOffsetInfo> osoi = locate(objectKey);
         
         if (!osoi.isPresent()) {
             return Optional.empty();
         }
 
-        try (DatabaseInputStream dbis = new DatabaseInputStream(new FileInputStream(segmentPath.toString()))) {
-            dbis.skip(osoi.get().getOffset());
-            Optional<DatabaseRecord> odbr = dbis.readDbUnit();
-            return odbr.map(DatabaseRecord::getValue);
+        return read(osoi.get());
+    }
+
+    /**
+     * Индекс хранит только записи со значениями (удаления в нем - null), поэтому значение читается
+     * сразу по его смещению, без разбора ключа и размеров
+     */
+    @Override
+    public Optional<byte[]> read(SegmentOffsetInfo record) throws IOException {
+        BYTES_READ.add(record.getValueSize());
+        if (isReadOnly()) {
+            MappedByteBuffer mapped = getMappedSegment();
+            if (mapped != null) {
+                byte[] value = new byte[record.getValueSize()];
+                mapped.get((int) record.getValueOffset(), value);
+                return Optional.of(value);
+            }
         }
+
+        return Optional.of(readValue(getReadChannel(), record));
     }
 
     @Override
     public boolean isReadOnly() {
-        return actualOffset.getOffset() >= maxOffset ;
+        return sealed || actualOffset.getOffset() >= maxOffset;
     }
 
     @Override
     public boolean delete(String objectKey) throws IOException {
-        return writeInfoToFile(new RemoveDatabaseRecord(objectKey.getBytes()), null);
+        return writeInfoToFile(new RemoveDatabaseRecord(objectKey.getBytes()));
+    }
+
+    @Override
+    public long getSize() {
+        return actualOffset.getOffset();
+    }
+
+    @Override
+    public long getDeadBytes() {
+        return getSize() - liveBytes;
     }
 
-    private boolean writeInfoToFile(WritableDatabaseRecord wdbr, SegmentOffsetInfo soi) throws IOException {
+    @Override
+    public void markDead(String objectKey) {
+        locate(objectKey).ifPresent(info -> liveBytes -= info.getSize());
+    }
+
+    @Override
+    public void attachTo(TableIndex tableIndex, int segmentId) {
+        this.segmentId = segmentId;
+        this.tableIndex = tableIndex;
         if (isReadOnly()) {
+            segmentIndex = null;
+        }
+    }
+
+    /**
+     * Ищет последнюю запись по ключу в собственном индексе, а если он освобожден - в индексе таблицы
+     */
+    Optional<SegmentOffsetInfo> locate(String objectKey) {
+        SegmentIndex index = segmentIndex;
+        if (index != null) {
+            return index.searchForKey(objectKey);
+        }
+        TableIndex table = tableIndex;
+        if (table == null) {
+            return Optional.empty();
+        }
+        return table.searchForKey(objectKey)
+            .filter(location -> location.getSegmentId() == segmentId)
+            .map(SegmentOffsetInfo.class::cast);
+    }
+
+    @Override
+    public synchronized void openForReading() throws IOException {
+        getReadChannel();
+    }
+
+    /**
+     * Текущий сегмент сбрасывается через открытый канал записи. Канал закрывается при заполнении сегмента
+     * в потоке записи, поэтому заполненный сегмент сбрасывается через отдельный канал, который хранится до закрытия сегмента.
+     * При первом сбросе сбрасывается и директория таблицы, чтобы не потерять сам файл.
+     * Сегмент, выведенный из таблицы уплотнением, пропускается: его живые значения уже сброшены в уплотненные сегменты
+     */
+    @Override
+    public void sync() throws IOException {
+        if ((readers.get() & RETIRED) != 0) {
+            return;
+        }
+        if (!forceWriteChannel()) {
+            try {
+                getSyncChannel().force(false);
+            } catch (NoSuchFileException nsfext) {
+                return;
+            }
+        }
+        if (!directorySynced) {
+            syncDirectory(segmentPath.getParent());
+            directorySynced = true;
+        }
+    }
+
+    @Override
+    public boolean acquire() {
+        while (true) {
+            int state = readers.get();
+            if ((state & RETIRED) != 0) {
+                return false;
+            }
+            if (readers.compareAndSet(state, state + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release() throws IOException {
+        if (readers.decrementAndGet() == RETIRED) {
+            close();
+        }
+    }
+
+    @Override
+    public void retire() throws IOException {
+        if (readers.getAndUpdate(state -> state | RETIRED) == 0) {
+            close();
+        }
+    }
+
+    /**
+     * @return {@code false}, если канала записи нет или его закрыли во время сброса (сегмент заполнился)
+     */
+    private boolean forceWriteChannel() throws IOException {
+        FileChannel channel = writeChannel;
+        if (channel == null) {
             return false;
         }
+        try {
+            channel.force(false);
+            return true;
+        } catch (ClosedChannelException ccext) {
+            return false;
+        }
+    }
 
-        try(DatabaseOutputStream dbos = new DatabaseOutputStream(new FileOutputStream(segmentPath.toString(), true))) {
-            dbos.write(wdbr);
+    private synchronized FileChannel getSyncChannel() throws IOException {
+        if (syncChannel == null) {
+            syncChannel = FileChannel.open(segmentPath, StandardOpenOption.WRITE);
+        }
+        return syncChannel;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mappedSegment = null;
+        closeWriteChannel();
+        if (syncChannel != null) {
+            syncChannel.close();
+            syncChannel = null;
         }
-        segmentIndex.onIndexedEntityUpdated(new String(wdbr.getKey()), soi);
-        actualOffset = new SegmentOffsetInfoImpl(actualOffset.getOffset() + wdbr.size());
+        if (readChannel != null) {
+            readChannel.close();
+            readChannel = null;
+        }
+    }
+
+    /**
+     * Закрывает сегмент и атомарно переносит его файл на место другого файла (например, заменяя им старый сегмент).
+     *
+     * @param segmentName имя, под которым будет доступен сегмент
+     * @param path        новый путь до файла сегмента
+     * @return read-only сегмент с тем же содержимым и индексом по новому пути
+     * @throws IOException если не удалось перенести файл
+     */
+    SegmentImpl moveTo(String segmentName, Path path) throws IOException {
+        // файл заменяет сегмент, содержимое которого могло быть уже сброшено на диск
+        sync();
+        close();
+        Files.deleteIfExists(HintFile.pathFor(segmentPath));
+        Files.deleteIfExists(HintFile.pathFor(path));
+        Files.move(segmentPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(path.getParent());
+        SegmentImpl moved = new SegmentImpl(segmentName, path, maxOffset, getSize(), segmentIndex);
+        moved.sealed = true;
+        moved.directorySynced = true;
+        moved.scheduleHint();
+        return moved;
+    }
+
+    /**
+     * Ставит запись файла-подсказки закрытого сегмента в фоновый поток, чтобы не задерживать запись в таблицу.
+     * Индекс закрытого сегмента больше не меняется, поэтому задача получает его как есть, даже если сегмент
+     * затем освободит его. Подсказка не обязательна: без нее сегмент будет прочитан целиком при старте,
+     * поэтому ошибка записи не прерывает работу
+     */
+    private void scheduleHint() {
+        SegmentIndex index = segmentIndex;
+        long size = getSize();
+        CompactionService.getInstance().execute(() -> {
+            if (isReplaced()) {
+                return;
+            }
+            try {
+                HintFile.write(segmentPath, size, index);
+            } catch (IOException ioext) {
+                new IOException("Can't write hint file for segment " + segmentName, ioext).printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Подсказка пишется в потоке уплотнения, поэтому к ее записи сегмент мог быть удален или заменен
+     * уплотненным сегментом с тем же путем. Подсказка такого сегмента описывала бы чужой файл
+     */
+    private boolean isReplaced() {
+        TableIndex table = tableIndex;
+        if (table != null && table.getSegment(segmentId).filter(segment -> segment == this).isEmpty()) {
+            return true;
+        }
+        return !Files.exists(segmentPath);
+    }
+
+    /**
+     * Сбрасывает на диск записи директории (созданные и переименованные файлы).
+     * Не на всех платформах директорию можно открыть, тогда остается полагаться на ОС
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ioext) {
+            // например, Windows не позволяет открыть директорию как файл
+        }
+    }
+
+    /**
+     * Отображает файл сегмента в память, если это еще не сделано.
+     *
+     * @return отображение или null, если сегмент слишком велик для одного отображения
+     */
+    private MappedByteBuffer getMappedSegment() throws IOException {
+        MappedByteBuffer mapped = mappedSegment;
+        if (mapped == null) {
+            synchronized (this) {
+                if (mappedSegment == null) {
+                    FileChannel channel = getReadChannel();
+                    if (channel.size() > Integer.MAX_VALUE) {
+                        return null;
+                    }
+                    mappedSegment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                mapped = mappedSegment;
+            }
+        }
+        return mapped;
+    }
 
-        return true;
+    private FileChannel getReadChannel() throws IOException {
+        FileChannel channel = readChannel;
+        if (channel == null) {
+            synchronized (this) {
+                if (readChannel == null) {
+                    readChannel = FileChannel.open(segmentPath, StandardOpenOption.READ);
+                }
+                channel = readChannel;
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * Читает значение одним позиционным чтением прямо в возвращаемый массив: смещение и размер значения известны из индекса
+     */
+    private byte[] readValue(FileChannel channel, SegmentOffsetInfo record) throws IOException {
+        byte[] value = new byte[record.getValueSize()];
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        long position = record.getValueOffset();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment " + segmentName + " at " + position);
+            }
+            position += read;
+        }
+        return value;
+    }
+
+    private boolean writeInfoToFile(WritableDatabaseRecord wdbr) throws IOException {
+        return writeRecords(Collections.singletonList(wdbr)).size() == 1;
+    }
+
+    /**
+     * Записывает записи по порядку, пока сегмент не заполнится: последняя записанная запись
+     * может выйти за максимальный размер, как и при записи по одной. Все записи кодируются
+     * в один буфер и уходят в файл одной последовательной записью, после чего обновляется индекс
+     *
+     * @return расположения записанных записей, null - для удалений
+     */
+    private List<SegmentOffsetInfo> writeRecords(List<WritableDatabaseRecord> records) throws IOException {
+        long startOffset = actualOffset.getOffset();
+        if (isReadOnly()) {
+            return Collections.emptyList();
+        }
+
+        int count = 0;
+        long batchSize = 0;
+        while (count < records.size() && startOffset + batchSize < maxOffset) {
+            batchSize += records.get(count).size();
+            count++;
+        }
+        if (batchSize > Integer.MAX_VALUE) {
+            throw new IOException("Batch of " + count + " records is too large for segment " + segmentName);
+        }
+
+        ByteBuffer buffer = encode(records.subList(0, count), (int) batchSize);
+        FileChannel channel = getWriteChannel();
+        long position = startOffset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+
+        BYTES_WRITTEN.add(batchSize);
+
+        List<SegmentOffsetInfo> locations = new ArrayList<>(count);
+        long offset = startOffset;
+        for (WritableDatabaseRecord wdbr : records.subList(0, count)) {
+            String key = new String(wdbr.getKey());
+            markDead(key);
+            SegmentOffsetInfo location = null;
+            if (wdbr.isValuePresented()) {
+                location = new SegmentOffsetInfoImpl(offset, wdbr.size(), wdbr.getKeySize());
+                liveBytes += wdbr.size();
+            }
+            segmentIndex.onIndexedEntityUpdated(key, location);
+            locations.add(location);
+            offset += wdbr.size();
+        }
+        actualOffset = new SegmentOffsetInfoImpl(offset);
+
+        if (isReadOnly()) {
+            closeWriteChannel();
+            scheduleHint();
+            if (tableIndex != null) {
+                // записи заполненного сегмента дальше ищутся по индексу таблицы
+                segmentIndex = null;
+            }
+        }
+        return locations;
+    }
+
+    private FileChannel getWriteChannel() throws IOException {
+        if (writeChannel == null) {
+            writeChannel = FileChannel.open(segmentPath, StandardOpenOption.WRITE);
+        }
+        return writeChannel;
+    }
+
+    private void closeWriteChannel() throws IOException {
+        writeBuffer = null;
+        if (writeChannel != null) {
+            writeChannel.close();
+            writeChannel = null;
+        }
+    }
+
+    /**
+     * Кодирует записи подряд в формате {@link com.itmo.java.basics.logic.io.DatabaseOutputStream#write(WritableDatabaseRecord)}
+     *
+     * @param size суммарный размер записей
+     * @return буфер, готовый к записи в канал
+     */
+    private ByteBuffer encode(List<WritableDatabaseRecord> records, int size) {
+        ByteBuffer buffer;
+        if (size > WRITE_BUFFER_SIZE) {
+            buffer = ByteBuffer.allocate(size);
+        } else {
+            if (writeBuffer == null) {
+                writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            }
+            buffer = writeBuffer;
+            buffer.clear();
+        }
+
+        for (WritableDatabaseRecord wdbr : records) {
+            buffer.putInt(wdbr.getKeySize());
+            buffer.put(wdbr.getKey());
+            buffer.putInt(wdbr.getValueSize());
+            if (wdbr.isValuePresented()) {
+                buffer.put(wdbr.getValue());
+            }
+        }
+        return buffer.flip();
     }
 }
@@ -1,16 +1,34 @@
 package com.itmo.java.basics.logic.impl;
 
+import com.itmo.java.basics.compaction.Compactable;
+import com.itmo.java.basics.compaction.CompactionService;
+import com.itmo.java.basics.config.TableOptions;
+import com.itmo.java.basics.durability.GroupCommitService;
 import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.index.SegmentOffsetInfo;
+import com.itmo.java.basics.index.impl.KeyLocation;
 import com.itmo.java.basics.index.impl.TableIndex;
 import com.itmo.java.basics.initialization.TableInitializationContext;
+import com.itmo.java.basics.logic.DatabaseCache;
 import com.itmo.java.basics.logic.Table;
 import com.itmo.java.basics.logic.Segment;
+import com.itmo.java.basics.logic.io.HintFile;
+import com.itmo.java.basics.metrics.MetricsRegistry;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Таблица - логическая сущность, представляющая собой набор файлов-сегментов, которые объединены одним
@@ -20,30 +38,89 @@ import java.util.Optional;
  * - имеет единый размер сегмента
  * - представляет из себя директорию в файловой системе, именованную как таблица
  * и хранящую файлы-сегменты данной таблицы
+ * <p>
+ * Индекс таблицы хранит расположение последней записи каждого ключа, поэтому чтение - один поиск в индексе
+ * и одно чтение из сегмента. Чтение не блокируется: индекс допускает параллельный доступ. Запись, удаление,
+ * смена текущего сегмента и замена сегментов после уплотнения выполняются под одной блокировкой
  */
-public class TableImpl implements Table {
+public class TableImpl implements Table, Compactable {
+    /**
+     * Суффикс временных файлов, в которые пишутся уплотненные сегменты
+     */
+    public static final String COMPACTION_SUFFIX = ".compacting";
+
     private final String tableName;
     private final Path pathToTable;
+    private final TableOptions options;
     private final TableIndex tableIndex;
-    private Segment actualSegment = null;
+    private final List<Segment> segments;
+    private final CompactionService compactionService = CompactionService.getInstance();
+    private final GroupCommitService groupCommitService = GroupCommitService.getInstance();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder rollovers = MetricsRegistry.getInstance().counter("storage.segment_rollovers");
+    private volatile Segment actualSegment = null;
+    private int actualSegmentId;
+
+    /**
+     * Номер следующего сегмента таблицы. Меняется только под {@link #lock}
+     */
+    private long nextSegmentSequence;
+
+    /**
+     * Количество сегментов в начале списка, полученных последним уплотнением
+     */
+    private int compactedSegments = 0;
+    private boolean closed = false;
 
-    private TableImpl(String tableName, Path path, TableIndex tableIndex) throws DatabaseException {
+    private TableImpl(String tableName, Path path, TableOptions options, TableIndex tableIndex) throws DatabaseException {
         this.tableName = tableName;
         this.pathToTable = path;
+        this.options = options;
         this.tableIndex = tableIndex;
-        this.actualSegment = SegmentImpl.create(SegmentImpl.createSegmentName(tableName), path);
+        this.segments = new ArrayList<>();
+        this.nextSegmentSequence = 0;
+        this.actualSegment = SegmentImpl.create(SegmentImpl.createSegmentName(tableName, nextSegmentSequence++), path, options.getSegmentSize());
+        this.actualSegmentId = tableIndex.register(actualSegment);
+        this.actualSegment.attachTo(tableIndex, actualSegmentId);
+        this.segments.add(actualSegment);
     }
 
     private TableImpl(TableInitializationContext context) {
         this.tableName = context.getTableName();
         this.pathToTable = context.getTablePath();
+        this.options = context.getTableOptions();
         this.tableIndex = context.getTableIndex();
+        this.segments = new ArrayList<>(context.getSegments());
         this.actualSegment = context.getCurrentSegment();
+        this.actualSegmentId = actualSegment == null ? -1 : tableIndex.getSegmentId(actualSegment);
+        this.nextSegmentSequence = segments.stream()
+            .mapToLong(segment -> SegmentImpl.getSequence(segment.getName()))
+            .max()
+            .orElse(-1) + 1;
     }
 
     public static Table create(String tableName, Path pathToDatabaseRoot, TableIndex tableIndex) throws DatabaseException {
+        return create(tableName, pathToDatabaseRoot, tableIndex, new TableOptions());
+    }
+
+    /**
+     * Создает таблицу с указанными настройками хранения. Настройки сохраняются в директории таблицы
+     */
+    public static Table create(String tableName, Path pathToDatabaseRoot, TableIndex tableIndex, TableOptions options) throws DatabaseException {
+        return create(tableName, pathToDatabaseRoot, tableIndex, options, createCache(options));
+    }
+
+    /**
+     * Создает таблицу с указанным кэшем значений (например, чтобы задать его политику вытеснения)
+     */
+    public static Table create(String tableName, Path pathToDatabaseRoot, TableIndex tableIndex, DatabaseCache cache) throws DatabaseException {
+        return create(tableName, pathToDatabaseRoot, tableIndex, new TableOptions(), cache);
+    }
+
+    private static Table create(String tableName, Path pathToDatabaseRoot, TableIndex tableIndex,
+                                TableOptions options, DatabaseCache cache) throws DatabaseException {
         Path path = Paths.get(pathToDatabaseRoot.toString(), tableName);
-        
+
         if (Files.exists(path)) {
             throw new DatabaseException("Table " + tableName + " already exists");
         }
@@ -52,14 +129,23 @@ public class TableImpl implements Table {
         } catch (IOException ioext) {
             throw new DatabaseException("Can't create directory " + path.toString(), ioext);
         }
+        try {
+            options.write(path);
+        } catch (IOException ioext) {
+            throw new DatabaseException("Can't write options of table " + tableName, ioext);
+        }
 
-        return new CachingTable(new TableImpl(tableName, path, tableIndex));
+        return new CachingTable(new TableImpl(tableName, path, options, tableIndex), cache);
     }
 
     public static Table initializeFromContext(TableInitializationContext context) {
-        return new CachingTable(new TableImpl(context));
+        return new CachingTable(new TableImpl(context), createCache(context.getTableOptions()));
     }
-    
+
+    private static DatabaseCache createCache(TableOptions options) {
+        return new DatabaseCacheImpl(options.getCacheBytes(), DatabaseCacheImpl.DEFAULT_SHARD_COUNT, options.getEvictionPolicy());
+    }
+
     @Override
     public String getName() {
         return this.tableName;
@@ -67,41 +153,377 @@ public class TableImpl implements Table {
 
     @Override
     public void write(String objectKey, byte[] objectValue) throws DatabaseException {
+        lock.lock();
         try {
             if (actualSegment.isReadOnly()) {
-                actualSegment = SegmentImpl.create(SegmentImpl.createSegmentName(tableName), pathToTable);
+                rollOver();
             }
-            actualSegment.write(objectKey, objectValue);
-            tableIndex.onIndexedEntityUpdated(objectKey, actualSegment);
+            markPreviousDead(objectKey);
+            List<SegmentOffsetInfo> written = actualSegment.writeAll(
+                Collections.singletonList(new AbstractMap.SimpleEntry<>(objectKey, objectValue)));
+            groupCommitService.markDirty(actualSegment);
+            updateIndex(objectKey, written.get(0));
         } catch (IOException ioext) {
             throw new DatabaseException("Can't write pair to file in folder " + pathToTable.toString(), ioext);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Пары дописываются в текущий сегмент одной последовательной записью. Если сегмент заполнился
+     * посреди пакета, остаток пишется в новый сегмент. Индекс таблицы обновляется после записи каждой части
+     */
+    @Override
+    public void writeAll(Map<String, byte[]> values) throws DatabaseException {
+        List<Map.Entry<String, byte[]>> entries = new ArrayList<>(values.entrySet());
+        lock.lock();
+        try {
+            int written = 0;
+            while (written < entries.size()) {
+                if (actualSegment.isReadOnly()) {
+                    rollOver();
+                }
+                List<Map.Entry<String, byte[]>> part = entries.subList(written, entries.size());
+                List<SegmentOffsetInfo> locations = actualSegment.writeAll(part);
+                groupCommitService.markDirty(actualSegment);
+                for (int i = 0; i < locations.size(); i++) {
+                    markPreviousDead(part.get(i).getKey());
+                    updateIndex(part.get(i).getKey(), locations.get(i));
+                }
+                written += locations.size();
+            }
+        } catch (IOException ioext) {
+            throw new DatabaseException("Can't write pairs to file in folder " + pathToTable.toString(), ioext);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public Optional<byte[]> read(String objectKey) throws DatabaseException {
-        Optional<Segment> os = tableIndex.searchForKey(objectKey);
-        if (os.isPresent()) {
-            try {
-                return os.get().read(objectKey);
-            } catch (IOException ioext) {
-                throw new DatabaseException("Can't read value by key " + objectKey, ioext);
+        try {
+            while (true) {
+                Optional<KeyLocation> location = tableIndex.searchForKey(objectKey);
+                if (location.isEmpty()) {
+                    return Optional.empty();
+                }
+                Optional<Segment> segment = tableIndex.getSegment(location.get().getSegmentId());
+                if (segment.isPresent() && segment.get().acquire()) {
+                    try {
+                        return segment.get().read(location.get());
+                    } finally {
+                        segment.get().release();
+                    }
+                }
+                // сегмент заменен уплотнением после поиска, ключ уже указывает на уплотненный сегмент
             }
-        } else {
-            return Optional.empty();
+        } catch (IOException ioext) {
+            throw new DatabaseException("Can't read value by key " + objectKey, ioext);
         }
     }
 
     @Override
     public void delete(String objectKey) throws DatabaseException {
+        lock.lock();
         try {
             if (actualSegment.isReadOnly()) {
-                actualSegment = SegmentImpl.create(SegmentImpl.createSegmentName(tableName), pathToTable);
+                rollOver();
             }
+            markPreviousDead(objectKey);
             actualSegment.delete(objectKey);
-            tableIndex.onIndexedEntityUpdated(objectKey, null);
+            groupCommitService.markDirty(actualSegment);
+            tableIndex.remove(objectKey);
         } catch (IOException ioext) {
             throw new DatabaseException("Can't delete pair in file in folder " + pathToTable.toString(), ioext);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws DatabaseException {
+        lock.lock();
+        try {
+            closed = true;
+            for (Segment segment : segments) {
+                segment.close();
+            }
+        } catch (IOException ioext) {
+            throw new DatabaseException("Can't close segments of table " + tableName, ioext);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Уплотняет все сегменты, кроме текущего. Живые значения копируются
+     * во временные файлы без блокировки таблицы, после чего под блокировкой временные файлы занимают
+     * места первых старых сегментов (порядок воспроизведения при старте сохраняется), оставшиеся старые
+     * сегменты удаляются, а индекс переключается на новые сегменты. Метки удаления отбрасываются:
+     * более старых сегментов, в которых могли бы лежать удаленные значения, не остается.
+     * Старые сегменты выводятся из таблицы: чтения, начатые до замены, дочитывают открытые файлы,
+     * после чего последнее из них закрывает сегмент (см {@link Segment#retire()}).
+     */
+    @Override
+    public void compact() throws DatabaseException {
+        List<Segment> sources;
+        Map<Segment, List<String>> keysBySource;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            sources = getCompactableSegments();
+            if (sources.isEmpty()) {
+                return;
+            }
+            keysBySource = collectIndexedKeys(sources);
+        } finally {
+            lock.unlock();
+        }
+
+        List<SegmentImpl> compacted = new ArrayList<>();
+        Map<String, Integer> placement = new HashMap<>();
+        try {
+            copyLiveValues(sources, keysBySource, compacted, placement);
+        } catch (IOException | DatabaseException ext) {
+            DatabaseException failure = new DatabaseException("Can't compact table " + tableName, ext);
+            try {
+                deleteCompacted(compacted);
+            } catch (IOException ioext) {
+                failure.addSuppressed(ioext);
+            }
+            throw failure;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                deleteCompacted(compacted);
+                return;
+            }
+            swapCompacted(sources, keysBySource, compacted, placement);
+        } catch (IOException ioext) {
+            throw new DatabaseException("Can't replace compacted segments of table " + tableName, ioext);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollOver() throws DatabaseException {
+        Segment created = SegmentImpl.create(SegmentImpl.createSegmentName(tableName, nextSegmentSequence++), pathToTable, options.getSegmentSize());
+        actualSegmentId = tableIndex.register(created);
+        created.attachTo(tableIndex, actualSegmentId);
+        actualSegment = created;
+        segments.add(actualSegment);
+        rollovers.increment();
+        scheduleCompactionIfNeeded();
+    }
+
+    private void markPreviousDead(String objectKey) {
+        Optional<KeyLocation> previous = tableIndex.searchForKey(objectKey);
+        if (previous.isPresent() && previous.get().getSegmentId() != actualSegmentId) {
+            tableIndex.getSegment(previous.get().getSegmentId()).ifPresent(segment -> segment.markDead(objectKey));
+        }
+    }
+
+    /**
+     * Записывает в индекс расположение записи в текущем сегменте. Удаленный ключ убирается из индекса
+     */
+    private void updateIndex(String objectKey, SegmentOffsetInfo written) {
+        if (written == null) {
+            tableIndex.remove(objectKey);
+        } else {
+            tableIndex.onIndexedEntityUpdated(objectKey, new KeyLocation(actualSegmentId, written));
+        }
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        List<Segment> sealed = getCompactableSegments();
+        long sealedBytes = 0;
+        long deadBytes = 0;
+        for (Segment segment : sealed) {
+            sealedBytes += segment.getSize();
+            deadBytes += segment.getDeadBytes();
+        }
+        compactionService.scheduleIfNeeded(this, sealed.size() - compactedSegments, sealedBytes, deadBytes);
+    }
+
+    /**
+     * @return все сегменты, созданные раньше текущего. Запись в них больше не производится
+     */
+    private List<Segment> getCompactableSegments() {
+        List<Segment> sealed = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment == actualSegment) {
+                break;
+            }
+            sealed.add(segment);
+        }
+        return sealed;
+    }
+
+    /**
+     * Собирает ключи, последняя запись о которых находится в одном из переданных сегментов.
+     * Ключи каждого сегмента упорядочены по смещению записи в нем
+     */
+    private Map<Segment, List<String>> collectIndexedKeys(List<Segment> sources) {
+        Map<Integer, List<Map.Entry<String, Long>>> recordsBySourceId = new HashMap<>();
+        for (Segment source : sources) {
+            recordsBySourceId.put(tableIndex.getSegmentId(source), new ArrayList<>());
+        }
+        tableIndex.forEach((key, location) -> {
+            if (location != null && recordsBySourceId.containsKey(location.getSegmentId())) {
+                recordsBySourceId.get(location.getSegmentId()).add(new AbstractMap.SimpleEntry<>(key, location.getOffset()));
+            }
+        });
+
+        Map<Segment, List<String>> keysBySource = new LinkedHashMap<>();
+        for (Segment source : sources) {
+            List<Map.Entry<String, Long>> records = recordsBySourceId.get(tableIndex.getSegmentId(source));
+            records.sort(Map.Entry.comparingByValue());
+            List<String> keys = new ArrayList<>(records.size());
+            for (Map.Entry<String, Long> record : records) {
+                keys.add(record.getKey());
+            }
+            keysBySource.put(source, keys);
+        }
+        return keysBySource;
+    }
+
+    /**
+     * Копирует живые значения в новые сегменты. Уплотненный сегмент с номером i займет место i-го старого сегмента,
+     * поэтому значение из старого сегмента не может попасть в уплотненный сегмент с большим номером.
+     * Значения копируются в порядке записей в старых сегментах: уплотненный сегмент заполняется теми же записями
+     * за вычетом мертвых, поэтому i-й уплотненный сегмент заполняется не раньше i-го старого, и места хватает всегда
+     */
+    private void copyLiveValues(List<Segment> sources,
+                                Map<Segment, List<String>> keysBySource,
+                                List<SegmentImpl> compacted,
+                                Map<String, Integer> placement) throws IOException, DatabaseException {
+        for (int i = 0; i < sources.size(); i++) {
+            Segment source = sources.get(i);
+            for (String key : keysBySource.get(source)) {
+                Optional<byte[]> value = source.read(key);
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if (compacted.isEmpty() || compacted.get(compacted.size() - 1).isReadOnly()) {
+                    if (compacted.size() > i) {
+                        throw new DatabaseException("Compacted segments outgrow segment " + source.getName());
+                    }
+                    compacted.add(createCompactedSegment(sources.get(compacted.size()).getName()));
+                }
+                compacted.get(compacted.size() - 1).write(key, value.get());
+                placement.put(key, compacted.size() - 1);
+            }
+        }
+    }
+
+    private SegmentImpl createCompactedSegment(String targetName) throws IOException, DatabaseException {
+        Path path = Paths.get(pathToTable.toString(), targetName + COMPACTION_SUFFIX);
+        Files.deleteIfExists(path);
+        return SegmentImpl.createFile(targetName, path, options.getSegmentSize());
+    }
+
+    private void swapCompacted(List<Segment> sources,
+                               Map<Segment, List<String>> keysBySource,
+                               List<SegmentImpl> compacted,
+                               Map<String, Integer> placement) throws IOException {
+        for (Segment source : sources) {
+            source.openForReading();
+        }
+
+        List<SegmentImpl> replacements = new ArrayList<>();
+        for (int i = 0; i < compacted.size(); i++) {
+            String name = sources.get(i).getName();
+            replacements.add(compacted.get(i).moveTo(name, Paths.get(pathToTable.toString(), name)));
+        }
+        for (int i = compacted.size(); i < sources.size(); i++) {
+            Path sourcePath = Paths.get(pathToTable.toString(), sources.get(i).getName());
+            Files.deleteIfExists(HintFile.pathFor(sourcePath));
+            Files.deleteIfExists(sourcePath);
+        }
+
+        List<Integer> replacementIds = new ArrayList<>();
+        for (SegmentImpl replacement : replacements) {
+            replacementIds.add(tableIndex.register(replacement));
+        }
+        for (var entry : keysBySource.entrySet()) {
+            int sourceId = tableIndex.getSegmentId(entry.getKey());
+            for (String key : entry.getValue()) {
+                Integer target = placement.get(key);
+                Optional<KeyLocation> current = tableIndex.searchForKey(key);
+                if (current.isEmpty() || current.get().getSegmentId() != sourceId) {
+                    if (target != null) {
+                        replacements.get(target).markDead(key);
+                    }
+                    continue;
+                }
+                Optional<SegmentOffsetInfo> copied = target == null ? Optional.empty() : replacements.get(target).locate(key);
+                if (copied.isEmpty()) {
+                    tableIndex.remove(key);
+                    continue;
+                }
+                tableIndex.onIndexedEntityUpdated(key, new KeyLocation(replacementIds.get(target), copied.get()));
+            }
+        }
+        // ни один ключ больше не указывает на старые сегменты
+        for (int i = 0; i < replacements.size(); i++) {
+            replacements.get(i).attachTo(tableIndex, replacementIds.get(i));
+        }
+        for (Segment source : sources) {
+            tableIndex.unregister(source);
+        }
+
+        List<Segment> remaining = new ArrayList<>(segments.subList(sources.size(), segments.size()));
+        segments.clear();
+        segments.addAll(replacements);
+        segments.addAll(remaining);
+        compactedSegments = replacements.size();
+
+        IOException failure = null;
+        for (Segment source : sources) {
+            try {
+                source.retire();
+            } catch (IOException ioext) {
+                if (failure == null) {
+                    failure = ioext;
+                } else {
+                    failure.addSuppressed(ioext);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Удаляет временные файлы уплотненных сегментов. Ошибка удаления одного сегмента не мешает удалить остальные
+     *
+     * @throws IOException первая ошибка удаления, остальные добавлены к ней
+     */
+    private void deleteCompacted(List<SegmentImpl> compacted) throws IOException {
+        IOException failure = null;
+        for (SegmentImpl segment : compacted) {
+            try {
+                segment.close();
+                Path path = Paths.get(pathToTable.toString(), segment.getName() + COMPACTION_SUFFIX);
+                Files.deleteIfExists(HintFile.pathFor(path));
+                Files.deleteIfExists(path);
+            } catch (IOException ioext) {
+                IOException deletion = new IOException("Can't delete compacted segment " + segment.getName(), ioext);
+                if (failure == null) {
+                    failure = deletion;
+                } else {
+                    failure.addSuppressed(deletion);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 }
@@ -0,0 +1,151 @@
+package com.itmo.java.basics.logic.io;
+
+import com.itmo.java.basics.index.SegmentOffsetInfo;
+import com.itmo.java.basics.index.impl.SegmentIndex;
+import com.itmo.java.basics.index.impl.SegmentOffsetInfoImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Файл-подсказка закрытого сегмента. Лежит рядом с сегментом и хранит только его индекс,
+ * чтобы при старте не читать значения. Формат:
+ * - Размер сегмента в байтах, для которого составлена подсказка
+ * - Количество записей
+ * - Для каждой записи: размер ключа, ключ, смещение записи в сегменте, размер записи (-1 для метки удаления)
+ * - CRC32 всего перечисленного
+ */
+public class HintFile {
+    public static final String HINT_SUFFIX = ".hint";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int REMOVED_OBJECT_SIZE = -1;
+
+    private final long segmentSize;
+    private final Map<String, SegmentOffsetInfo> entries;
+
+    private HintFile(long segmentSize, Map<String, SegmentOffsetInfo> entries) {
+        this.segmentSize = segmentSize;
+        this.entries = entries;
+    }
+
+    /**
+     * @return размер сегмента, для которого составлена подсказка
+     */
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return записи индекса сегмента в порядке из файла. Меткам удаления соответствует null
+     */
+    public Map<String, SegmentOffsetInfo> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    public static Path pathFor(Path segmentPath) {
+        return Paths.get(segmentPath.toString() + HINT_SUFFIX);
+    }
+
+    /**
+     * @return true, если файл с таким именем является подсказкой или недописанной подсказкой
+     */
+    public static boolean isHintFile(String fileName) {
+        return fileName.endsWith(HINT_SUFFIX) || fileName.endsWith(HINT_SUFFIX + TEMP_SUFFIX);
+    }
+
+    /**
+     * Записывает подсказку во временный файл и атомарно переносит его на место подсказки сегмента
+     *
+     * @param segmentPath путь до сегмента
+     * @param segmentSize размер сегмента в байтах
+     * @param index       индекс сегмента
+     * @throws IOException если запись не удалась
+     */
+    public static void write(Path segmentPath, long segmentSize, SegmentIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        Map<String, SegmentOffsetInfo> entries = new LinkedHashMap<>();
+        index.forEach(entries::put);
+
+        out.writeLong(segmentSize);
+        out.writeInt(entries.size());
+        for (var entry : entries.entrySet()) {
+            byte[] key = entry.getKey().getBytes();
+            out.writeInt(key.length);
+            out.write(key);
+            if (entry.getValue() == null) {
+                out.writeLong(0);
+                out.writeInt(REMOVED_OBJECT_SIZE);
+            } else {
+                out.writeLong(entry.getValue().getOffset());
+                out.writeInt((int) entry.getValue().getSize());
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path hintPath = pathFor(segmentPath);
+        Path tempPath = Paths.get(hintPath.toString() + TEMP_SUFFIX);
+        Files.write(tempPath, bytes.toByteArray());
+        Files.move(tempPath, hintPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Читает подсказку сегмента
+     *
+     * @param segmentPath путь до сегмента
+     * @return подсказку. {@link Optional#empty()} - если подсказки нет, она повреждена или не соответствует сегменту
+     * @throws IOException если не удалось прочитать существующие файлы
+     */
+    public static Optional<HintFile> read(Path segmentPath) throws IOException {
+        Path hintPath = pathFor(segmentPath);
+        if (!Files.exists(hintPath)) {
+            return Optional.empty();
+        }
+
+        byte[] bytes = Files.readAllBytes(hintPath);
+        if (bytes.length < Long.BYTES * 2 + Integer.BYTES) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        if (crc.getValue() != buffer.getLong(bytes.length - Long.BYTES)) {
+            return Optional.empty();
+        }
+
+        long segmentSize = buffer.getLong();
+        if (segmentSize != Files.size(segmentPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            int count = buffer.getInt();
+            Map<String, SegmentOffsetInfo> entries = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                long offset = buffer.getLong();
+                int size = buffer.getInt();
+                entries.put(new String(key), size == REMOVED_OBJECT_SIZE ? null : new SegmentOffsetInfoImpl(offset, size, key.length));
+            }
+            return Optional.of(new HintFile(segmentSize, entries));
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException ext) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.itmo.java.basics.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма задержек в наносекундах без блокировок. Корзины устроены как в HdrHistogram:
+ * каждый интервал [2^k, 2^(k+1)) делится на {@link #SUB_BUCKETS} равных частей, поэтому
+ * относительная погрешность процентилей не больше 1/{@link #SUB_BUCKETS} при любом порядке величин.
+ * Значения больше {@link #MAX_VALUE} учитываются в последней корзине
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Примерно 18 минут
+     */
+    static final long MAX_VALUE = (1L << 40) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(bucketOf(MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos задержка в наносекундах. Отрицательные значения считаются нулем
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return средняя задержка или 0, если значений не было
+     */
+    public long getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : sum.sum() / total;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Значения, записываемые параллельно с подсчетом, могут как учитываться, так и нет
+     *
+     * @param percentile процентиль от 0 до 100
+     * @return верхняя граница корзины, в которую попал процентиль, но не больше максимума. 0, если значений не было
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Значения меньше {@link #SUB_BUCKETS} получают свою корзину, дальше номер корзины складывается
+     * из порядка величины и старших {@link #SUB_BUCKET_BITS} бит после старшей единицы
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.itmo.java.basics.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики и гистограммы задержек сервера. Метрики создаются при первом обращении по имени и живут
+ * до конца работы процесса. Имя начинается с раздела ("server.", "commands.", "cache.", "storage."),
+ * по которому метрики выбираются в {@link #report(String)}
+ * <p>
+ * Обновление метрики не берет блокировок, поэтому ее стоит получить один раз и хранить в поле
+ */
+public class MetricsRegistry {
+
+    public static final String ALL_SECTIONS = "all";
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Реестр, в который пишут все компоненты сервера
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Счетчик может и уменьшаться, тогда он показывает текущее значение (например, количество соединений)
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, ignored -> new LongAdder());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, ignored -> new LatencyHistogram());
+    }
+
+    /**
+     * Формирует отчет из строк "имя:значение", отсортированных по имени метрики. Гистограмма дает несколько строк:
+     * количество значений, среднее, процентили и максимум в микросекундах
+     *
+     * @param section раздел (первая часть имени метрики) или {@link #ALL_SECTIONS}
+     * @return отчет, пустой - если в разделе нет метрик
+     */
+    public String report(String section) {
+        Map<String, String> metrics = new TreeMap<>();
+        counters.forEach((name, counter) -> {
+            if (inSection(name, section)) {
+                metrics.put(name, name + ':' + counter.sum() + "\r\n");
+            }
+        });
+        histograms.forEach((name, histogram) -> {
+            if (inSection(name, section)) {
+                metrics.put(name, name + ".count:" + histogram.getCount() + "\r\n"
+                    + name + ".mean_us:" + micros(histogram.getMean()) + "\r\n"
+                    + name + ".p50_us:" + micros(histogram.getPercentile(50)) + "\r\n"
+                    + name + ".p99_us:" + micros(histogram.getPercentile(99)) + "\r\n"
+                    + name + ".p999_us:" + micros(histogram.getPercentile(99.9)) + "\r\n"
+                    + name + ".max_us:" + micros(histogram.getMax()) + "\r\n");
+            }
+        });
+        return String.join("", metrics.values());
+    }
+
+    private static boolean inSection(String name, String section) {
+        return ALL_SECTIONS.equalsIgnoreCase(section) || name.startsWith(section.toLowerCase() + ".");
+    }
+
+    private static String micros(long nanos) {
+        return Long.toString(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+}
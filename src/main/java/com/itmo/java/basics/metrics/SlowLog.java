@@ -0,0 +1,121 @@
+package com.itmo.java.basics.metrics;
+
+import com.itmo.java.basics.console.DatabaseCommandArgPositions;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Журнал последних медленных команд в памяти. Хранится не больше {@link SlowLogPolicy#getCapacity()} записей,
+ * новая запись вытесняет самую старую. Проверка {@link #isSlow(long)} не берет блокировок,
+ * поэтому быстрые команды журнал не замедляет
+ */
+public class SlowLog {
+
+    /**
+     * Сколько первых символов ключа сохраняется: ключи бывают длинными, а для поиска причины хватает начала
+     */
+    public static final int KEY_PREFIX_LENGTH = 32;
+
+    private static final SlowLog INSTANCE = new SlowLog(new SlowLogPolicy());
+
+    private volatile SlowLogPolicy policy;
+    private SlowLogEntry[] entries;
+
+    /**
+     * Сколько записей добавлено за все время, из него получается id и место следующей записи
+     */
+    private long recorded = 0;
+    private int size = 0;
+
+    public SlowLog(SlowLogPolicy policy) {
+        this.policy = policy;
+        this.entries = new SlowLogEntry[policy.getCapacity()];
+    }
+
+    /**
+     * Журнал, в который пишет {@link com.itmo.java.basics.DatabaseServer}
+     */
+    public static SlowLog getInstance() {
+        return INSTANCE;
+    }
+
+    public SlowLogPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Меняет порог и размер журнала. При уменьшении размера сохраняются самые новые записи
+     */
+    public synchronized void setPolicy(SlowLogPolicy policy) {
+        List<SlowLogEntry> newest = getEntries();
+        this.entries = new SlowLogEntry[policy.getCapacity()];
+        this.policy = policy;
+        this.size = Math.min(newest.size(), entries.length);
+        for (int i = 0; i < size; i++) {
+            entries[(int) ((recorded - 1 - i) % entries.length)] = newest.get(i);
+        }
+    }
+
+    /**
+     * @param totalNanos время исполнения команды
+     * @return {@code true} - если команду нужно записать в журнал
+     */
+    public boolean isSlow(long totalNanos) {
+        return totalNanos >= policy.getThresholdNanos();
+    }
+
+    /**
+     * Записывает команду в журнал. Имя команды, базы, таблицы и ключа берутся из аргументов команды
+     * (порядок - {@link DatabaseCommandArgPositions}), если они там есть
+     */
+    public void record(List<RespObject> commandArgs, long queueNanos, long executionNanos, long commitNanos) {
+        String commandName = argument(commandArgs, DatabaseCommandArgPositions.COMMAND_NAME);
+        String databaseName = argument(commandArgs, DatabaseCommandArgPositions.DATABASE_NAME);
+        String tableName = argument(commandArgs, DatabaseCommandArgPositions.TABLE_NAME);
+        String key = argument(commandArgs, DatabaseCommandArgPositions.KEY);
+        String keyPrefix = key == null || key.length() <= KEY_PREFIX_LENGTH
+            ? key
+            : key.substring(0, KEY_PREFIX_LENGTH) + "...";
+        long timestamp = System.currentTimeMillis();
+
+        synchronized (this) {
+            entries[(int) (recorded % entries.length)] = new SlowLogEntry(recorded, timestamp,
+                commandName, databaseName, tableName, keyPrefix, queueNanos, executionNanos, commitNanos);
+            recorded++;
+            size = Math.min(size + 1, entries.length);
+        }
+    }
+
+    /**
+     * @return записи от самой новой к самой старой
+     */
+    public synchronized List<SlowLogEntry> getEntries() {
+        List<SlowLogEntry> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(entries[(int) ((recorded - i) % entries.length)]);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все записи. Нумерация записей продолжается
+     */
+    public synchronized void reset() {
+        entries = new SlowLogEntry[entries.length];
+        size = 0;
+    }
+
+    private static String argument(List<RespObject> commandArgs, DatabaseCommandArgPositions position) {
+        int index = position.getPositionIndex();
+        if (commandArgs.size() <= index || commandArgs.get(index) == null) {
+            return null;
+        }
+        return commandArgs.get(index).asString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.itmo.java.basics.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Медленная команда. Время исполнения складывается из ожидания в очереди полосы, исполнения
+ * и ожидания сброса записи на диск (у неизменяющих команд - только передачи готового результата)
+ */
+@Getter
+@AllArgsConstructor
+public class SlowLogEntry {
+    private final long id;
+    private final long timestampMillis;
+    private final String commandName;
+    private final String databaseName;
+    private final String tableName;
+    private final String keyPrefix;
+    private final long queueNanos;
+    private final long executionNanos;
+    private final long commitNanos;
+
+    public long getTotalNanos() {
+        return queueNanos + executionNanos + commitNanos;
+    }
+
+    /**
+     * @return строка вида "id=1 time=... command=SET_KEY db=db1 table=t1 key=k total_us=12000 queue_us=11000 exec_us=900 commit_us=100".
+     * Отсутствующие аргументы команды выводятся как "-"
+     */
+    @Override
+    public String toString() {
+        return "id=" + id
+            + " time=" + Instant.ofEpochMilli(timestampMillis)
+            + " command=" + orDash(commandName)
+            + " db=" + orDash(databaseName)
+            + " table=" + orDash(tableName)
+            + " key=" + orDash(keyPrefix)
+            + " total_us=" + TimeUnit.NANOSECONDS.toMicros(getTotalNanos())
+            + " queue_us=" + TimeUnit.NANOSECONDS.toMicros(queueNanos)
+            + " exec_us=" + TimeUnit.NANOSECONDS.toMicros(executionNanos)
+            + " commit_us=" + TimeUnit.NANOSECONDS.toMicros(commitNanos);
+    }
+
+    private static String orDash(String value) {
+        return value == null ? "-" : value;
+    }
+}
@@ -0,0 +1,45 @@
+package com.itmo.java.basics.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Какие команды попадают в {@link SlowLog} и сколько их хранится
+ */
+public class SlowLogPolicy {
+    public static final long DEFAULT_THRESHOLD_MICROS = 10_000;
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final long thresholdMicros;
+    private final int capacity;
+
+    /**
+     * @param thresholdMicros команда, исполнявшаяся дольше, записывается в журнал. 0 - записываются все команды
+     * @param capacity        сколько последних медленных команд хранится
+     */
+    public SlowLogPolicy(long thresholdMicros, int capacity) {
+        if (thresholdMicros < 0) {
+            throw new IllegalArgumentException("Slow log threshold must not be negative, got " + thresholdMicros);
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slow log capacity must be positive, got " + capacity);
+        }
+        this.thresholdMicros = thresholdMicros;
+        this.capacity = capacity;
+    }
+
+    public SlowLogPolicy() {
+        this(DEFAULT_THRESHOLD_MICROS, DEFAULT_CAPACITY);
+    }
+
+    public long getThresholdMicros() {
+        return thresholdMicros;
+    }
+
+    public long getThresholdNanos() {
+        return TimeUnit.MICROSECONDS.toNanos(thresholdMicros);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -29,6 +29,13 @@ public class CommandReader implements AutoCloseable {
         return reader.hasArray();
     }
 
+    /**
+     * Пришла ли следующая команда (хотя бы частично), так что ее можно читать без ожидания клиента?
+     */
+    public boolean hasBufferedCommand() throws IOException {
+        return reader.hasAvailableData();
+    }
+
     /**
      * Считывает комманду с помощью ридера и возвращает ее
      *
@@ -0,0 +1,46 @@
+package com.itmo.java.client.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующий клиент для доступа к БД. Ошибки исполнения команд завершают результат
+ * с {@link com.itmo.java.client.exception.DatabaseExecutionException}
+ */
+public interface AsyncKvsClient {
+    CompletableFuture<String> createDatabase();
+
+    CompletableFuture<String> createTable(String tableName);
+
+    /**
+     * См {@link KvsClient#createTable(String, Map)}
+     */
+    CompletableFuture<String> createTable(String tableName, Map<String, String> options);
+
+    CompletableFuture<String> get(String tableName, String key);
+
+    CompletableFuture<String> set(String tableName, String key, String value);
+
+    CompletableFuture<String> delete(String tableName, String key);
+
+    /**
+     * См {@link KvsClient#multiGet(String, List)}
+     */
+    CompletableFuture<List<String>> multiGet(String tableName, List<String> keys);
+
+    /**
+     * См {@link KvsClient#multiSet(String, Map)}
+     */
+    CompletableFuture<String> multiSet(String tableName, Map<String, String> values);
+
+    /**
+     * См {@link KvsClient#info(String)}
+     */
+    CompletableFuture<String> info(String section);
+
+    /**
+     * См {@link KvsClient#slowLog()}
+     */
+    CompletableFuture<List<String>> slowLog();
+}
@@ -2,6 +2,9 @@ package com.itmo.java.client.client;
 
 import com.itmo.java.client.exception.DatabaseExecutionException;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Клиент для доступа к БД
  */
@@ -10,9 +13,45 @@ public interface KvsClient {
 
     String createTable(String tableName) throws DatabaseExecutionException;
 
+    /**
+     * Создает таблицу с настройками хранения, заменяющими настройки сервера по умолчанию
+     *
+     * @param options настройки (например, "segmentSize", "cacheBytes" или "evictionPolicy") и их значения
+     */
+    String createTable(String tableName, Map<String, String> options) throws DatabaseExecutionException;
+
     String get(String tableName, String key) throws DatabaseExecutionException;
 
     String set(String tableName, String key, String value) throws DatabaseExecutionException;
 
     String delete(String tableName, String key) throws DatabaseExecutionException;
+
+    /**
+     * Читает значения по нескольким ключам одной командой
+     *
+     * @return значения в порядке ключей, null для отсутствующих
+     */
+    List<String> multiGet(String tableName, List<String> keys) throws DatabaseExecutionException;
+
+    /**
+     * Записывает несколько значений одной командой, которая исполняется на сервере как одна запись в таблицу
+     *
+     * @return количество записанных ключей
+     */
+    String multiSet(String tableName, Map<String, String> values) throws DatabaseExecutionException;
+
+    /**
+     * Читает метрики сервера
+     *
+     * @param section раздел метрик: "server", "commands", "cache", "storage" или "all"
+     * @return строки "имя:значение", разделенные CRLF
+     */
+    String info(String section) throws DatabaseExecutionException;
+
+    /**
+     * Читает журнал медленных команд сервера
+     *
+     * @return записи от самой новой к самой старой
+     */
+    List<String> slowLog() throws DatabaseExecutionException;
 }
@@ -0,0 +1,124 @@
+package com.itmo.java.client.client;
+
+import com.itmo.java.client.command.CreateDatabaseKvsCommand;
+import com.itmo.java.client.command.CreateTableKvsCommand;
+import com.itmo.java.client.command.DeleteKvsCommand;
+import com.itmo.java.client.command.GetKvsCommand;
+import com.itmo.java.client.command.InfoKvsCommand;
+import com.itmo.java.client.command.KvsCommand;
+import com.itmo.java.client.command.MultiGetKvsCommand;
+import com.itmo.java.client.command.MultiSetKvsCommand;
+import com.itmo.java.client.command.SetKvsCommand;
+import com.itmo.java.client.command.SlowLogKvsCommand;
+import com.itmo.java.client.connection.AsyncKvsConnection;
+import com.itmo.java.client.exception.DatabaseExecutionException;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Клиент, отправляющий команды через одно {@link AsyncKvsConnection}. Все методы возвращают управление сразу,
+ * команды разных вызовов исполняются одновременно
+ */
+public class SimpleAsyncKvsClient implements AsyncKvsClient {
+    private final String dbName;
+    private final AsyncKvsConnection connection;
+
+    /**
+     * Конструктор
+     *
+     * @param databaseName имя базы, с которой работает
+     * @param connection   подключение к базе
+     */
+    public SimpleAsyncKvsClient(String databaseName, AsyncKvsConnection connection) {
+        this.dbName = databaseName;
+        this.connection = connection;
+    }
+
+    @Override
+    public CompletableFuture<String> createDatabase() {
+        return execute(new CreateDatabaseKvsCommand(dbName), "Cannot create database " + dbName);
+    }
+
+    @Override
+    public CompletableFuture<String> createTable(String tableName) {
+        return createTable(tableName, Map.of());
+    }
+
+    @Override
+    public CompletableFuture<String> createTable(String tableName, Map<String, String> options) {
+        return execute(new CreateTableKvsCommand(dbName, tableName, options),
+                "Cannot create table " + tableName + " in database" + dbName);
+    }
+
+    @Override
+    public CompletableFuture<String> get(String tableName, String key) {
+        return execute(new GetKvsCommand(dbName, tableName, key),
+                "Cannot get value by key " + key + " in table" + tableName + " in database" + dbName);
+    }
+
+    @Override
+    public CompletableFuture<String> set(String tableName, String key, String value) {
+        return execute(new SetKvsCommand(dbName, tableName, key, value),
+                "Cannot set value " + value + " by key " + key + " in table" + tableName + " in database" + dbName);
+    }
+
+    @Override
+    public CompletableFuture<String> delete(String tableName, String key) {
+        return execute(new DeleteKvsCommand(dbName, tableName, key),
+                "Cannot delete key " + key + " in table" + tableName + " in database" + dbName);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> multiGet(String tableName, List<String> keys) {
+        return execute(new MultiGetKvsCommand(dbName, tableName, keys), SimpleKvsClient::asStrings,
+                "Cannot get values by " + keys.size() + " keys in table" + tableName + " in database" + dbName);
+    }
+
+    @Override
+    public CompletableFuture<String> multiSet(String tableName, Map<String, String> values) {
+        return execute(new MultiSetKvsCommand(dbName, tableName, values),
+                "Cannot set " + values.size() + " values in table" + tableName + " in database" + dbName);
+    }
+
+    @Override
+    public CompletableFuture<String> info(String section) {
+        return execute(new InfoKvsCommand(section), "Cannot get info section " + section);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> slowLog() {
+        return execute(new SlowLogKvsCommand("GET"), SimpleKvsClient::asStrings, "Cannot get slow log");
+    }
+
+    private CompletableFuture<String> execute(KvsCommand command, String connectionErrorMessage) {
+        return execute(command, RespObject::asString, connectionErrorMessage);
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(RespObject response) throws DatabaseExecutionException;
+    }
+
+    private <T> CompletableFuture<T> execute(KvsCommand command, ResponseParser<T> parser, String connectionErrorMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        connection.sendAsync(command.getCommandId(), command.serialize()).whenComplete((response, ext) -> {
+            if (ext != null) {
+                Throwable cause = ext instanceof CompletionException && ext.getCause() != null ? ext.getCause() : ext;
+                result.completeExceptionally(new DatabaseExecutionException(connectionErrorMessage, cause));
+            } else if (response.isError()) {
+                result.completeExceptionally(new DatabaseExecutionException(response.asString()));
+            } else {
+                try {
+                    result.complete(parser.parse(response));
+                } catch (DatabaseExecutionException dbext) {
+                    result.completeExceptionally(dbext);
+                }
+            }
+        });
+        return result;
+    }
+}
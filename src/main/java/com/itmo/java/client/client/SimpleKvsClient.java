@@ -4,12 +4,21 @@ import com.itmo.java.client.command.CreateDatabaseKvsCommand;
 import com.itmo.java.client.command.CreateTableKvsCommand;
 import com.itmo.java.client.command.DeleteKvsCommand;
 import com.itmo.java.client.command.GetKvsCommand;
+import com.itmo.java.client.command.InfoKvsCommand;
 import com.itmo.java.client.command.KvsCommand;
+import com.itmo.java.client.command.MultiGetKvsCommand;
+import com.itmo.java.client.command.MultiSetKvsCommand;
 import com.itmo.java.client.command.SetKvsCommand;
+import com.itmo.java.client.command.SlowLogKvsCommand;
 import com.itmo.java.client.connection.KvsConnection;
 import com.itmo.java.client.exception.ConnectionException;
 import com.itmo.java.client.exception.DatabaseExecutionException;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespObject;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 public class SimpleKvsClient implements KvsClient {
@@ -45,8 +54,13 @@ public class SimpleKvsClient implements KvsClient {
 
     @Override
     public String createTable(String tableName) throws DatabaseExecutionException {
+        return createTable(tableName, Map.of());
+    }
+
+    @Override
+    public String createTable(String tableName, Map<String, String> options) throws DatabaseExecutionException {
         try{
-            KvsCommand createTableCommand = new CreateTableKvsCommand(dbName, tableName);
+            KvsCommand createTableCommand = new CreateTableKvsCommand(dbName, tableName, options);
             var result = 
             connectionSupplier.get()
                 .send(createTableCommand.getCommandId(), createTableCommand.serialize());
@@ -106,4 +120,85 @@ public class SimpleKvsClient implements KvsClient {
             throw new DatabaseExecutionException("Cannot delete key " + key + " in table" + tableName + " in database" + dbName, cntext);
         }
     }
+
+    @Override
+    public List<String> multiGet(String tableName, List<String> keys) throws DatabaseExecutionException {
+        try{
+            KvsCommand multiGetCommand = new MultiGetKvsCommand(dbName, tableName, keys);
+            var result =
+            connectionSupplier.get()
+                .send(multiGetCommand.getCommandId(), multiGetCommand.serialize());
+            if(result.isError()){
+                throw new DatabaseExecutionException(result.asString());
+            }
+            return asStrings(result);
+        } catch (ConnectionException cntext) {
+            throw new DatabaseExecutionException("Cannot get values by " + keys.size() + " keys in table" + tableName + " in database" + dbName, cntext);
+        }
+    }
+
+    @Override
+    public String multiSet(String tableName, Map<String, String> values) throws DatabaseExecutionException {
+        try{
+            KvsCommand multiSetCommand = new MultiSetKvsCommand(dbName, tableName, values);
+            var result =
+            connectionSupplier.get()
+                .send(multiSetCommand.getCommandId(), multiSetCommand.serialize());
+            if(result.isError()){
+                throw new DatabaseExecutionException(result.asString());
+            }
+            return result.asString();
+        } catch (ConnectionException cntext) {
+            throw new DatabaseExecutionException("Cannot set " + values.size() + " values in table" + tableName + " in database" + dbName, cntext);
+        }
+    }
+
+    @Override
+    public String info(String section) throws DatabaseExecutionException {
+        try{
+            KvsCommand infoCommand = new InfoKvsCommand(section);
+            var result =
+            connectionSupplier.get()
+                .send(infoCommand.getCommandId(), infoCommand.serialize());
+            if(result.isError()){
+                throw new DatabaseExecutionException(result.asString());
+            }
+            return result.asString();
+        } catch (ConnectionException cntext) {
+            throw new DatabaseExecutionException("Cannot get info section " + section, cntext);
+        }
+    }
+
+    @Override
+    public List<String> slowLog() throws DatabaseExecutionException {
+        try{
+            KvsCommand slowLogCommand = new SlowLogKvsCommand("GET");
+            var result =
+            connectionSupplier.get()
+                .send(slowLogCommand.getCommandId(), slowLogCommand.serialize());
+            if(result.isError()){
+                throw new DatabaseExecutionException(result.asString());
+            }
+            return asStrings(result);
+        } catch (ConnectionException cntext) {
+            throw new DatabaseExecutionException("Cannot get slow log", cntext);
+        }
+    }
+
+    /**
+     * Разбирает ответ команды, возвращающей несколько значений
+     *
+     * @throws DatabaseExecutionException если сервер ответил не массивом
+     */
+    static List<String> asStrings(RespObject result) throws DatabaseExecutionException {
+        if (!(result instanceof RespArray)) {
+            throw new DatabaseExecutionException("Expected array of values, got " + result.asString());
+        }
+        List<RespObject> objects = ((RespArray) result).getObjects();
+        List<String> values = new ArrayList<>(objects.size());
+        for (RespObject object : objects) {
+            values.add(object.asString());
+        }
+        return values;
+    }
 }
@@ -3,6 +3,12 @@ package com.itmo.java.client.command;
 import com.itmo.java.protocol.model.RespArray;
 import com.itmo.java.protocol.model.RespBulkString;
 import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Команда для создания таблицы
@@ -12,25 +18,38 @@ public class CreateTableKvsCommand implements KvsCommand {
 
     private final String dbName;
     private final String tableName;
+    private final Map<String, String> options;
 
     public CreateTableKvsCommand(String databaseName, String tableName) {
+        this(databaseName, tableName, Collections.emptyMap());
+    }
+
+    /**
+     * @param options настройки хранения таблицы (например, "segmentSize"), заменяющие настройки сервера по умолчанию
+     */
+    public CreateTableKvsCommand(String databaseName, String tableName, Map<String, String> options) {
         this.dbName = databaseName;
         this.tableName = tableName;
+        this.options = options;
     }
 
     /**
-     * Возвращает RESP объект. {@link RespArray} с {@link RespCommandId}, именем команды, аргументами в виде {@link RespBulkString}
+     * Возвращает RESP объект. {@link RespArray} с {@link RespCommandId}, именем команды, аргументами в виде {@link RespBulkString}.
+     * Настройки передаются после имени таблицы строками вида "имя=значение"
      *
      * @return объект
      */
     @Override
     public RespArray serialize() {
-        return new RespArray(
-            new RespCommandId(idGen.intValue()),
-            new RespBulkString(COMMAND_NAME.getBytes()),
-            new RespBulkString(dbName.getBytes()),
-            new RespBulkString(tableName.getBytes())
-        );
+        List<RespObject> objects = new ArrayList<>(4 + options.size());
+        objects.add(new RespCommandId(idGen.intValue()));
+        objects.add(new RespBulkString(COMMAND_NAME.getBytes()));
+        objects.add(new RespBulkString(dbName.getBytes()));
+        objects.add(new RespBulkString(tableName.getBytes()));
+        for (var entry : options.entrySet()) {
+            objects.add(new RespBulkString((entry.getKey() + '=' + entry.getValue()).getBytes()));
+        }
+        return new RespArray(objects);
     }
 
     @Override
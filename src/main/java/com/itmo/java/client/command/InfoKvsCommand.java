@@ -0,0 +1,41 @@
+package com.itmo.java.client.command;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+
+/**
+ * Команда для получения метрик сервера
+ */
+public class InfoKvsCommand implements KvsCommand {
+    private static final String COMMAND_NAME = "INFO";
+
+    private final String section;
+    /**
+     * Создает объект
+     *
+     * @param section раздел метрик: "server", "commands", "cache", "storage" или "all"
+     */
+    public InfoKvsCommand(String section) {
+        this.section = section;
+    }
+
+    /**
+     * Возвращает RESP объект. {@link RespArray} с {@link RespCommandId}, именем команды, аргументами в виде {@link RespBulkString}
+     *
+     * @return объект
+     */
+    @Override
+    public RespArray serialize() {
+        return new RespArray(
+            new RespCommandId(idGen.intValue()),
+            new RespBulkString(COMMAND_NAME.getBytes()),
+            new RespBulkString(section.getBytes())
+        );
+    }
+
+    @Override
+    public int getCommandId() {
+        return idGen.intValue();
+    }
+}
@@ -0,0 +1,48 @@
+package com.itmo.java.client.command;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MultiGetKvsCommand implements KvsCommand {
+
+    private static final String COMMAND_NAME = "MULTI_GET_KEYS";
+
+    private final String dbName;
+    private final String tableName;
+    private final List<String> keys;
+
+    public MultiGetKvsCommand(String databaseName, String tableName, List<String> keys) {
+        this.dbName = databaseName;
+        this.tableName = tableName;
+        this.keys = keys;
+    }
+
+    /**
+     * Возвращает RESP объект. {@link RespArray} с {@link RespCommandId}, именем команды, именами бд и таблицы
+     * и ключами в виде {@link RespBulkString}
+     *
+     * @return объект
+     */
+    @Override
+    public RespArray serialize() {
+        List<RespObject> objects = new ArrayList<>(4 + keys.size());
+        objects.add(new RespCommandId(idGen.intValue()));
+        objects.add(new RespBulkString(COMMAND_NAME.getBytes()));
+        objects.add(new RespBulkString(dbName.getBytes()));
+        objects.add(new RespBulkString(tableName.getBytes()));
+        for (String key : keys) {
+            objects.add(new RespBulkString(key.getBytes()));
+        }
+        return new RespArray(objects);
+    }
+
+    @Override
+    public int getCommandId() {
+        return idGen.intValue();
+    }
+}
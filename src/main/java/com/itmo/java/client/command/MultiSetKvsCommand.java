@@ -0,0 +1,50 @@
+package com.itmo.java.client.command;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MultiSetKvsCommand implements KvsCommand {
+
+    private static final String COMMAND_NAME = "MULTI_SET_KEYS";
+
+    private final String dbName;
+    private final String tableName;
+    private final Map<String, String> values;
+
+    public MultiSetKvsCommand(String databaseName, String tableName, Map<String, String> values) {
+        this.dbName = databaseName;
+        this.tableName = tableName;
+        this.values = values;
+    }
+
+    /**
+     * Возвращает RESP объект. {@link RespArray} с {@link RespCommandId}, именем команды, именами бд и таблицы,
+     * после которых идут чередующиеся ключи и значения в виде {@link RespBulkString}
+     *
+     * @return объект
+     */
+    @Override
+    public RespArray serialize() {
+        List<RespObject> objects = new ArrayList<>(4 + values.size() * 2);
+        objects.add(new RespCommandId(idGen.intValue()));
+        objects.add(new RespBulkString(COMMAND_NAME.getBytes()));
+        objects.add(new RespBulkString(dbName.getBytes()));
+        objects.add(new RespBulkString(tableName.getBytes()));
+        for (var entry : values.entrySet()) {
+            objects.add(new RespBulkString(entry.getKey().getBytes()));
+            objects.add(new RespBulkString(entry.getValue().getBytes()));
+        }
+        return new RespArray(objects);
+    }
+
+    @Override
+    public int getCommandId() {
+        return idGen.intValue();
+    }
+}
@@ -0,0 +1,41 @@
+package com.itmo.java.client.command;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+
+/**
+ * Команда для работы с журналом медленных команд
+ */
+public class SlowLogKvsCommand implements KvsCommand {
+    private static final String COMMAND_NAME = "SLOWLOG";
+
+    private final String subcommand;
+    /**
+     * Создает объект
+     *
+     * @param subcommand подкоманда: "GET", "LEN" или "RESET"
+     */
+    public SlowLogKvsCommand(String subcommand) {
+        this.subcommand = subcommand;
+    }
+
+    /**
+     * Возвращает RESP объект. {@link RespArray} с {@link RespCommandId}, именем команды, аргументами в виде {@link RespBulkString}
+     *
+     * @return объект
+     */
+    @Override
+    public RespArray serialize() {
+        return new RespArray(
+            new RespCommandId(idGen.intValue()),
+            new RespBulkString(COMMAND_NAME.getBytes()),
+            new RespBulkString(subcommand.getBytes())
+        );
+    }
+
+    @Override
+    public int getCommandId() {
+        return idGen.intValue();
+    }
+}
@@ -0,0 +1,21 @@
+package com.itmo.java.client.connection;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Подключение к key value storage, через которое одновременно может исполняться много команд
+ */
+public interface AsyncKvsConnection extends AutoCloseable {
+    /**
+     * Отправляет команду к серверу, не дожидаясь ответа
+     *
+     * @param commandId id команды (номер)
+     * @param command   команда
+     * @return результат исполнения. Завершается с {@link com.itmo.java.client.exception.ConnectionException},
+     * если не удалось отправить команду или прочитать ответ
+     */
+    CompletableFuture<RespObject> sendAsync(int commandId, RespArray command);
+}
@@ -0,0 +1,41 @@
+package com.itmo.java.client.connection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Параметры пула подключений {@link KvsConnectionPool}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ConnectionPoolConfig {
+    public static final int DEFAULT_MIN_SIZE = 1;
+    public static final int DEFAULT_MAX_SIZE = 8;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_BORROW_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Сколько подключений пул держит открытыми даже без нагрузки
+     */
+    private final int minSize;
+    /**
+     * Сколько подключений пул может открыть одновременно
+     */
+    private final int maxSize;
+    /**
+     * Сколько неиспользуемое подключение сверх {@link #minSize} живет до закрытия
+     */
+    private final Duration idleTimeout;
+    /**
+     * Сколько команда ждет свободного подключения, если открыто {@link #maxSize} подключений
+     */
+    private final Duration borrowTimeout;
+
+    public ConnectionPoolConfig() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT, DEFAULT_BORROW_TIMEOUT);
+    }
+}
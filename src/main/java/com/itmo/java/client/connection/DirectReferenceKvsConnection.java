@@ -1,10 +1,16 @@
 package com.itmo.java.client.connection;
 
 import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.client.command.KvsCommand;
 import com.itmo.java.client.exception.ConnectionException;
 import com.itmo.java.protocol.model.RespArray;
 import com.itmo.java.protocol.model.RespObject;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Реализация подключения, когда есть прямая ссылка на объект
  * (пока еще нет реализации сокетов)
@@ -26,6 +32,27 @@ public class DirectReferenceKvsConnection implements KvsConnection {
         }
     }
 
+    /**
+     * Отправляет все команды на сервер, после чего дожидается результатов в порядке команд
+     */
+    @Override
+    public List<RespObject> pipeline(List<KvsCommand> commands) throws ConnectionException {
+        try {
+            List<CompletableFuture<DatabaseCommandResult>> futures = new ArrayList<>(commands.size());
+            for (KvsCommand command : commands) {
+                futures.add(databaseServer.executeNextCommand(command.serialize()));
+            }
+
+            List<RespObject> results = new ArrayList<>(commands.size());
+            for (CompletableFuture<DatabaseCommandResult> future : futures) {
+                results.add(future.get().serialize());
+            }
+            return results;
+        } catch (Exception ext) {
+            throw new ConnectionException("Connection problems", ext);
+        }
+    }
+
     /**
      * Ничего не делает ¯\_(ツ)_/¯
      */
@@ -1,9 +1,13 @@
 package com.itmo.java.client.connection;
 
+import com.itmo.java.client.command.KvsCommand;
 import com.itmo.java.client.exception.ConnectionException;
 import com.itmo.java.protocol.model.RespArray;
 import com.itmo.java.protocol.model.RespObject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Определяет интерфейс подключения к key value storage
  */
@@ -17,4 +21,29 @@ public interface KvsConnection extends AutoCloseable {
      * @throws ConnectionException если не удалось прочитать ответ
      */
     RespObject send(int commandId, RespArray command) throws ConnectionException;
+
+    /**
+     * Отправляет несколько команд, не дожидаясь ответов, после чего получает ответы в порядке команд.
+     * По умолчанию команды отправляются по одной
+     *
+     * @param commands команды
+     * @return результаты исполнения в порядке команд
+     * @throws ConnectionException если не удалось отправить команды или прочитать ответы
+     */
+    default List<RespObject> pipeline(List<KvsCommand> commands) throws ConnectionException {
+        List<RespObject> results = new ArrayList<>(commands.size());
+        for (KvsCommand command : commands) {
+            results.add(send(command.getCommandId(), command.serialize()));
+        }
+        return results;
+    }
+
+    /**
+     * Проверяет, можно ли отправлять команды через подключение. По умолчанию подключение всегда живо
+     *
+     * @return false, если подключение закрыто или сломано предыдущей ошибкой
+     */
+    default boolean isAlive() {
+        return true;
+    }
 }
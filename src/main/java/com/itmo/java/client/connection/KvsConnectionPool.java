@@ -0,0 +1,310 @@
+package com.itmo.java.client.connection;
+
+import com.itmo.java.client.command.KvsCommand;
+import com.itmo.java.client.exception.ConnectionException;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Пул подключений к серверу. Подходит как supplier для {@link com.itmo.java.client.client.SimpleKvsClient}:
+ * {@link #get()} возвращает легкое подключение, которое на время каждой команды берет из пула
+ * открытое подключение и сразу возвращает его обратно. Поэтому сокеты переиспользуются,
+ * даже если клиент запрашивает подключение на каждую команду и никогда его не закрывает.
+ * <p>
+ * Подключение, на котором произошла ошибка или которое перестало быть живым ({@link KvsConnection#isAlive()}),
+ * закрывается и больше не выдается. Фоновый поток закрывает подключения, простаивающие дольше
+ * {@link ConnectionPoolConfig#getIdleTimeout()}, и открывает новые до {@link ConnectionPoolConfig#getMinSize()}
+ */
+public class KvsConnectionPool implements Supplier<KvsConnection>, AutoCloseable {
+
+    private final Supplier<KvsConnection> connectionFactory;
+    private final ConnectionPoolConfig config;
+    private final ScheduledExecutorService evictor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    /**
+     * Свободные подключения, последнее возвращенное - первое. Так редко используемые подключения
+     * скапливаются в конце очереди и закрываются по таймауту
+     */
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private int openedCount = 0;
+    private boolean closed = false;
+
+    public KvsConnectionPool(ConnectionConfig connectionConfig) {
+        this(connectionConfig, new ConnectionPoolConfig());
+    }
+
+    public KvsConnectionPool(ConnectionConfig connectionConfig, ConnectionPoolConfig config) {
+        this(() -> new SocketKvsConnection(connectionConfig), config);
+    }
+
+    /**
+     * Создает пул и открывает {@link ConnectionPoolConfig#getMinSize()} подключений
+     *
+     * @param connectionFactory метод открытия нового подключения. Ошибку открытия сообщает через RuntimeException
+     * @param config            параметры пула
+     */
+    public KvsConnectionPool(Supplier<KvsConnection> connectionFactory, ConnectionPoolConfig config) {
+        if (config.getMinSize() < 0 || config.getMaxSize() < 1 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Wrong pool size bounds: " + config);
+        }
+        this.connectionFactory = connectionFactory;
+        this.config = config;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kvs-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        fillToMinSize();
+        long period = Math.max(1, config.getIdleTimeout().toMillis() / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return подключение, которое берет подключение из пула на время каждой команды. Закрывать его не обязательно
+     */
+    @Override
+    public KvsConnection get() {
+        return new PooledKvsConnection();
+    }
+
+    /**
+     * @return количество открытых подключений, включая занятые
+     */
+    public int getOpenedCount() {
+        lock.lock();
+        try {
+            return openedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Закрывает свободные подключения. Занятые закрываются при возврате в пул
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        List<KvsConnection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            for (IdleConnection connection : idle) {
+                toClose.add(connection.connection);
+            }
+            openedCount -= idle.size();
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(KvsConnectionPool::closeQuietly);
+    }
+
+    /**
+     * Выдает свободное живое подключение, открывает новое или ждет возврата занятого
+     *
+     * @throws ConnectionException если пул закрыт, подключение не удалось открыть или свободное не дождались
+     */
+    private KvsConnection borrow() throws ConnectionException {
+        long nanosLeft = config.getBorrowTimeout().toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new ConnectionException("Connection pool is closed");
+                }
+                IdleConnection candidate = idle.pollFirst();
+                if (candidate != null) {
+                    if (candidate.connection.isAlive()) {
+                        return candidate.connection;
+                    }
+                    discard(candidate.connection);
+                    continue;
+                }
+                if (openedCount < config.getMaxSize()) {
+                    openedCount++;
+                    break;
+                }
+                if (nanosLeft <= 0) {
+                    throw new ConnectionException("No free connection in pool within " + config.getBorrowTimeout());
+                }
+                nanosLeft = released.awaitNanos(nanosLeft);
+            }
+        } catch (InterruptedException intext) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionException("Interrupted while waiting for connection", intext);
+        } finally {
+            lock.unlock();
+        }
+        // место под новое подключение уже зарезервировано, открываем его без блокировки
+        return open();
+    }
+
+    /**
+     * Возвращает подключение в пул
+     *
+     * @param broken true, если на подключении произошла ошибка и его нельзя выдавать снова
+     */
+    private void release(KvsConnection connection, boolean broken) {
+        lock.lock();
+        try {
+            if (broken || closed || !connection.isAlive()) {
+                discard(connection);
+            } else {
+                idle.addFirst(new IdleConnection(connection, System.nanoTime()));
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private KvsConnection open() throws ConnectionException {
+        try {
+            return connectionFactory.get();
+        } catch (RuntimeException ext) {
+            lock.lock();
+            try {
+                openedCount--;
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw new ConnectionException("Cannot open connection", ext);
+        }
+    }
+
+    /**
+     * Закрывает подключение и освобождает его место в пуле. Вызывается под блокировкой
+     */
+    private void discard(KvsConnection connection) {
+        openedCount--;
+        closeQuietly(connection);
+    }
+
+    private void evictIdle() {
+        List<KvsConnection> toClose = new ArrayList<>();
+        long deadline = System.nanoTime() - config.getIdleTimeout().toNanos();
+        lock.lock();
+        try {
+            Iterator<IdleConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext()) {
+                IdleConnection candidate = oldestFirst.next();
+                boolean expired = candidate.releasedAt - deadline < 0 && openedCount > config.getMinSize();
+                if (expired || !candidate.connection.isAlive()) {
+                    oldestFirst.remove();
+                    openedCount--;
+                    toClose.add(candidate.connection);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(KvsConnectionPool::closeQuietly);
+        fillToMinSize();
+    }
+
+    private void fillToMinSize() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || openedCount >= config.getMinSize()) {
+                    return;
+                }
+                openedCount++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                release(open(), false);
+            } catch (ConnectionException cntext) {
+                // сервер может быть еще недоступен, попробуем при следующей проверке
+                new ConnectionException("connection pool fill", cntext).printStackTrace();
+                return;
+            }
+        }
+    }
+
+    private static void closeQuietly(KvsConnection connection) {
+        try {
+            connection.close();
+        } catch (Exception ext) {
+            new ConnectionException("connection pool close", ext).printStackTrace();
+        }
+    }
+
+    private static class IdleConnection {
+        private final KvsConnection connection;
+        private final long releasedAt;
+
+        IdleConnection(KvsConnection connection, long releasedAt) {
+            this.connection = connection;
+            this.releasedAt = releasedAt;
+        }
+    }
+
+    /**
+     * Подключение, выдаваемое пулом. Само сокетов не держит
+     */
+    private class PooledKvsConnection implements KvsConnection {
+
+        @Override
+        public RespObject send(int commandId, RespArray command) throws ConnectionException {
+            KvsConnection connection = borrow();
+            boolean broken = true;
+            try {
+                RespObject result = connection.send(commandId, command);
+                broken = false;
+                return result;
+            } finally {
+                release(connection, broken);
+            }
+        }
+
+        @Override
+        public List<RespObject> pipeline(List<KvsCommand> commands) throws ConnectionException {
+            KvsConnection connection = borrow();
+            boolean broken = true;
+            try {
+                List<RespObject> results = connection.pipeline(commands);
+                broken = false;
+                return results;
+            } finally {
+                release(connection, broken);
+            }
+        }
+
+        @Override
+        public boolean isAlive() {
+            lock.lock();
+            try {
+                return !closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Ничего не делает: подключения принадлежат пулу
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
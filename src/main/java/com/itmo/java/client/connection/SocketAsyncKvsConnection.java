@@ -0,0 +1,108 @@
+package com.itmo.java.client.connection;
+
+import com.itmo.java.client.exception.ConnectionException;
+import com.itmo.java.protocol.RespReader;
+import com.itmo.java.protocol.RespWriter;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Подключение через сокет, по которому команды отправляются, не дожидаясь ответов на предыдущие.
+ * Сервер отвечает на команды одного соединения в порядке их поступления, поэтому ответ сопоставляется
+ * с самой старой командой без ответа. Ответы читает отдельный поток подключения, он же завершает
+ * результаты команд: тяжелую обработку результатов стоит переносить в другой пул (thenApplyAsync и т.п.)
+ */
+public class SocketAsyncKvsConnection implements AsyncKvsConnection {
+    private final Socket socket;
+    private final RespWriter writer;
+    private final RespReader reader;
+    /**
+     * Результаты отправленных команд в порядке отправки. Пополняется под блокировкой writer,
+     * чтобы порядок в очереди совпадал с порядком команд в сокете
+     */
+    private final Queue<CompletableFuture<RespObject>> pending = new ConcurrentLinkedQueue<>();
+    private final Thread readerThread;
+    private volatile ConnectionException failure;
+
+    public SocketAsyncKvsConnection(ConnectionConfig config) {
+        try {
+            socket = new Socket(config.getHost(), config.getPort());
+            socket.setTcpNoDelay(true);
+            reader = new RespReader(socket.getInputStream());
+            writer = new RespWriter(socket.getOutputStream());
+        } catch (IOException ioext) {
+            throw new RuntimeException("Connecting error", ioext);
+        }
+        readerThread = new Thread(this::readResponses, "kvs-async-reader-" + socket.getLocalPort());
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @Override
+    public CompletableFuture<RespObject> sendAsync(int commandId, RespArray command) {
+        CompletableFuture<RespObject> result = new CompletableFuture<>();
+        synchronized (writer) {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return result;
+            }
+            pending.add(result);
+            try {
+                writer.write(command);
+            } catch (IOException ioext) {
+                fail(new ConnectionException("Sending error", ioext));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Закрывает сокет. Команды без ответа завершаются с ошибкой
+     */
+    @Override
+    public void close() {
+        fail(new ConnectionException("Connection is closed"));
+        try {
+            socket.close();
+        } catch (IOException ioext) {
+            throw new RuntimeException("Cannot close resources", ioext);
+        }
+    }
+
+    private void readResponses() {
+        try {
+            while (true) {
+                RespObject response = reader.readObject();
+                CompletableFuture<RespObject> head = pending.poll();
+                if (head == null) {
+                    throw new IOException("Response without a command");
+                }
+                head.complete(response);
+            }
+        } catch (IOException | RuntimeException ext) {
+            // после непонятного ответа поток рассинхронизирован, дальше сопоставлять ответы с командами нельзя
+            fail(new ConnectionException("Reading error", ext));
+        }
+    }
+
+    /**
+     * Запрещает новые отправки и завершает с ошибкой все команды без ответа
+     */
+    private void fail(ConnectionException cause) {
+        synchronized (writer) {
+            if (failure == null) {
+                failure = cause;
+            }
+        }
+        CompletableFuture<RespObject> head;
+        while ((head = pending.poll()) != null) {
+            head.completeExceptionally(failure);
+        }
+    }
+}
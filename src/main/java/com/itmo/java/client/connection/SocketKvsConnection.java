@@ -2,7 +2,10 @@ package com.itmo.java.client.connection;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.itmo.java.client.command.KvsCommand;
 import com.itmo.java.client.exception.ConnectionException;
 import com.itmo.java.protocol.RespReader;
 import com.itmo.java.protocol.RespWriter;
@@ -16,10 +19,15 @@ public class SocketKvsConnection implements KvsConnection {
     private final Socket socket;
     private final RespWriter writer;
     private final RespReader reader;
+    /**
+     * После ошибки ввода-вывода поток ответов может быть рассинхронизирован с командами
+     */
+    private volatile boolean broken = false;
 
     public SocketKvsConnection(ConnectionConfig config) {
         try {
             socket = new Socket(config.getHost(), config.getPort());
+            socket.setTcpNoDelay(true);
             reader = new RespReader(socket.getInputStream());
             writer = new RespWriter(socket.getOutputStream());
         } catch (IOException ioext) {
@@ -40,10 +48,43 @@ public class SocketKvsConnection implements KvsConnection {
             writer.write(command);
             return reader.readObject();
         } catch (Exception ext) {
+            broken = true;
             throw new ConnectionException("Sending error", ext);
         }
     }
 
+    /**
+     * Записывает все команды в сокет одним flush, после чего читает столько же ответов.
+     *
+     * @throws ConnectionException если сокет закрыт или если произошла другая ошибка соединения
+     */
+    @Override
+    public synchronized List<RespObject> pipeline(List<KvsCommand> commands) throws ConnectionException {
+        try {
+            for (KvsCommand command : commands) {
+                writer.append(command.serialize());
+            }
+            writer.flush();
+
+            List<RespObject> results = new ArrayList<>(commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                results.add(reader.readObject());
+            }
+            return results;
+        } catch (Exception ext) {
+            broken = true;
+            throw new ConnectionException("Pipeline error", ext);
+        }
+    }
+
+    /**
+     * @return false, если сокет закрыт (в том числе на чтение) или на подключении уже была ошибка
+     */
+    @Override
+    public boolean isAlive() {
+        return !broken && !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+    }
+
     /**
      * Закрывает сокет (и другие использованные ресурсы)
      */
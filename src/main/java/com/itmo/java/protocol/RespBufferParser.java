@@ -0,0 +1,303 @@
+package com.itmo.java.protocol;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespError;
+import com.itmo.java.protocol.model.RespObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Разбирает RESP объекты из буфера, в который данные дописываются по мере поступления из сети.
+ * Все пришедшие данные сразу забираются из буфера: начатые массивы и bulk строки хранятся в парсере
+ * до прихода остальных данных, поэтому каждый байт разбирается один раз, а буфер не нужно расширять.
+ * Не потокобезопасен: используется одним соединением
+ */
+public class RespBufferParser {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    /**
+     * Максимальный размер команды по умолчанию (как client-query-buffer-limit в Redis)
+     */
+    public static final int DEFAULT_MAX_COMMAND_LENGTH = 1 << 30;
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    /**
+     * Результат разбора размера, строка которого пришла не полностью. Настоящий размер таким быть не может
+     */
+    private static final int INCOMPLETE_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * Сколько места выделяется заранее под bulk строку или массив, дальше память выделяется по мере прихода данных
+     */
+    private static final int MAX_PREALLOCATED_BYTES = 1024 * 1024;
+    private static final int MAX_PREALLOCATED_ELEMENTS = 1024;
+
+    private final int maxBulkLength;
+    private final int maxCommandLength;
+
+    /**
+     * Массивы, элементы которых пришли не все, от самого вложенного к внешнему
+     */
+    private final Deque<PartialArray> arrays = new ArrayDeque<>();
+
+    /**
+     * Bulk строка, пришедшая не полностью (null, если такой нет), и сколько ее байт уже пришло
+     */
+    private byte[] bulk;
+    private int bulkSize;
+    private int bulkFilled;
+
+    /**
+     * Сколько байт разбираемого объекта уже забрано из буфера
+     */
+    private long objectLength;
+
+    public RespBufferParser() {
+        this(RespReader.DEFAULT_MAX_BULK_LENGTH, DEFAULT_MAX_COMMAND_LENGTH);
+    }
+
+    /**
+     * @param maxBulkLength    bulk строки длиннее считаются ошибкой протокола
+     * @param maxCommandLength объекты (команды) длиннее считаются ошибкой протокола
+     */
+    public RespBufferParser(int maxBulkLength, int maxCommandLength) {
+        this.maxBulkLength = maxBulkLength;
+        this.maxCommandLength = maxCommandLength;
+    }
+
+    /**
+     * Продолжает разбор следующего объекта. Забирает из буфера все данные, которые можно разобрать,
+     * даже если объект пришел не полностью.
+     *
+     * @param buffer буфер в режиме чтения
+     * @return объект, если он пришел полностью (позиция буфера сдвигается за него).
+     * {@link Optional#empty()} - если данных пока недостаточно. В буфере могут остаться только начало
+     * строки с размером, которое нужно передать вместе с остальными данными
+     * @throws IOException если данные не соответствуют формату или объект слишком большой.
+     * Начатый объект при этом отбрасывается
+     */
+    public Optional<RespObject> tryParse(ByteBuffer buffer) throws IOException {
+        try {
+            while (true) {
+                int start = buffer.position();
+                RespObject element = bulk != null ? continueBulkString(buffer) : parseElement(buffer);
+                objectLength += buffer.position() - start;
+                if (objectLength > maxCommandLength) {
+                    throw new IOException("Command is too long: more than " + maxCommandLength + " bytes");
+                }
+                if (element == null) {
+                    if (buffer.position() == start) {
+                        return Optional.empty();
+                    }
+                    continue;
+                }
+
+                RespObject completed = attach(element);
+                if (completed != null) {
+                    objectLength = 0;
+                    return Optional.of(completed);
+                }
+            }
+        } catch (IOException ioext) {
+            reset();
+            throw ioext;
+        }
+    }
+
+    /**
+     * Добавляет элемент в массив, который его ждет. Заполненные массивы добавляются в свои внешние массивы
+     *
+     * @return объект верхнего уровня, если он готов, иначе null
+     */
+    private RespObject attach(RespObject element) {
+        while (!arrays.isEmpty()) {
+            PartialArray array = arrays.peek();
+            array.elements.add(element);
+            if (array.elements.size() < array.size) {
+                return null;
+            }
+            arrays.pop();
+            element = new RespArray(array.elements);
+        }
+        return element;
+    }
+
+    /**
+     * Разбирает начало следующего элемента. Массив или bulk строка начинаются и заполняются дальше
+     *
+     * @return готовый элемент или null: если элемент начат (позиция сдвинута) или данных для его начала недостаточно (позиция не сдвинута)
+     */
+    private RespObject parseElement(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        int start = buffer.position();
+        byte type = buffer.get(start);
+        switch (type) {
+            case RespArray.CODE: {
+                int arraySize = parseSize(buffer, start + 1);
+                if (arraySize == INCOMPLETE_SIZE) {
+                    return null;
+                }
+                if (arraySize < 0) {
+                    throw new IOException("Wrong size of array: " + arraySize);
+                }
+                if (arraySize > maxCommandLength - objectLength) {
+                    // каждый элемент занимает хотя бы байт
+                    throw new IOException("Command is too long: array of " + arraySize + " elements");
+                }
+                if (arraySize == 0) {
+                    return new RespArray();
+                }
+                arrays.push(new PartialArray(arraySize));
+                return null;
+            }
+            case RespBulkString.CODE: {
+                int stringSize = parseSize(buffer, start + 1);
+                if (stringSize == INCOMPLETE_SIZE) {
+                    return null;
+                }
+                if (stringSize == RespBulkString.NULL_STRING_SIZE) {
+                    return RespBulkString.NULL_STRING;
+                }
+                if (stringSize < 0) {
+                    throw new IOException("Wrong size of string: " + stringSize);
+                }
+                if (stringSize > maxBulkLength || objectLength + stringSize > maxCommandLength) {
+                    throw new IOException("Bulk string is too long: " + stringSize + " bytes");
+                }
+                bulk = new byte[Math.min(stringSize, MAX_PREALLOCATED_BYTES)];
+                bulkSize = stringSize;
+                bulkFilled = 0;
+                return continueBulkString(buffer);
+            }
+            case RespCommandId.CODE:
+                if (buffer.remaining() < 1 + Integer.BYTES + 2) {
+                    return null;
+                }
+                int commandId = buffer.getInt(start + 1);
+                checkCRLF(buffer, start + 1 + Integer.BYTES);
+                buffer.position(start + 1 + Integer.BYTES + 2);
+                return new RespCommandId(commandId);
+            case RespError.CODE:
+                byte[] message = parseLine(buffer, start + 1, MAX_ERROR_LENGTH);
+                return message == null ? null : new RespError(message);
+            default:
+                throw new IOException("Wrong RESP type");
+        }
+    }
+
+    /**
+     * Копирует в начатую bulk строку пришедшие байты
+     *
+     * @return строку, если она пришла полностью вместе с CRLF, иначе null
+     */
+    private RespBulkString continueBulkString(ByteBuffer buffer) throws IOException {
+        int chunk = Math.min(buffer.remaining(), bulkSize - bulkFilled);
+        if (bulkFilled + chunk > bulk.length) {
+            bulk = Arrays.copyOf(bulk, (int) Math.min(Math.max((long) bulk.length * 2, bulkFilled + chunk), bulkSize));
+        }
+        buffer.get(bulk, bulkFilled, chunk);
+        bulkFilled += chunk;
+        if (bulkFilled < bulkSize || buffer.remaining() < 2) {
+            return null;
+        }
+        checkCRLF(buffer, buffer.position());
+        buffer.position(buffer.position() + 2);
+
+        RespBulkString result = new RespBulkString(bulk);
+        bulk = null;
+        return result;
+    }
+
+    /**
+     * Разбирает размер из строки, начинающейся с from, прямо в буфере, как {@link RespReader}:
+     * необязательный минус и не больше 10 цифр. Если строка пришла, позиция буфера сдвигается за нее
+     *
+     * @return размер или {@link #INCOMPLETE_SIZE}, если строка пришла не полностью
+     */
+    private int parseSize(ByteBuffer buffer, int from) throws IOException {
+        int index = from;
+        boolean negative = index < buffer.limit() && buffer.get(index) == '-';
+        if (negative) {
+            index++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        for (; index < buffer.limit(); index++) {
+            byte current = buffer.get(index);
+            if (current == CR) {
+                if (index + 1 == buffer.limit()) {
+                    return INCOMPLETE_SIZE;
+                }
+                if (buffer.get(index + 1) != LF || digits == 0 || value > Integer.MAX_VALUE) {
+                    throw new IOException("Wrong length format");
+                }
+                buffer.position(index + 2);
+                return (int) (negative ? -value : value);
+            }
+            if (current < '0' || current > '9' || ++digits > 10) {
+                throw new IOException("Wrong length format");
+            }
+            value = value * 10 + (current - '0');
+        }
+        return INCOMPLETE_SIZE;
+    }
+
+    /**
+     * @return байты строки до CRLF или null, если CRLF еще не пришел. Если строка пришла, позиция буфера сдвигается за нее
+     * @throws IOException если строка длиннее maxLength
+     */
+    private byte[] parseLine(ByteBuffer buffer, int from, int maxLength) throws IOException {
+        for (int i = from; i + 1 < buffer.limit(); i++) {
+            if (buffer.get(i) == CR && buffer.get(i + 1) == LF) {
+                byte[] line = new byte[i - from];
+                buffer.get(from, line);
+                buffer.position(i + 2);
+                return line;
+            }
+            if (i - from == maxLength) {
+                throw new IOException("Line is too long");
+            }
+        }
+        if (buffer.limit() - from > maxLength + 1) {
+            throw new IOException("Line is too long");
+        }
+        return null;
+    }
+
+    private void checkCRLF(ByteBuffer buffer, int at) throws IOException {
+        if (buffer.get(at) != CR || buffer.get(at + 1) != LF) {
+            throw new IOException("Expected CRLF at the end of element");
+        }
+    }
+
+    private void reset() {
+        arrays.clear();
+        bulk = null;
+        objectLength = 0;
+    }
+
+    private static class PartialArray {
+        private final int size;
+        private final List<RespObject> elements;
+
+        PartialArray(int size) {
+            this.size = size;
+            this.elements = new ArrayList<>(Math.min(size, MAX_PREALLOCATED_ELEMENTS));
+        }
+    }
+}
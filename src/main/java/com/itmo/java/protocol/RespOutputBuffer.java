@@ -0,0 +1,75 @@
+package com.itmo.java.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Переиспользуемый буфер, в который кодируются RESP объекты перед отправкой.
+ * В отличие от {@link java.io.ByteArrayOutputStream} не синхронизирован и отдает накопленные байты
+ * без копирования. Используется одним потоком
+ */
+public class RespOutputBuffer extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    /**
+     * Буфер, разросшийся больше этого размера, после {@link #reset()} заменяется новым,
+     * чтобы один большой ответ не удерживал память соединения
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    /**
+     * @return количество накопленных байт
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Записывает накопленные байты в стрим одним вызовом
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        os.write(bytes, 0, size);
+    }
+
+    /**
+     * @return копию накопленных байт, которую можно отдать на отложенную запись
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(Arrays.copyOf(bytes, size));
+    }
+
+    /**
+     * Очищает буфер, сохраняя выделенную память
+     */
+    public void reset() {
+        size = 0;
+        if (bytes.length > MAX_RETAINED_CAPACITY) {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
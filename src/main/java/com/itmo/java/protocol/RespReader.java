@@ -6,11 +6,13 @@ import com.itmo.java.protocol.model.RespCommandId;
 import com.itmo.java.protocol.model.RespError;
 import com.itmo.java.protocol.model.RespObject;
 
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackInputStream;
-import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class RespReader implements AutoCloseable {
 
@@ -19,21 +21,56 @@ public class RespReader implements AutoCloseable {
      */
     private static final byte CR = '\r';
     private static final byte LF = '\n';
-    private final PushbackInputStream pbis;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Максимальная длина bulk строки по умолчанию (как proto-max-bulk-len в Redis)
+     */
+    public static final int DEFAULT_MAX_BULK_LENGTH = 512 * 1024 * 1024;
+
+    /**
+     * Сколько места выделяется заранее под bulk строку или массив. Дальше память выделяется по мере прихода данных,
+     * чтобы заголовок с огромной длиной не заставлял выделять память под данные, которых нет
+     */
+    private static final int MAX_PREALLOCATED_BYTES = 1024 * 1024;
+    private static final int MAX_PREALLOCATED_ELEMENTS = 1024;
+
+    /**
+     * Данные читаются из стрима блоками в переиспользуемый буфер, разбор идет по буферу.
+     * Непрочитанные байты лежат в buffer[position, limit)
+     */
+    private final InputStream is;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private final int maxBulkLength;
 
     public RespReader(InputStream is) {
-        this.pbis = new PushbackInputStream(is);
+        this(is, DEFAULT_MAX_BULK_LENGTH);
+    }
+
+    /**
+     * @param maxBulkLength bulk строки длиннее считаются ошибкой протокола
+     */
+    public RespReader(InputStream is, int maxBulkLength) {
+        this.is = is;
+        this.maxBulkLength = maxBulkLength;
     }
 
     /**
      * Есть ли следующий массив в стриме?
      */
     public boolean hasArray() throws IOException {
-        try{
-            return getType() == RespArray.CODE;
-        } catch (EOFException eofext) {
-            return false;
-        }
+        return peekByte() == RespArray.CODE;
+    }
+
+    /**
+     * Есть ли в стриме данные, которые можно прочитать без ожидания? Нужна, чтобы разобрать все
+     * команды, уже присланные клиентом (pipelining), прежде чем отвечать на них
+     */
+    public boolean hasAvailableData() throws IOException {
+        return position < limit || is.available() > 0;
     }
 
     /**
@@ -44,8 +81,10 @@ public class RespReader implements AutoCloseable {
      * @throws IOException  при ошибке чтения
      */
     public RespObject readObject() throws IOException {
-        byte type = getType();
+        int type = peekByte();
         switch (type) {
+            case -1:
+                throw new EOFException("eof");
             case RespArray.CODE: 
                 return readArray();
             case RespBulkString.CODE:
@@ -68,34 +107,37 @@ public class RespReader implements AutoCloseable {
      */
     public RespError readError() throws IOException {
         checkType(RespError.CODE);
-        return new RespError(readUntilCRLF().getBytes());
+        return new RespError(readUntilCRLF());
     }
 
     /**
-     * Читает bulk строку
+     * Читает bulk строку. Байты строки копируются из буфера сразу в массив нужного размера,
+     * у длинных строк массив растет по мере прихода данных
      *
      * @throws EOFException если stream пустой
      * @throws IOException  при ошибке чтения
      */
     public RespBulkString readBulkString() throws IOException {
         checkType(RespBulkString.CODE);
-        int stringSize;
-        try {
-            stringSize = Integer.parseInt(readUntilCRLF());
-        } catch (NumberFormatException nfext) {
-            throw new IOException("Wrong lenght of bulk string format", nfext);
-        }
+        int stringSize = readInteger();
 
         if (stringSize == RespBulkString.NULL_STRING_SIZE) {
             return RespBulkString.NULL_STRING;
         }
-
-        byte[] result = pbis.readNBytes(stringSize);
-        
-        if (!checkIfNextCRLF() ||
-            result.length != stringSize) {
+        if (stringSize < 0) {
             throw new IOException("Wrong size of string");
         }
+        if (stringSize > maxBulkLength) {
+            throw new IOException("Bulk string is too long: " + stringSize + " > " + maxBulkLength);
+        }
+
+        byte[] result = new byte[Math.min(stringSize, MAX_PREALLOCATED_BYTES)];
+        readFully(result, 0);
+        for (int read = result.length; read < stringSize; read = result.length) {
+            result = Arrays.copyOf(result, (int) Math.min((long) read * 2, stringSize));
+            readFully(result, read);
+        }
+        checkCRLF("Wrong size of string");
 
         return new RespBulkString(result);
     }
@@ -108,16 +150,14 @@ public class RespReader implements AutoCloseable {
      */
     public RespArray readArray() throws IOException {
         checkType(RespArray.CODE);
-        int arraySize;
-        try {
-            arraySize = Integer.parseInt(readUntilCRLF());
-        } catch (NumberFormatException nfext) {
-            throw new IOException("Wrong lenght of bulk string format", nfext);
+        int arraySize = readInteger();
+        if (arraySize < 0) {
+            throw new IOException("Wrong size of array");
         }
 
-        RespObject[] result = new RespObject[arraySize];
+        List<RespObject> result = new ArrayList<>(Math.min(arraySize, MAX_PREALLOCATED_ELEMENTS));
         for (int i = 0; i < arraySize; i++) {
-            result[i] = readObject();
+            result.add(readObject());
         }
 
         return new RespArray(result);
@@ -131,62 +171,124 @@ public class RespReader implements AutoCloseable {
      */
     public RespCommandId readCommandId() throws IOException {
         checkType(RespCommandId.CODE);
-        byte[] result = pbis.readNBytes(4);
-        if (!checkIfNextCRLF() ||
-            result.length != 4) {
-                throw new IOException("Wrong command id format");
-            }
-        return new RespCommandId(ByteBuffer.wrap(result).getInt());
+        int commandId = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            commandId = (commandId << 8) | (readByte() & 0xFF);
+        }
+        checkCRLF("Wrong command id format");
+        return new RespCommandId(commandId);
     }
 
 
     @Override
     public void close() throws IOException {
-        pbis.close();
+        is.close();
     }
 
-    private byte getType() throws IOException {
-        int type = pbis.read();
-        pbis.unread(type);
-        if (type == -1) {
-            throw new EOFException("eof");
+    /**
+     * Дочитывает буфер из стрима, если он пуст
+     *
+     * @return false, если стрим закончился
+     */
+    private boolean fill() throws IOException {
+        while (position == limit) {
+            int read = is.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
         }
-        return (byte)type;
+        return true;
     }
 
-    private void checkType(byte expectedType) throws IOException {
-        int type = pbis.read();
-        if (type == -1){
+    private int peekByte() throws IOException {
+        return fill() ? buffer[position] : -1;
+    }
+
+    private byte readByte() throws IOException {
+        if (!fill()) {
             throw new EOFException("eof");
         }
-        if (type != (int)expectedType){
+        return buffer[position++];
+    }
+
+    /**
+     * Заполняет target начиная с from данными из буфера. Если строка больше буфера, остаток читается из стрима напрямую в target
+     */
+    private void readFully(byte[] target, int from) throws IOException {
+        int copied = from + Math.min(limit - position, target.length - from);
+        System.arraycopy(buffer, position, target, from, copied - from);
+        position += copied - from;
+
+        while (copied < target.length) {
+            int remaining = target.length - copied;
+            if (remaining >= buffer.length) {
+                int read = is.read(target, copied, remaining);
+                if (read < 0) {
+                    throw new EOFException("eof");
+                }
+                copied += read;
+            } else {
+                if (!fill()) {
+                    throw new EOFException("eof");
+                }
+                int chunk = Math.min(limit - position, remaining);
+                System.arraycopy(buffer, position, target, copied, chunk);
+                position += chunk;
+                copied += chunk;
+            }
+        }
+    }
+
+    private void checkType(byte expectedType) throws IOException {
+        if (readByte() != expectedType){
             throw new IOException("Wrong RESP type. Expected: " + (char)expectedType);
         }
     }
 
-    private String readUntilCRLF() throws IOException {
-        StringBuilder builder = new StringBuilder("");
-        int cur = pbis.read();
-        if (cur == -1) {
-            throw new EOFException("eof");
+    /**
+     * Разбирает десятичное число до CRLF прямо из буфера
+     */
+    private int readInteger() throws IOException {
+        byte current = readByte();
+        boolean negative = current == '-';
+        if (negative) {
+            current = readByte();
         }
-        while (true) {
-            int next = pbis.read();
-            if (next == -1) {
-                throw new EOFException("eof");
+
+        long value = 0;
+        int digits = 0;
+        while (current != CR) {
+            if (current < '0' || current > '9' || ++digits > 10) {
+                throw new IOException("Wrong length format");
             }
-            if (cur == CR && next == LF) {
+            value = value * 10 + (current - '0');
+            current = readByte();
+        }
+        if (readByte() != LF || digits == 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Wrong length format");
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private byte[] readUntilCRLF() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        byte current = readByte();
+        while (true) {
+            byte next = readByte();
+            if (current == CR && next == LF) {
                 break;
             }
-            builder.append((char)cur);
-            cur = next;
+            line.write(current);
+            current = next;
         }
-        return builder.toString();
+        return line.toByteArray();
     }
 
-    private boolean checkIfNextCRLF() throws IOException {
-        int first = pbis.read();
-        int second = pbis.read();
-        return first == CR && second == LF;
+    private void checkCRLF(String message) throws IOException {
+        if (readByte() != CR || readByte() != LF) {
+            throw new IOException(message);
+        }
     }
 }
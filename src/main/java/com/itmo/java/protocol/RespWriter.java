@@ -5,9 +5,13 @@ import com.itmo.java.protocol.model.RespObject;
 import java.io.IOException;
 import java.io.OutputStream;
 
+/**
+ * Кодирует объекты в переиспользуемый буфер и отправляет накопленное в output stream одной записью при {@link #flush()}
+ */
 public class RespWriter implements AutoCloseable{
 
     private final OutputStream os;
+    private final RespOutputBuffer buffer = new RespOutputBuffer();
 
     public RespWriter(OutputStream os) {
         this.os = os;
@@ -17,7 +21,23 @@ public class RespWriter implements AutoCloseable{
      * Записывает в output stream объект
      */
     public void write(RespObject object) throws IOException {
-        object.write(os);
+        append(object);
+        flush();
+    }
+
+    /**
+     * Кодирует объект в буфер, не отправляя его. Используется, чтобы отправить несколько объектов одним {@link #flush()}
+     */
+    public void append(RespObject object) throws IOException {
+        object.write(buffer);
+    }
+
+    /**
+     * Сбрасывает записанные объекты в output stream
+     */
+    public void flush() throws IOException {
+        buffer.writeTo(os);
+        buffer.reset();
         os.flush();
     }
 
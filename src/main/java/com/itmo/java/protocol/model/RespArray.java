@@ -2,7 +2,8 @@ package com.itmo.java.protocol.model;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -15,12 +16,17 @@ public class RespArray implements RespObject {
      */
     public static final byte CODE = '*';
 
-    private final List<RespObject> objects = new LinkedList<RespObject>();
+    /**
+     * Список с доступом по индексу: аргументы пакетных команд читаются по позиции
+     */
+    private final List<RespObject> objects;
 
     public RespArray(RespObject... objects) {
-        for (var object : objects) {
-            this.objects.add(object);
-        }
+        this.objects = new ArrayList<>(Arrays.asList(objects));
+    }
+
+    public RespArray(List<? extends RespObject> objects) {
+        this.objects = new ArrayList<>(objects);
     }
 
     /** 
@@ -50,8 +56,7 @@ public class RespArray implements RespObject {
     @Override
     public void write(OutputStream os) throws IOException {
         os.write(CODE);
-        os.write(String.valueOf(objects.size()).getBytes());
-        os.write(CRLF);
+        RespLengths.writeLength(os, objects.size());
         for (var object : objects){
             object.write(os);
         }
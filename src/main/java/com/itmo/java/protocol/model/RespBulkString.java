@@ -47,13 +47,11 @@ public class RespBulkString implements RespObject {
     public void write(OutputStream os) throws IOException {
         os.write(CODE);
         if(byteString != null) {
-            os.write(String.valueOf(byteString.length).getBytes());
-            os.write(CRLF);
+            RespLengths.writeLength(os, byteString.length);
             os.write(byteString);
             os.write(CRLF);
         } else {
-            os.write(String.valueOf(NULL_STRING_SIZE).getBytes());
-            os.write(CRLF);
+            RespLengths.writeLength(os, NULL_STRING_SIZE);
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.itmo.java.protocol.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Запись десятичных длин в RESP без создания строк. Представления небольших длин посчитаны заранее
+ */
+final class RespLengths {
+
+    private static final int CACHED_LENGTHS = 1024;
+    private static final byte[][] DIGITS = new byte[CACHED_LENGTHS][];
+
+    static {
+        for (int i = 0; i < CACHED_LENGTHS; i++) {
+            DIGITS[i] = String.valueOf(i).getBytes();
+        }
+    }
+
+    private RespLengths() {
+    }
+
+    /**
+     * Записывает длину в десятичном виде и CRLF
+     */
+    static void writeLength(OutputStream os, int length) throws IOException {
+        if (length >= 0 && length < CACHED_LENGTHS) {
+            os.write(DIGITS[length]);
+        } else {
+            writeDigits(os, length);
+        }
+        os.write(RespObject.CRLF);
+    }
+
+    private static void writeDigits(OutputStream os, int value) throws IOException {
+        long remaining = value;
+        if (remaining < 0) {
+            os.write('-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            os.write((int) ('0' + remaining / divisor % 10));
+        }
+    }
+}
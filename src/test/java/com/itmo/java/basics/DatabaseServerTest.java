@@ -0,0 +1,199 @@
+package com.itmo.java.basics;
+
+import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.config.ServerConfig;
+import com.itmo.java.basics.connector.ServerConnector;
+import com.itmo.java.basics.console.DatabaseCommand;
+import com.itmo.java.basics.console.DatabaseCommandResult;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.exceptions.DatabaseException;
+import com.itmo.java.basics.initialization.impl.DatabaseInitializer;
+import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer;
+import com.itmo.java.basics.initialization.impl.TableInitializer;
+import com.itmo.java.client.client.SimpleAsyncKvsClient;
+import com.itmo.java.client.connection.ConnectionConfig;
+import com.itmo.java.client.connection.SocketAsyncKvsConnection;
+import com.itmo.java.protocol.RespBufferParser;
+import com.itmo.java.protocol.RespReader;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DatabaseServerTest {
+
+    private static final int LANES = 8;
+    private static final int BUSY_TABLES = 32;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DatabaseServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = DatabaseServer.initialize(
+            new ExecutionEnvironmentImpl(new DatabaseConfig(folder.getRoot().toString())),
+            new DatabaseServerInitializer(new DatabaseInitializer(new TableInitializer(new SegmentInitializer()))),
+            LANES);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void pipelinedCreateDatabaseTableAndKeyOverSocketConnector() throws Exception {
+        assertPipelinedCreationInOrder(ServerConfig.Connector.SOCKET);
+    }
+
+    @Test
+    public void pipelinedCreateDatabaseTableAndKeyOverNioConnector() throws Exception {
+        assertPipelinedCreationInOrder(ServerConfig.Connector.NIO);
+    }
+
+    /**
+     * Команды отправляются одной пачкой, не дожидаясь ответов: таблица и ключ должны видеть только что созданную базу.
+     * Пачки записей в таблицы другой базы перед ними занимают полосы неравномерно, чтобы команды без барьера обгоняли друг друга
+     */
+    private void assertPipelinedCreationInOrder(ServerConfig.Connector connectorType) throws Exception {
+        int port = freePort();
+        try (ServerConnector connector = ServerConnector.open(server, new ServerConfig("localhost", port, connectorType,
+                ServerConfig.ClientThreadMode.VIRTUAL_THREAD_PER_CONNECTION,
+                RespReader.DEFAULT_MAX_BULK_LENGTH, RespBufferParser.DEFAULT_MAX_COMMAND_LENGTH))) {
+            connector.start();
+            SocketAsyncKvsConnection connection = new SocketAsyncKvsConnection(new ConnectionConfig("localhost", port));
+            try {
+                SimpleAsyncKvsClient busy = new SimpleAsyncKvsClient("busy", connection);
+                busy.createDatabase().get(10, TimeUnit.SECONDS);
+                for (int t = 0; t < BUSY_TABLES; t++) {
+                    busy.createTable("busy" + t).get(10, TimeUnit.SECONDS);
+                }
+                Map<String, String> batch = new HashMap<>();
+                for (int k = 0; k < 200; k++) {
+                    batch.put("key" + k, "value" + k);
+                }
+
+                List<CompletableFuture<String>> values = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    busy.multiSet("busy" + (i % BUSY_TABLES), batch);
+                    SimpleAsyncKvsClient client = new SimpleAsyncKvsClient("db" + i, connection);
+                    client.createDatabase();
+                    client.createTable("table" + i);
+                    client.set("table" + i, "key", "value" + i);
+                    values.add(client.get("table" + i, "key"));
+                }
+                for (int i = 0; i < values.size(); i++) {
+                    assertEquals("value" + i, values.get(i).get(10, TimeUnit.SECONDS));
+                }
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Первую полосу прерывают, пока создание базы ждет на барьере занятую полосу: команда должна завершиться ошибкой,
+     * а не оставить клиента ждать ответа
+     */
+    @Test
+    public void createDatabaseFailsWhenBarrierWaitIsInterrupted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String busyTable = tableOffFirstLane();
+        CompletableFuture<DatabaseCommandResult> busy = server.executeNextCommand(command(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException intext) {
+                Thread.currentThread().interrupt();
+            }
+            return DatabaseCommandResult.success(null);
+        }, "GET_KEY", "db", busyTable));
+        try {
+            started.await();
+            CompletableFuture<DatabaseCommandResult> created = server.executeNextCommand(
+                command(() -> DatabaseCommandResult.success(null), "CREATE_DATABASE", "db"));
+
+            Thread firstLane = awaitWaitingThread("kvs-lane-0");
+            firstLane.interrupt();
+
+            try {
+                created.get(10, TimeUnit.SECONDS);
+                fail("Interrupted barrier must fail the command");
+            } catch (ExecutionException exext) {
+                assertTrue(exext.getCause() instanceof DatabaseException);
+            }
+        } finally {
+            release.countDown();
+        }
+        busy.get(10, TimeUnit.SECONDS);
+    }
+
+    private static String tableOffFirstLane() {
+        for (int i = 0; ; i++) {
+            if (Math.floorMod(Objects.hash("db", "table" + i), LANES) != 0) {
+                return "table" + i;
+            }
+        }
+    }
+
+    private static DatabaseCommand command(Supplier<DatabaseCommandResult> execution, String... args) {
+        List<RespObject> commandArgs = new ArrayList<>();
+        commandArgs.add(new RespCommandId(0));
+        for (String arg : args) {
+            commandArgs.add(new RespBulkString(arg.getBytes()));
+        }
+        return new DatabaseCommand() {
+            @Override
+            public DatabaseCommandResult execute() {
+                return execution.get();
+            }
+
+            @Override
+            public List<RespObject> getCommandArgs() {
+                return commandArgs;
+            }
+        };
+    }
+
+    private static Thread awaitWaitingThread(String name) throws InterruptedException {
+        while (true) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().equals(name) && thread.getState() == Thread.State.WAITING) {
+                    return thread;
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
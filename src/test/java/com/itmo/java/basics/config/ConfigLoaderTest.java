@@ -0,0 +1,34 @@
+package com.itmo.java.basics.config;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConfigLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsInitParallelism() throws Exception {
+        File config = folder.newFile("server.properties");
+        Files.write(config.toPath(), "kvs.initParallelism=4\n".getBytes());
+
+        assertEquals(4, new ConfigLoader(config.getPath()).readConfig().getServerConfig().getInitParallelism());
+    }
+
+    @Test
+    public void initializesSequentiallyByDefault() throws Exception {
+        File config = folder.newFile("server.properties");
+        Files.write(config.toPath(), "kvs.port=8081\n".getBytes());
+
+        ServerConfig serverConfig = new ConfigLoader(config.getPath()).readConfig().getServerConfig();
+        assertEquals(8081, serverConfig.getPort());
+        assertEquals(ServerConfig.DEFAULT_INIT_PARALLELISM, serverConfig.getInitParallelism());
+    }
+}
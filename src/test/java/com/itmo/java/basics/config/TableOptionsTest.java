@@ -0,0 +1,51 @@
+package com.itmo.java.basics.config;
+
+import com.itmo.java.basics.logic.impl.DatabaseCacheImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TableOptionsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void evictionPolicyCanBeOverriddenAndIsStoredWithTable() throws Exception {
+        TableOptions options = new TableOptions()
+            .with(Map.of(TableOptions.EVICTION_POLICY_KEY, DatabaseCacheImpl.EvictionPolicy.TINY_LFU.name()));
+        assertEquals(DatabaseCacheImpl.EvictionPolicy.TINY_LFU, options.getEvictionPolicy());
+
+        Path tablePath = folder.getRoot().toPath();
+        options.write(tablePath);
+        TableOptions read = TableOptions.read(tablePath, new TableOptions());
+
+        assertEquals(DatabaseCacheImpl.EvictionPolicy.TINY_LFU, read.getEvictionPolicy());
+        assertEquals(options.getSegmentSize(), read.getSegmentSize());
+        assertEquals(options.getCacheBytes(), read.getCacheBytes());
+    }
+
+    @Test
+    public void tablesWrittenBeforeEvictionPolicyUseDefaults() throws Exception {
+        Path tablePath = folder.getRoot().toPath();
+        TableOptions defaults = new TableOptions(TableOptions.DEFAULT_SEGMENT_SIZE, DatabaseCacheImpl.DEFAULT_MAX_BYTES,
+            DatabaseCacheImpl.EvictionPolicy.TINY_LFU);
+
+        // файл без ключа политики: политика берется из настроек по умолчанию
+        Files.write(tablePath.resolve(TableOptions.FILE_NAME),
+            (TableOptions.SEGMENT_SIZE_KEY + "=1000\n").getBytes());
+
+        assertEquals(DatabaseCacheImpl.EvictionPolicy.TINY_LFU, TableOptions.read(tablePath, defaults).getEvictionPolicy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownEvictionPolicy() {
+        new TableOptions().with(Map.of(TableOptions.EVICTION_POLICY_KEY, "FIFO"));
+    }
+}
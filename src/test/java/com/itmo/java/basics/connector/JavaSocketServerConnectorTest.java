@@ -0,0 +1,155 @@
+package com.itmo.java.basics.connector;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.config.ServerConfig;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.initialization.impl.DatabaseInitializer;
+import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer;
+import com.itmo.java.basics.initialization.impl.TableInitializer;
+import com.itmo.java.client.command.CreateDatabaseKvsCommand;
+import com.itmo.java.client.command.CreateTableKvsCommand;
+import com.itmo.java.client.command.GetKvsCommand;
+import com.itmo.java.client.command.KvsCommand;
+import com.itmo.java.client.command.SetKvsCommand;
+import com.itmo.java.protocol.RespReader;
+import com.itmo.java.protocol.RespWriter;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JavaSocketServerConnectorTest {
+
+    private static final int CLIENTS = 20;
+    private static final int PIPELINED_KEYS = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DatabaseServer server;
+    private JavaSocketServerConnector connector;
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        server = DatabaseServer.initialize(
+            new ExecutionEnvironmentImpl(new DatabaseConfig(folder.getRoot().toString())),
+            new DatabaseServerInitializer(new DatabaseInitializer(new TableInitializer(new SegmentInitializer()))));
+        port = freePort();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (connector != null) {
+            connector.close();
+        }
+        server.close();
+    }
+
+    /**
+     * Все соединения остаются открытыми: в режиме одного потока второй клиент ждал бы, пока первый отключится
+     */
+    @Test
+    public void servesOpenConnectionsConcurrentlyInVirtualThreadMode() throws Exception {
+        start(ServerConfig.ClientThreadMode.VIRTUAL_THREAD_PER_CONNECTION);
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                sockets.add(connect());
+            }
+            assertFalse(execute(sockets.get(0), new CreateDatabaseKvsCommand("db")).isError());
+            assertFalse(execute(sockets.get(1), new CreateTableKvsCommand("db", "table")).isError());
+
+            for (int i = 0; i < CLIENTS; i++) {
+                assertFalse(execute(sockets.get(i), new SetKvsCommand("db", "table", "key-" + i, "value-" + i)).isError());
+            }
+            for (int i = CLIENTS - 1; i >= 0; i--) {
+                int key = (i + 1) % CLIENTS;
+                assertEquals("value-" + key, execute(sockets.get(i), new GetKvsCommand("db", "table", "key-" + key)).asString());
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * Команды отправляются одной пачкой, длиннее одной порции исполнения, и с ошибкой в середине:
+     * ответы должны прийти все и в порядке команд
+     */
+    @Test
+    public void answersPipelinedCommandsInOrder() throws Exception {
+        start(ServerConfig.ClientThreadMode.SINGLE_THREAD);
+        try (Socket socket = connect()) {
+            assertFalse(execute(socket, new CreateDatabaseKvsCommand("db")).isError());
+            assertFalse(execute(socket, new CreateTableKvsCommand("db", "table")).isError());
+
+            RespWriter writer = new RespWriter(socket.getOutputStream());
+            Thread sender = new Thread(() -> {
+                try {
+                    for (int i = 0; i < PIPELINED_KEYS; i++) {
+                        writer.append(new SetKvsCommand("db", "table", "key-" + i, "value-" + i).serialize());
+                        writer.append(new GetKvsCommand("db", i == PIPELINED_KEYS / 2 ? "missing" : "table", "key-" + i).serialize());
+                    }
+                    writer.flush();
+                } catch (IOException ioext) {
+                    ioext.printStackTrace();
+                }
+            });
+            sender.start();
+
+            RespReader reader = new RespReader(socket.getInputStream());
+            for (int i = 0; i < PIPELINED_KEYS; i++) {
+                assertFalse(reader.readObject().isError());
+                RespObject value = reader.readObject();
+                if (i == PIPELINED_KEYS / 2) {
+                    assertTrue(value.isError());
+                } else {
+                    assertEquals("value-" + i, value.asString());
+                }
+            }
+            sender.join();
+        }
+    }
+
+    private void start(ServerConfig.ClientThreadMode mode) throws IOException {
+        connector = new JavaSocketServerConnector(server, new ServerConfig("localhost", port, mode));
+        connector.start();
+    }
+
+    /**
+     * Ответ не придет, если соединение не обслуживается: тест падает по таймауту чтения, а не зависает
+     */
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", port);
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10));
+        return socket;
+    }
+
+    private static RespObject execute(Socket socket, KvsCommand command) throws IOException {
+        new RespWriter(socket.getOutputStream()).write(command.serialize());
+        return new RespReader(socket.getInputStream()).readObject();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
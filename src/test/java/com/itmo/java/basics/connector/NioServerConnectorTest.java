@@ -0,0 +1,162 @@
+package com.itmo.java.basics.connector;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.config.ServerConfig;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.initialization.impl.DatabaseInitializer;
+import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer;
+import com.itmo.java.basics.initialization.impl.TableInitializer;
+import com.itmo.java.basics.metrics.LatencyHistogram;
+import com.itmo.java.basics.metrics.MetricsRegistry;
+import com.itmo.java.client.client.SimpleAsyncKvsClient;
+import com.itmo.java.client.command.GetKvsCommand;
+import com.itmo.java.client.connection.ConnectionConfig;
+import com.itmo.java.client.connection.SocketAsyncKvsConnection;
+import com.itmo.java.protocol.RespReader;
+import com.itmo.java.protocol.RespWriter;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NioServerConnectorTest {
+
+    private static final int VALUE_SIZE = 64 * 1024;
+    private static final int COMMANDS = 5000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DatabaseServer server;
+    private NioServerConnector connector;
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        server = DatabaseServer.initialize(
+            new ExecutionEnvironmentImpl(new DatabaseConfig(folder.getRoot().toString())),
+            new DatabaseServerInitializer(new DatabaseInitializer(new TableInitializer(new SegmentInitializer()))));
+        port = freePort();
+        connector = new NioServerConnector(server, new ServerConfig("localhost", port, ServerConfig.ClientThreadMode.VIRTUAL_THREAD_PER_CONNECTION));
+        connector.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connector.close();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * После остановки сервера каждое соединение получает ошибку и закрывается, а поток ввода-вывода продолжает
+     * обслуживать остальные соединения
+     */
+    @Test
+    public void answersWithErrorAndClosesConnectionWhenServerIsClosed() throws Exception {
+        server.close();
+        server = null;
+
+        for (int i = 0; i < 2; i++) {
+            try (Socket socket = new Socket("localhost", port)) {
+                RespWriter writer = new RespWriter(socket.getOutputStream());
+                writer.write(new GetKvsCommand("db", "table", "key").serialize());
+                RespReader reader = new RespReader(socket.getInputStream());
+
+                assertTrue(reader.readObject().isError());
+                try {
+                    reader.readObject();
+                    fail("Connection must be closed after the error");
+                } catch (EOFException eofext) {
+                    // соединение закрыто сервером
+                }
+            }
+        }
+    }
+
+    /**
+     * Клиент отправляет команды и не читает ответы: сервер должен перестать исполнять команды,
+     * когда неотправленные ответы достигнут ограничения, и продолжить, когда клиент их заберет
+     */
+    @Test
+    public void stopsExecutingCommandsOfClientThatDoesNotReadReplies() throws Exception {
+        char[] chars = new char[VALUE_SIZE];
+        Arrays.fill(chars, 'v');
+        String value = new String(chars);
+        SocketAsyncKvsConnection connection = new SocketAsyncKvsConnection(new ConnectionConfig("localhost", port));
+        try {
+            SimpleAsyncKvsClient client = new SimpleAsyncKvsClient("db", connection);
+            client.createDatabase().get(10, TimeUnit.SECONDS);
+            client.createTable("table").get(10, TimeUnit.SECONDS);
+            client.set("table", "key", value).get(10, TimeUnit.SECONDS);
+        } finally {
+            connection.close();
+        }
+
+        LatencyHistogram gets = MetricsRegistry.getInstance().histogram("commands.GET_KEY.latency");
+        long executedBefore = gets.getCount();
+        try (Socket socket = new Socket("localhost", port)) {
+            RespWriter writer = new RespWriter(socket.getOutputStream());
+            Thread sender = new Thread(() -> {
+                try {
+                    for (int i = 0; i < COMMANDS; i++) {
+                        writer.append(new GetKvsCommand("db", "table", "key").serialize());
+                    }
+                    writer.flush();
+                } catch (IOException ioext) {
+                    ioext.printStackTrace();
+                }
+            });
+            sender.setDaemon(true);
+            sender.start();
+
+            long executed = awaitStable(gets);
+            assertTrue("Executed " + (executed - executedBefore) + " commands without reading replies",
+                executed - executedBefore < COMMANDS / 2);
+
+            RespReader reader = new RespReader(socket.getInputStream());
+            for (int i = 0; i < COMMANDS; i++) {
+                RespObject reply = reader.readObject();
+                assertEquals(VALUE_SIZE, reply.asString().length());
+            }
+            sender.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * @return количество исполненных команд, когда оно перестает расти
+     */
+    private static long awaitStable(LatencyHistogram histogram) throws InterruptedException {
+        long previous = -1;
+        long current = histogram.getCount();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (current != previous && System.nanoTime() < deadline) {
+            Thread.sleep(2000);
+            previous = current;
+            current = histogram.getCount();
+        }
+        return current;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.itmo.java.basics.durability;
+
+import com.itmo.java.basics.logic.Segment;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GroupCommitServiceTest {
+
+    @Test
+    public void waitersFailUntilFailedSegmentIsSynced() throws Exception {
+        AtomicBoolean syncFails = new AtomicBoolean(true);
+        Segment segment = segment(syncFails);
+        GroupCommitService service = new GroupCommitService(new DurabilityPolicy(DurabilityPolicy.Mode.EVERY_BATCH));
+
+        service.markDirty(segment);
+        assertFails(service.awaitCommit());
+        // новых записей нет, но прежние так и не сброшены
+        assertFails(service.awaitCommit());
+
+        syncFails.set(false);
+        assertNull(service.awaitCommit().get(5, TimeUnit.SECONDS));
+    }
+
+    private static void assertFails(CompletableFuture<Void> commit) throws Exception {
+        try {
+            commit.get(5, TimeUnit.SECONDS);
+            fail("Commit must fail while the segment can't be synced");
+        } catch (ExecutionException exext) {
+            assertTrue(exext.getCause() instanceof IOException);
+        }
+    }
+
+    private static Segment segment(AtomicBoolean syncFails) {
+        return (Segment) Proxy.newProxyInstance(Segment.class.getClassLoader(), new Class<?>[]{Segment.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "sync":
+                        if (syncFails.get()) {
+                            throw new IOException("Disk is full");
+                        }
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
@@ -0,0 +1,40 @@
+package com.itmo.java.basics.index.impl;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyDirectoryTest {
+
+    @Test
+    public void deleteSetCyclesDoNotGrowKeyBuffer() {
+        KeyDirectory directory = new KeyDirectory();
+        for (int i = 0; i < 1000; i++) {
+            directory.onIndexedEntityUpdated(key(i), new KeyLocation(0, i, 10, key(i).length()));
+        }
+        long initial = directory.keyBufferBytes();
+
+        for (int cycle = 0; cycle < 1000; cycle++) {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(directory.remove(key(i)));
+                directory.onIndexedEntityUpdated(key(i), new KeyLocation(0, cycle, 10, key(i).length()));
+            }
+        }
+
+        assertEquals(1000, directory.size());
+        assertTrue("Key buffer grew from " + initial + " to " + directory.keyBufferBytes() + " bytes",
+            directory.keyBufferBytes() <= 4 * initial + 256 * 1024);
+        for (int i = 0; i < 1000; i++) {
+            Optional<KeyLocation> location = directory.searchForKey(key(i));
+            assertTrue(location.isPresent());
+            assertEquals(999, location.get().getOffset());
+        }
+    }
+
+    private static String key(int i) {
+        return "key-" + i + "-0123456789abcdef";
+    }
+}
@@ -0,0 +1,164 @@
+package com.itmo.java.basics.initialization.impl;
+
+import com.itmo.java.basics.compaction.CompactionService;
+import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.config.TableOptions;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.logic.Database;
+import com.itmo.java.basics.logic.impl.DatabaseImpl;
+import com.itmo.java.basics.logic.impl.SegmentImpl;
+import com.itmo.java.basics.logic.io.HintFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DatabaseServerInitializerTest {
+
+    private static final int DATABASES = 3;
+    private static final int TABLES = 3;
+    private static final int KEYS = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Базы, таблицы и сегменты загружаются на пуле, а последние значения ключей определяются порядком сегментов,
+     * поэтому перезаписанные и удаленные в более новых сегментах ключи должны читаться так же, как до перезапуска
+     */
+    @Test
+    public void restoresDatabasesOnPool() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Map<String, byte[]> expected = populate(root);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ExecutionEnvironmentImpl env = new ExecutionEnvironmentImpl(new DatabaseConfig(root.toString()));
+        try {
+            new DatabaseServerInitializer(
+                new DatabaseInitializer(new TableInitializer(new SegmentInitializer(), pool), pool), pool)
+                .perform(InitializationContextImpl.builder().executionEnvironment(env).build());
+
+            for (int db = 0; db < DATABASES; db++) {
+                Database database = env.getDatabase("db-" + db).orElseThrow();
+                for (int table = 0; table < TABLES; table++) {
+                    for (int key = 0; key < KEYS; key++) {
+                        String path = "db-" + db + "/table-" + table + "/key-" + key;
+                        assertArrayEquals(path, expected.get(path),
+                            database.read("table-" + table, "key-" + key).orElse(null));
+                    }
+                }
+            }
+        } finally {
+            env.close();
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Сегменты, названные временем создания, загружаются в порядке этого времени, а новые сегменты получают
+     * номера больше него, поэтому после следующего перезапуска они загружаются позже старых
+     */
+    @Test
+    public void continuesSequenceOfLegacySegments() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Database database = DatabaseImpl.create("db", root);
+        database.createTableIfNotExists("table", new TableOptions(100, TableOptions.DEFAULT_SEGMENT_SIZE));
+        // уникальные ключи между двумя значениями "key" не дают уплотнению склеить сегменты
+        database.write("table", "key", "first".getBytes());
+        for (int i = 0; i < 10; i++) {
+            database.write("table", "filler-" + i, new byte[20]);
+        }
+        database.write("table", "key", "old".getBytes());
+        database.close();
+        CompactionService.getInstance().execute(() -> { }).get();
+        CompactionService.getInstance().execute(() -> { }).get();
+
+        Path tablePath = root.resolve("db").resolve("table");
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(tablePath)) {
+            segments = files
+                .filter(file -> SegmentImpl.getSequence(file.getFileName().toString()) >= 0)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        assertTrue(segments.size() > 2);
+        long legacyTimestamp = 1_600_000_000_000L;
+        for (int i = 0; i < segments.size(); i++) {
+            Files.deleteIfExists(HintFile.pathFor(segments.get(i)));
+            Files.move(segments.get(i), tablePath.resolve("table_" + (legacyTimestamp + i)));
+        }
+
+        ExecutionEnvironmentImpl env = initialize(root);
+        Database restored = env.getDatabase("db").orElseThrow();
+        assertArrayEquals("old".getBytes(), restored.read("table", "key").orElseThrow());
+        for (int i = 0; i < 10; i++) {
+            restored.write("table", "filler-" + i, new byte[20]);
+        }
+        restored.write("table", "key", "new".getBytes());
+        env.close();
+        CompactionService.getInstance().execute(() -> { }).get();
+        CompactionService.getInstance().execute(() -> { }).get();
+
+        env = initialize(root);
+        try {
+            assertArrayEquals("new".getBytes(), env.getDatabase("db").orElseThrow().read("table", "key").orElseThrow());
+        } finally {
+            env.close();
+        }
+    }
+
+    private static ExecutionEnvironmentImpl initialize(Path root) throws Exception {
+        ExecutionEnvironmentImpl env = new ExecutionEnvironmentImpl(new DatabaseConfig(root.toString()));
+        new DatabaseServerInitializer(new DatabaseInitializer(new TableInitializer(new SegmentInitializer())))
+            .perform(InitializationContextImpl.builder().executionEnvironment(env).build());
+        return env;
+    }
+
+    /**
+     * Пишет ключи в несколько сегментов каждой таблицы, перезаписывая и удаляя часть из них в более новых сегментах
+     *
+     * @return ожидаемые значения по пути "база/таблица/ключ", null - для удаленных ключей
+     */
+    private static Map<String, byte[]> populate(Path root) throws Exception {
+        Random random = new Random(42);
+        Map<String, byte[]> expected = new HashMap<>();
+        for (int db = 0; db < DATABASES; db++) {
+            Database database = DatabaseImpl.create("db-" + db, root);
+            for (int table = 0; table < TABLES; table++) {
+                String tableName = "table-" + table;
+                database.createTableIfNotExists(tableName,
+                    new TableOptions(1000, TableOptions.DEFAULT_SEGMENT_SIZE));
+                for (int key = 0; key < KEYS * 2; key++) {
+                    String path = "db-" + db + "/" + tableName + "/key-" + (key % KEYS);
+                    if (key >= KEYS && key % 3 == 0) {
+                        database.delete(tableName, "key-" + (key % KEYS));
+                        expected.put(path, null);
+                    } else {
+                        byte[] value = new byte[1 + random.nextInt(50)];
+                        random.nextBytes(value);
+                        database.write(tableName, "key-" + (key % KEYS), value);
+                        expected.put(path, value);
+                    }
+                }
+            }
+            database.close();
+        }
+        // подсказки заполненных сегментов пишутся в фоне
+        CompactionService.getInstance().execute(() -> { }).get();
+        CompactionService.getInstance().execute(() -> { }).get();
+        assertTrue(expected.containsValue(null));
+        return expected;
+    }
+}
@@ -0,0 +1,111 @@
+package com.itmo.java.basics.logic.impl;
+
+import com.itmo.java.basics.logic.Table;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CachingTableTest {
+
+    /**
+     * Отсутствие ключа запоминается после первого промаха, и повторные чтения не доходят до таблицы
+     */
+    @Test
+    public void remembersMissingKeys() throws Exception {
+        InMemoryTable table = new InMemoryTable();
+        CachingTable cachingTable = new CachingTable(table);
+
+        assertFalse(cachingTable.read("missing").isPresent());
+        int readsAfterMiss = table.reads;
+        for (int i = 0; i < 10; i++) {
+            assertFalse(cachingTable.read("missing").isPresent());
+        }
+        assertEquals(readsAfterMiss, table.reads);
+    }
+
+    /**
+     * Запомненное отсутствие не скрывает значение, записанное после промаха
+     */
+    @Test
+    public void writeReplacesRememberedAbsence() throws Exception {
+        InMemoryTable table = new InMemoryTable();
+        CachingTable cachingTable = new CachingTable(table);
+        assertFalse(cachingTable.read("key").isPresent());
+
+        cachingTable.write("key", new byte[]{1});
+        assertArrayEquals(new byte[]{1}, cachingTable.read("key").orElseThrow());
+
+        cachingTable.writeAll(Map.of("key", new byte[]{2}));
+        assertArrayEquals(new byte[]{2}, cachingTable.read("key").orElseThrow());
+    }
+
+    /**
+     * Удаленный ключ сразу запоминается как отсутствующий, и его чтения не доходят до таблицы
+     */
+    @Test
+    public void remembersDeletedKeys() throws Exception {
+        InMemoryTable table = new InMemoryTable();
+        CachingTable cachingTable = new CachingTable(table);
+        cachingTable.write("key", new byte[]{1});
+
+        cachingTable.delete("key");
+        int readsAfterDelete = table.reads;
+        assertFalse(cachingTable.read("key").isPresent());
+        assertEquals(readsAfterDelete, table.reads);
+    }
+
+    /**
+     * Значение, закэшированное пустым массивом, не путается с отсутствием ключа
+     */
+    @Test
+    public void distinguishesEmptyValueFromAbsence() throws Exception {
+        CachingTable cachingTable = new CachingTable(new InMemoryTable());
+        cachingTable.write("key", new byte[0]);
+        assertArrayEquals(new byte[0], cachingTable.read("key").orElseThrow());
+    }
+
+    /**
+     * Таблица в памяти, считающая чтения
+     */
+    private static class InMemoryTable implements Table {
+
+        private final Map<String, byte[]> values = new HashMap<>();
+        private int reads;
+
+        @Override
+        public String getName() {
+            return "table";
+        }
+
+        @Override
+        public void write(String objectKey, byte[] objectValue) {
+            values.put(objectKey, objectValue);
+        }
+
+        @Override
+        public void writeAll(Map<String, byte[]> values) {
+            this.values.putAll(values);
+        }
+
+        @Override
+        public Optional<byte[]> read(String objectKey) {
+            reads++;
+            return Optional.ofNullable(values.get(objectKey));
+        }
+
+        @Override
+        public void delete(String objectKey) {
+            values.remove(objectKey);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.itmo.java.basics.logic.impl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatabaseCacheImplTest {
+
+    /**
+     * Учтенный размер записи с двухсимвольным ключом и значением в 32 байта
+     */
+    private static final int ENTRY_WEIGHT = 100;
+    private static final int HOT_KEYS = 20;
+    private static final int SCANNED_KEYS = 2000;
+
+    @Test
+    public void evictsLeastRecentlyUsedEntriesOverBudget() {
+        DatabaseCacheImpl cache = new DatabaseCacheImpl(5 * ENTRY_WEIGHT, 1, DatabaseCacheImpl.EvictionPolicy.LRU);
+        for (int i = 0; i < 5; i++) {
+            cache.set("k" + i, new byte[32]);
+        }
+        assertEquals(5 * ENTRY_WEIGHT, cache.getWeightedSize());
+
+        assertNotNull(cache.get("k0"));
+        cache.set("k5", new byte[32]);
+
+        assertNotNull(cache.get("k0"));
+        assertNull(cache.get("k1"));
+        assertNotNull(cache.get("k5"));
+        assertEquals(5 * ENTRY_WEIGHT, cache.getWeightedSize());
+    }
+
+    /**
+     * Перезапись и удаление освобождают место старого значения, а значение больше бюджета не кэшируется
+     */
+    @Test
+    public void accountsForOverwritesDeletesAndOversizedValues() {
+        DatabaseCacheImpl cache = new DatabaseCacheImpl(5 * ENTRY_WEIGHT, 1, DatabaseCacheImpl.EvictionPolicy.LRU);
+        cache.set("k0", new byte[32]);
+        cache.set("k0", new byte[16]);
+        assertEquals(ENTRY_WEIGHT - 16, cache.getWeightedSize());
+
+        cache.set("k0", new byte[5 * ENTRY_WEIGHT]);
+        assertNull(cache.get("k0"));
+        assertEquals(0, cache.getWeightedSize());
+
+        cache.set("k1", new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get("k1"));
+        cache.delete("k1");
+        assertNull(cache.get("k1"));
+        assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void staysWithinBudgetAcrossShards() {
+        long budget = 50 * ENTRY_WEIGHT;
+        DatabaseCacheImpl cache = new DatabaseCacheImpl(budget, 4, DatabaseCacheImpl.EvictionPolicy.LRU);
+        for (int i = 0; i < 1000; i++) {
+            cache.set("key-" + i, new byte[32]);
+            assertTrue(cache.getWeightedSize() <= budget);
+        }
+    }
+
+    /**
+     * Однократные обращения к большому количеству ключей не вытесняют часто читаемые ключи из TinyLFU,
+     * а из LRU вытесняют
+     */
+    @Test
+    public void tinyLfuKeepsFrequentKeysDuringScan() {
+        assertEquals(HOT_KEYS, hotKeysAfterScan(DatabaseCacheImpl.EvictionPolicy.TINY_LFU));
+        assertEquals(0, hotKeysAfterScan(DatabaseCacheImpl.EvictionPolicy.LRU));
+    }
+
+    private static int hotKeysAfterScan(DatabaseCacheImpl.EvictionPolicy policy) {
+        DatabaseCacheImpl cache = new DatabaseCacheImpl(1000L * ENTRY_WEIGHT, 1, policy);
+        for (int i = 0; i < HOT_KEYS; i++) {
+            cache.set("h" + (char) ('a' + i), new byte[32]);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < HOT_KEYS; i++) {
+                cache.get("h" + (char) ('a' + i));
+            }
+        }
+
+        for (int i = 0; i < SCANNED_KEYS; i++) {
+            cache.set("scan-" + i, new byte[32]);
+            assertTrue(cache.getWeightedSize() <= 1000L * ENTRY_WEIGHT);
+        }
+
+        int hot = 0;
+        for (int i = 0; i < HOT_KEYS; i++) {
+            if (cache.get("h" + (char) ('a' + i)) != null) {
+                hot++;
+            }
+        }
+        return hot;
+    }
+}
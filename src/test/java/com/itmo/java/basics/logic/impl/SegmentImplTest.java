@@ -0,0 +1,160 @@
+package com.itmo.java.basics.logic.impl;
+
+import com.itmo.java.basics.compaction.CompactionService;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentImplTest {
+
+    private static final Path FDS = Paths.get("/proc/self/fd");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Текущий сегмент сбрасывается через канал записи, заполненный - через один канал на все сбросы
+     */
+    @Test
+    public void syncReusesOpenChannels() throws Exception {
+        Assume.assumeTrue(Files.isDirectory(FDS));
+        SegmentImpl segment = (SegmentImpl) SegmentImpl.create("segment", folder.getRoot().toPath(), 100);
+        Path path = folder.getRoot().toPath().resolve("segment");
+
+        segment.write("key", new byte[10]);
+        assertFalse(segment.isReadOnly());
+        for (int i = 0; i < 3; i++) {
+            segment.sync();
+            assertEquals(1, openDescriptors(path));
+        }
+
+        segment.write("other", new byte[100]);
+        assertTrue(segment.isReadOnly());
+        assertEquals(0, openDescriptors(path));
+        for (int i = 0; i < 3; i++) {
+            segment.sync();
+            assertEquals(1, openDescriptors(path));
+        }
+
+        segment.close();
+        assertEquals(0, openDescriptors(path));
+        // подсказка заполненного сегмента пишется в фоне, дожидаемся ее до удаления временной директории
+        CompactionService.getInstance().execute(() -> { }).get();
+    }
+
+    /**
+     * Заполненный сегмент читается из отображения в память, которое создается при первом чтении и сбрасывается при закрытии
+     */
+    @Test
+    public void readsFilledSegmentFromMapping() throws Exception {
+        SegmentImpl segment = (SegmentImpl) SegmentImpl.create("segment", folder.getRoot().toPath(), 100);
+        Map<String, byte[]> expected = new HashMap<>();
+        segment.write("removed", new byte[5]);
+        segment.delete("removed");
+        for (int i = 0; !segment.isReadOnly(); i++) {
+            byte[] value = ("value-" + i).getBytes();
+            segment.write("key-" + i, value);
+            expected.put("key-" + i, value);
+        }
+        assertNull(mappedSegment(segment));
+
+        for (var entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), segment.read(entry.getKey()).orElse(null));
+        }
+        assertNotNull(mappedSegment(segment));
+        assertFalse(segment.read("removed").isPresent());
+
+        segment.close();
+        assertNull(mappedSegment(segment));
+        CompactionService.getInstance().execute(() -> { }).get();
+    }
+
+    /**
+     * Текущий сегмент читается позиционными чтениями ровно байт значения: пустых, больших буфера записи,
+     * записанных пачкой и перезаписанных
+     */
+    @Test
+    public void readsValuesOfActiveSegment() throws Exception {
+        SegmentImpl segment = (SegmentImpl) SegmentImpl.create("segment", folder.getRoot().toPath(), 1024 * 1024);
+        byte[] large = new byte[20 * 1024];
+        new Random(42).nextBytes(large);
+
+        segment.write("empty", new byte[0]);
+        segment.write("large", large);
+        segment.write("overwritten", "old".getBytes());
+        segment.writeAll(List.of(Map.entry("batch", "batch-value".getBytes()), Map.entry("overwritten", "new".getBytes())));
+
+        assertArrayEquals(new byte[0], segment.read("empty").orElseThrow());
+        assertArrayEquals(large, segment.read("large").orElseThrow());
+        assertArrayEquals("batch-value".getBytes(), segment.read("batch").orElseThrow());
+        assertArrayEquals("new".getBytes(), segment.read("overwritten").orElseThrow());
+        assertFalse(segment.read("missing").isPresent());
+        assertFalse(segment.isReadOnly());
+        assertNull(mappedSegment(segment));
+        segment.close();
+    }
+
+    /**
+     * Имена сегментов сортируются так же, как их номера, а имена из времени создания получают номер, равный этому времени
+     */
+    @Test
+    public void segmentNamesSortBySequence() {
+        long[] sequences = {0, 9, 10, 999, 1_600_000_000_000L, Long.MAX_VALUE};
+        List<String> names = new ArrayList<>();
+        for (long sequence : sequences) {
+            String name = SegmentImpl.createSegmentName("my_table", sequence);
+            assertEquals(sequence, SegmentImpl.getSequence(name));
+            names.add(name);
+        }
+        List<String> sorted = new ArrayList<>(names);
+        Collections.sort(sorted);
+        assertEquals(names, sorted);
+
+        assertEquals(1_600_000_000_000L, SegmentImpl.getSequence("my_table_1600000000000"));
+        assertEquals(-1, SegmentImpl.getSequence("table"));
+        assertEquals(-1, SegmentImpl.getSequence("table_"));
+        assertEquals(-1, SegmentImpl.getSequence("table_12ab"));
+        assertEquals(-1, SegmentImpl.getSequence("table_99999999999999999999"));
+    }
+
+    private static Object mappedSegment(SegmentImpl segment) throws ReflectiveOperationException {
+        Field field = SegmentImpl.class.getDeclaredField("mappedSegment");
+        field.setAccessible(true);
+        return field.get(segment);
+    }
+
+    private static long openDescriptors(Path path) throws IOException {
+        try (Stream<Path> links = Files.list(FDS)) {
+            return links
+                .filter(link -> {
+                    try {
+                        return Files.readSymbolicLink(link).equals(path);
+                    } catch (IOException ioext) {
+                        return false;
+                    }
+                })
+                .count();
+        }
+    }
+}
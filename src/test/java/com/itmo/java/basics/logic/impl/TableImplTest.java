@@ -0,0 +1,220 @@
+package com.itmo.java.basics.logic.impl;
+
+import com.itmo.java.basics.compaction.CompactionService;
+import com.itmo.java.basics.config.TableOptions;
+import com.itmo.java.basics.index.impl.TableIndex;
+import com.itmo.java.basics.logic.Table;
+import com.itmo.java.basics.logic.io.HintFile;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TableImplTest {
+
+    private static final long SEGMENT_SIZE = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Перед полностью живыми сегментами лежит заполненный не до конца сегмент прошлого уплотнения,
+     * поэтому живые записи сдвигаются к началу и должны уместиться в сегменты на местах исходных
+     */
+    @Test
+    public void compactsSegmentsWhereEveryRecordIsLive() throws Exception {
+        Table table = TableImpl.create("table", folder.getRoot().toPath(), new TableIndex(),
+            new TableOptions(SEGMENT_SIZE, TableOptions.DEFAULT_SEGMENT_SIZE));
+        TableImpl tableImpl = unwrap(table);
+        Random random = new Random(42);
+        Map<String, byte[]> expected = new HashMap<>();
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                String key = "key-" + round + "-" + i;
+                byte[] value = new byte[1 + random.nextInt(200)];
+                random.nextBytes(value);
+                table.write(key, value);
+                expected.put(key, value);
+            }
+            tableImpl.compact();
+        }
+
+        for (var entry : expected.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(), tableImpl.read(entry.getKey()).orElse(null));
+        }
+    }
+
+    /**
+     * Подсказки заполненных сегментов пишутся в потоке уплотнения, а не при записи в таблицу
+     */
+    @Test
+    public void writesHintsOfFilledSegmentsInBackground() throws Exception {
+        Table table = TableImpl.create("table", folder.getRoot().toPath(), new TableIndex(),
+            new TableOptions(SEGMENT_SIZE, TableOptions.DEFAULT_SEGMENT_SIZE));
+        for (int i = 0; i < 100; i++) {
+            table.write("key-" + i, new byte[100]);
+        }
+        // второй проход дожидается и подсказок, поставленных уплотнением, начатым до первого
+        CompactionService.getInstance().execute(() -> { }).get();
+        CompactionService.getInstance().execute(() -> { }).get();
+
+        File tableDirectory = new File(folder.getRoot(), "table");
+        List<File> segments = Arrays.stream(tableDirectory.listFiles((dir, name) ->
+                !HintFile.isHintFile(name) && !name.endsWith(TableImpl.COMPACTION_SUFFIX) && !name.equals(TableOptions.FILE_NAME)))
+            .sorted()
+            .collect(Collectors.toList());
+        assertTrue(segments.size() > 1);
+        for (File segment : segments.subList(0, segments.size() - 1)) {
+            assertTrue(segment.getName(), HintFile.read(segment.toPath()).isPresent());
+        }
+    }
+
+    /**
+     * Чтения идут параллельно с уплотнениями и видят актуальные значения. Замененные сегменты закрываются
+     * после завершения чтений, поэтому процесс не держит открытыми удаленные файлы сегментов
+     */
+    @Test
+    public void closesSegmentsReplacedByCompaction() throws Exception {
+        Path fds = Paths.get("/proc/self/fd");
+        Assume.assumeTrue(Files.isDirectory(fds));
+        Table table = TableImpl.create("table", folder.getRoot().toPath(), new TableIndex(),
+            new TableOptions(SEGMENT_SIZE, TableOptions.DEFAULT_SEGMENT_SIZE));
+        TableImpl tableImpl = unwrap(table);
+        int keys = 50;
+        for (int i = 0; i < keys; i++) {
+            table.write("key-" + i, ("value-" + i + "-0").getBytes());
+        }
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            Random random = new Random(1);
+            try {
+                while (!stopped.get()) {
+                    int i = random.nextInt(keys);
+                    String value = new String(tableImpl.read("key-" + i).orElseThrow());
+                    assertTrue(value, value.startsWith("value-" + i + "-"));
+                }
+            } catch (Throwable ext) {
+                failure.set(ext);
+            }
+        });
+        reader.start();
+        try {
+            for (int round = 1; round <= 20; round++) {
+                for (int i = 0; i < keys; i++) {
+                    table.write("key-" + i, ("value-" + i + "-" + round).getBytes());
+                }
+                tableImpl.compact();
+            }
+        } finally {
+            stopped.set(true);
+            reader.join();
+        }
+        assertNull(failure.get());
+        CompactionService.getInstance().execute(() -> { }).get();
+        CompactionService.getInstance().execute(() -> { }).get();
+
+        String tableDirectory = new File(folder.getRoot(), "table").getPath();
+        try (Stream<Path> links = Files.list(fds)) {
+            List<String> deleted = links
+                .map(link -> {
+                    try {
+                        return Files.readSymbolicLink(link).toString();
+                    } catch (IOException ioext) {
+                        return "";
+                    }
+                })
+                .filter(target -> target.startsWith(tableDirectory) && target.endsWith("(deleted)"))
+                .collect(Collectors.toList());
+            assertEquals(Collections.emptyList(), deleted);
+        }
+    }
+
+    /**
+     * Потоки пишут и удаляют свои ключи одновременно, сегменты при этом постоянно заполняются и сменяются.
+     * Каждый ключ должен читаться с последним записанным в него значением
+     */
+    @Test
+    public void concurrentWritersKeepLatestValues() throws Exception {
+        Table table = TableImpl.create("table", folder.getRoot().toPath(), new TableIndex(),
+            new TableOptions(SEGMENT_SIZE, TableOptions.DEFAULT_SEGMENT_SIZE));
+        int writers = 8;
+        int keys = 50;
+        int rounds = 10;
+        List<Map<String, byte[]>> expected = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int writer = 0; writer < writers; writer++) {
+            Map<String, byte[]> written = new HashMap<>();
+            expected.add(written);
+            int id = writer;
+            threads.add(new Thread(() -> {
+                Random random = new Random(id);
+                try {
+                    for (int round = 0; round < rounds; round++) {
+                        for (int i = 0; i < keys; i++) {
+                            String key = "writer-" + id + "-key-" + i;
+                            if (random.nextInt(5) == 0) {
+                                table.delete(key);
+                                written.put(key, null);
+                            } else {
+                                byte[] value = (key + "-" + round).getBytes();
+                                table.write(key, value);
+                                written.put(key, value);
+                            }
+                        }
+                    }
+                } catch (Throwable ext) {
+                    failure.set(ext);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+
+        // и через кэш, и мимо него, по сегментам
+        TableImpl tableImpl = unwrap(table);
+        for (Map<String, byte[]> written : expected) {
+            for (var entry : written.entrySet()) {
+                assertArrayEquals(entry.getKey(), entry.getValue(), table.read(entry.getKey()).orElse(null));
+                assertArrayEquals(entry.getKey(), entry.getValue(), tableImpl.read(entry.getKey()).orElse(null));
+            }
+        }
+        CompactionService.getInstance().execute(() -> { }).get();
+        CompactionService.getInstance().execute(() -> { }).get();
+    }
+
+    private static TableImpl unwrap(Table table) throws ReflectiveOperationException {
+        Field delegate = CachingTable.class.getDeclaredField("table");
+        delegate.setAccessible(true);
+        return (TableImpl) delegate.get(table);
+    }
+}
@@ -0,0 +1,67 @@
+package com.itmo.java.basics.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    /**
+     * Верхняя граница корзины не меньше значения и отличается от него не больше чем на 1/32
+     */
+    @Test
+    public void bucketsBoundRelativeError() {
+        Random random = new Random(42);
+        int previousBucket = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket >= previousBucket);
+            previousBucket = bucket;
+            assertBounded(value);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertBounded(random.nextLong() & LatencyHistogram.MAX_VALUE);
+        }
+    }
+
+    @Test
+    public void reportsPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getMean());
+        assertEquals(1_000_000, histogram.getMax());
+        assertApproximately(500_000, histogram.getPercentile(50));
+        assertApproximately(990_000, histogram.getPercentile(99));
+        assertEquals(1_000_000, histogram.getPercentile(100));
+        assertApproximately(1000, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void clampsValuesOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMean());
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getMax());
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    private static void assertBounded(long value) {
+        long highest = LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(value));
+        assertTrue(value + " -> " + highest, highest >= value && highest - value <= value / 32);
+    }
+
+    private static void assertApproximately(long expected, long actual) {
+        assertTrue(expected + " ~ " + actual, actual >= expected && actual - expected <= expected / 32);
+    }
+}
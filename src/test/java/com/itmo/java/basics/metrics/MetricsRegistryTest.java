@@ -0,0 +1,33 @@
+package com.itmo.java.basics.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MetricsRegistryTest {
+
+    /**
+     * В отчет раздела попадают только его метрики, по одной строке на счетчик и по несколько - на гистограмму
+     */
+    @Test
+    public void reportsMetricsOfSectionSortedByName() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.counter("registrytest.b").add(2);
+        registry.counter("registrytest.a").increment();
+        registry.counter("registrytestother.c").increment();
+        registry.histogram("registrytest.latency").record(3000);
+        assertSame(registry.counter("registrytest.a"), registry.counter("registrytest.a"));
+
+        assertEquals("registrytest.a:1\r\n"
+                + "registrytest.b:2\r\n"
+                + "registrytest.latency.count:1\r\n"
+                + "registrytest.latency.mean_us:3\r\n"
+                + "registrytest.latency.p50_us:3\r\n"
+                + "registrytest.latency.p99_us:3\r\n"
+                + "registrytest.latency.p999_us:3\r\n"
+                + "registrytest.latency.max_us:3\r\n",
+            registry.report("RegistryTest"));
+        assertEquals("", registry.report("registrytestmissing"));
+    }
+}
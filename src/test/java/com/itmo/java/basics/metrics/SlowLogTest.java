@@ -0,0 +1,99 @@
+package com.itmo.java.basics.metrics;
+
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SlowLogTest {
+
+    @Test
+    public void keepsNewestEntriesWithinCapacity() {
+        SlowLog slowLog = new SlowLog(new SlowLogPolicy(0, 3));
+        recordCommands(slowLog, 5);
+
+        assertEquals(Arrays.asList(4L, 3L, 2L), ids(slowLog));
+        assertEquals(3, slowLog.size());
+    }
+
+    /**
+     * После уменьшения журнала остаются самые новые записи, и следующие записи вытесняют самые старые из них
+     */
+    @Test
+    public void shrinkKeepsNewestEntries() {
+        SlowLog slowLog = new SlowLog(new SlowLogPolicy(0, 5));
+        recordCommands(slowLog, 7);
+
+        slowLog.setPolicy(new SlowLogPolicy(0, 2));
+        assertEquals(Arrays.asList(6L, 5L), ids(slowLog));
+
+        recordCommands(slowLog, 1);
+        assertEquals(Arrays.asList(7L, 6L), ids(slowLog));
+    }
+
+    @Test
+    public void growKeepsAllEntries() {
+        SlowLog slowLog = new SlowLog(new SlowLogPolicy(0, 3));
+        recordCommands(slowLog, 4);
+
+        slowLog.setPolicy(new SlowLogPolicy(0, 5));
+        recordCommands(slowLog, 2);
+        assertEquals(Arrays.asList(5L, 4L, 3L, 2L, 1L), ids(slowLog));
+    }
+
+    @Test
+    public void comparesWithThreshold() {
+        SlowLog slowLog = new SlowLog(new SlowLogPolicy(10, 1));
+        assertFalse(slowLog.isSlow(9_999));
+        assertTrue(slowLog.isSlow(10_000));
+    }
+
+    /**
+     * Длинный ключ сохраняется началом, а аргументы, которых у команды нет, - пустыми
+     */
+    @Test
+    public void recordsCommandArguments() {
+        SlowLog slowLog = new SlowLog(new SlowLogPolicy(0, 2));
+        String key = "k".repeat(SlowLog.KEY_PREFIX_LENGTH + 1);
+        slowLog.record(command("SET_KEY", "db", "table", key), 1, 2, 3);
+        slowLog.record(command("CREATE_DATABASE", "db"), 1, 2, 3);
+
+        SlowLogEntry createDatabase = slowLog.getEntries().get(0);
+        assertEquals("CREATE_DATABASE", createDatabase.getCommandName());
+        assertNull(createDatabase.getTableName());
+        assertNull(createDatabase.getKeyPrefix());
+
+        SlowLogEntry setKey = slowLog.getEntries().get(1);
+        assertEquals("k".repeat(SlowLog.KEY_PREFIX_LENGTH) + "...", setKey.getKeyPrefix());
+        assertEquals(6, setKey.getTotalNanos());
+    }
+
+    private static void recordCommands(SlowLog slowLog, int count) {
+        for (int i = 0; i < count; i++) {
+            slowLog.record(command("GET_KEY", "db", "table", "key-" + i), 0, 1, 0);
+        }
+    }
+
+    private static List<RespObject> command(String... args) {
+        List<RespObject> command = new ArrayList<>();
+        command.add(new RespCommandId(1));
+        for (String arg : args) {
+            command.add(new RespBulkString(arg.getBytes()));
+        }
+        return command;
+    }
+
+    private static List<Long> ids(SlowLog slowLog) {
+        return slowLog.getEntries().stream().map(SlowLogEntry::getId).collect(Collectors.toList());
+    }
+}
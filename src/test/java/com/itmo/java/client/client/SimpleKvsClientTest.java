@@ -0,0 +1,116 @@
+package com.itmo.java.client.client;
+
+import com.itmo.java.basics.DatabaseServer;
+import com.itmo.java.basics.config.DatabaseConfig;
+import com.itmo.java.basics.config.ServerConfig;
+import com.itmo.java.basics.connector.JavaSocketServerConnector;
+import com.itmo.java.basics.console.impl.ExecutionEnvironmentImpl;
+import com.itmo.java.basics.initialization.impl.DatabaseInitializer;
+import com.itmo.java.basics.initialization.impl.DatabaseServerInitializer;
+import com.itmo.java.basics.initialization.impl.SegmentInitializer;
+import com.itmo.java.basics.initialization.impl.TableInitializer;
+import com.itmo.java.client.connection.ConnectionConfig;
+import com.itmo.java.client.connection.SocketKvsConnection;
+import com.itmo.java.client.exception.DatabaseExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SimpleKvsClientTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DatabaseServer server;
+    private JavaSocketServerConnector connector;
+    private SocketKvsConnection connection;
+    private SimpleKvsClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = DatabaseServer.initialize(
+            new ExecutionEnvironmentImpl(new DatabaseConfig(folder.getRoot().toString())),
+            new DatabaseServerInitializer(new DatabaseInitializer(new TableInitializer(new SegmentInitializer()))));
+        int port = freePort();
+        connector = new JavaSocketServerConnector(server, new ServerConfig("localhost", port));
+        connector.start();
+        connection = new SocketKvsConnection(new ConnectionConfig("localhost", port));
+        client = new SimpleKvsClient("db", () -> connection);
+        client.createDatabase();
+        client.createTable("table");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+        connector.close();
+        server.close();
+    }
+
+    /**
+     * Значения возвращаются в порядке запрошенных ключей, для отсутствующих ключей - null
+     */
+    @Test
+    public void multiGetReturnsValuesInOrderOfKeys() throws Exception {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            values.put("key-" + i, "value-" + i);
+        }
+        assertEquals("10", client.multiSet("table", values));
+
+        assertEquals(Arrays.asList("value-3", null, "value-0", "value-3"),
+            client.multiGet("table", Arrays.asList("key-3", "missing", "key-0", "key-3")));
+        assertEquals("value-9", client.get("table", "key-9"));
+    }
+
+    /**
+     * Пакетная запись перезаписывает значения так же, как одиночная, и видна одиночным чтениям и удалениям
+     */
+    @Test
+    public void multiSetOverwritesValues() throws Exception {
+        client.set("table", "a", "old");
+        client.set("table", "b", "old");
+        client.multiSet("table", Map.of("a", "new", "c", "new"));
+        client.delete("table", "c");
+
+        assertEquals(Arrays.asList("new", "old", null), client.multiGet("table", Arrays.asList("a", "b", "c")));
+        assertNull(client.get("table", "c"));
+    }
+
+    @Test(expected = DatabaseExecutionException.class)
+    public void multiGetFromMissingTableFails() throws Exception {
+        client.multiGet("missing", Arrays.asList("a", "b"));
+    }
+
+    /**
+     * Отчет INFO по разделу содержит задержки исполненных команд и только метрики этого раздела
+     */
+    @Test
+    public void infoReportsCommandMetrics() throws Exception {
+        client.set("table", "key", "value");
+
+        String report = client.info("commands");
+        assertTrue(report, report.contains("commands.SET_KEY.latency.count:"));
+        for (String line : report.split("\r\n")) {
+            assertTrue(line, line.startsWith("commands."));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.itmo.java.client.connection;
+
+import com.itmo.java.client.exception.ConnectionException;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KvsConnectionPoolTest {
+
+    private static final Duration LONG = Duration.ofMinutes(1);
+
+    private final List<FakeConnection> opened = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void reusesConnectionForSequentialCommands() throws Exception {
+        try (KvsConnectionPool pool = new KvsConnectionPool(this::open, new ConnectionPoolConfig(0, 2, LONG, LONG))) {
+            for (int i = 0; i < 10; i++) {
+                // клиент берет новое подключение на каждую команду и не закрывает его
+                assertEquals("ok", pool.get().send(i, new RespArray()).asString());
+            }
+            assertEquals(1, opened.size());
+            assertEquals(10, opened.get(0).sent);
+        }
+    }
+
+    /**
+     * Единственное подключение занято: команда ждет его не дольше заданного и получает ошибку,
+     * а после возврата подключения следующая команда выполняется на нем же
+     */
+    @Test
+    public void failsToBorrowWhenAllConnectionsAreBusy() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        try (KvsConnectionPool pool = new KvsConnectionPool(() -> open(unblock),
+                new ConnectionPoolConfig(0, 1, LONG, Duration.ofMillis(100)))) {
+            CompletableFuture<RespObject> busy = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return pool.get().send(1, new RespArray());
+                } catch (ConnectionException cntext) {
+                    throw new RuntimeException(cntext);
+                }
+            });
+            awaitBusy();
+
+            long start = System.nanoTime();
+            try {
+                pool.get().send(2, new RespArray());
+                fail("Borrowed connection from exhausted pool");
+            } catch (ConnectionException cntext) {
+                assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+            }
+
+            unblock.countDown();
+            assertEquals("ok", busy.get(10, TimeUnit.SECONDS).asString());
+            assertEquals("ok", pool.get().send(3, new RespArray()).asString());
+            assertEquals(1, opened.size());
+        }
+    }
+
+    /**
+     * Подключения сверх минимального количества закрываются, когда простаивают дольше таймаута
+     */
+    @Test
+    public void evictsIdleConnectionsAboveMinSize() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        try (KvsConnectionPool pool = new KvsConnectionPool(() -> open(unblock),
+                new ConnectionPoolConfig(1, 3, Duration.ofMillis(100), LONG))) {
+            List<CompletableFuture<Void>> commands = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                int commandId = i;
+                commands.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        pool.get().send(commandId, new RespArray());
+                    } catch (ConnectionException cntext) {
+                        throw new RuntimeException(cntext);
+                    }
+                }));
+            }
+            while (opened.stream().filter(connection -> connection.sending).count() < 3) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, pool.getOpenedCount());
+            unblock.countDown();
+            for (CompletableFuture<Void> command : commands) {
+                command.get(10, TimeUnit.SECONDS);
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pool.getOpenedCount() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, pool.getOpenedCount());
+            assertEquals(2, opened.stream().filter(connection -> connection.closed).count());
+        }
+        assertTrue(opened.stream().allMatch(connection -> connection.closed));
+    }
+
+    /**
+     * Подключение, на котором произошла ошибка, закрывается, и следующая команда получает новое
+     */
+    @Test
+    public void discardsBrokenConnection() throws Exception {
+        try (KvsConnectionPool pool = new KvsConnectionPool(this::open, new ConnectionPoolConfig(0, 1, LONG, LONG))) {
+            pool.get().send(1, new RespArray());
+            opened.get(0).broken = true;
+            try {
+                pool.get().send(2, new RespArray());
+                fail("Error of connection was not reported");
+            } catch (ConnectionException cntext) {
+                assertTrue(opened.get(0).closed);
+            }
+
+            assertEquals("ok", pool.get().send(3, new RespArray()).asString());
+            assertEquals(2, opened.size());
+            assertFalse(opened.get(1).closed);
+        }
+    }
+
+    private FakeConnection open() {
+        return open(new CountDownLatch(0));
+    }
+
+    private FakeConnection open(CountDownLatch unblock) {
+        FakeConnection connection = new FakeConnection(unblock);
+        opened.add(connection);
+        return connection;
+    }
+
+    private void awaitBusy() throws InterruptedException {
+        while (opened.isEmpty() || !opened.get(0).sending) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Подключение, которое отвечает "ok", когда его отпустят
+     */
+    private static class FakeConnection implements KvsConnection {
+
+        private final CountDownLatch unblock;
+        private volatile boolean sending;
+        private volatile boolean broken;
+        private volatile boolean closed;
+        private int sent;
+
+        FakeConnection(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public RespObject send(int commandId, RespArray command) throws ConnectionException {
+            sending = true;
+            try {
+                unblock.await();
+            } catch (InterruptedException intext) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionException("interrupted", intext);
+            }
+            if (broken) {
+                throw new ConnectionException("broken");
+            }
+            sent++;
+            return new RespBulkString("ok".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public boolean isAlive() {
+            return !closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.itmo.java.client.connection;
+
+import com.itmo.java.client.command.GetKvsCommand;
+import com.itmo.java.client.exception.ConnectionException;
+import com.itmo.java.protocol.RespReader;
+import com.itmo.java.protocol.RespWriter;
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SocketAsyncKvsConnectionTest {
+
+    private static final int COMMANDS = 100;
+
+    private ServerSocket serverSocket;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverSocket.close();
+    }
+
+    /**
+     * Сервер отвечает только после того, как получит все команды: они должны уйти по одному сокету,
+     * не дожидаясь ответов, а ответы - достаться своим командам
+     */
+    @Test
+    public void sendsCommandsWithoutWaitingForReplies() throws Exception {
+        CompletableFuture<Void> server = serve(COMMANDS, socket -> { });
+        SocketAsyncKvsConnection connection = connect();
+        try {
+            List<CompletableFuture<RespObject>> results = new ArrayList<>();
+            for (int i = 0; i < COMMANDS; i++) {
+                GetKvsCommand command = new GetKvsCommand("db", "table", "key-" + i);
+                results.add(connection.sendAsync(command.getCommandId(), command.serialize()));
+            }
+            for (int i = 0; i < COMMANDS; i++) {
+                assertEquals("key-" + i, results.get(i).get(10, TimeUnit.SECONDS).asString());
+            }
+            server.get(10, TimeUnit.SECONDS);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Команды без ответа завершаются ошибкой при закрытии подключения, новые команды - сразу
+     */
+    @Test
+    public void failsPendingCommandsOnClose() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        serve(0, socket -> {
+            new RespReader(socket.getInputStream()).readObject();
+            received.countDown();
+            // сервер не закрывает соединение сам, пока его не закроет клиент
+            awaitQuietly(closed);
+        });
+        SocketAsyncKvsConnection connection = connect();
+        GetKvsCommand command = new GetKvsCommand("db", "table", "key");
+        CompletableFuture<RespObject> pending = connection.sendAsync(command.getCommandId(), command.serialize());
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        assertFalse(pending.isDone());
+
+        connection.close();
+        closed.countDown();
+        assertFailedWithConnectionException(pending);
+        assertFailedWithConnectionException(connection.sendAsync(command.getCommandId(), command.serialize()));
+    }
+
+    /**
+     * Сервер закрыл соединение, не ответив: ожидающие команды завершаются ошибкой
+     */
+    @Test
+    public void failsPendingCommandsWhenServerClosesConnection() throws Exception {
+        serve(0, socket -> new RespReader(socket.getInputStream()).readObject());
+        SocketAsyncKvsConnection connection = connect();
+        try {
+            GetKvsCommand command = new GetKvsCommand("db", "table", "key");
+            assertFailedWithConnectionException(connection.sendAsync(command.getCommandId(), command.serialize()));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private SocketAsyncKvsConnection connect() {
+        return new SocketAsyncKvsConnection(new ConnectionConfig("localhost", serverSocket.getLocalPort()));
+    }
+
+    /**
+     * Принимает одно подключение, читает заданное количество команд и отвечает на них последним аргументом
+     * команды в порядке получения, после чего выполняет действие и закрывает подключение
+     */
+    private CompletableFuture<Void> serve(int commands, SocketAction then) {
+        return CompletableFuture.runAsync(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                RespReader reader = new RespReader(socket.getInputStream());
+                List<RespObject> keys = new ArrayList<>();
+                for (int i = 0; i < commands; i++) {
+                    List<RespObject> arguments = ((RespArray) reader.readObject()).getObjects();
+                    keys.add(arguments.get(arguments.size() - 1));
+                }
+                RespWriter writer = new RespWriter(socket.getOutputStream());
+                for (RespObject key : keys) {
+                    writer.append(new RespBulkString(key.asString().getBytes()));
+                }
+                writer.flush();
+                then.accept(socket);
+            } catch (IOException ioext) {
+                throw new RuntimeException(ioext);
+            }
+        });
+    }
+
+    private static void assertFailedWithConnectionException(CompletableFuture<RespObject> result) throws Exception {
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail("Command completed without reply");
+        } catch (ExecutionException execext) {
+            assertTrue(String.valueOf(execext.getCause()), execext.getCause() instanceof ConnectionException);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException intext) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SocketAction {
+        void accept(Socket socket) throws IOException;
+    }
+}
@@ -0,0 +1,142 @@
+package com.itmo.java.protocol;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RespBufferParserTest {
+
+    @Test
+    public void parsesLengthsSplitBetweenReads() throws Exception {
+        RespBufferParser parser = new RespBufferParser();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        buffer.put(bytes("$1")).flip();
+        assertFalse(parser.tryParse(buffer).isPresent());
+        buffer.compact().put(bytes("2\r")).flip();
+        assertFalse(parser.tryParse(buffer).isPresent());
+        buffer.compact().put(bytes("\nhello world!\r\n")).flip();
+
+        Optional<RespObject> parsed = parser.tryParse(buffer);
+        assertTrue(parsed.isPresent());
+        assertEquals("hello world!", parsed.get().asString());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void parsesNullBulkString() throws Exception {
+        assertSame(RespBulkString.NULL_STRING, new RespBufferParser().tryParse(buffer("$-1\r\n")).orElseThrow());
+    }
+
+    @Test
+    public void parsesEmptyArray() throws Exception {
+        RespObject parsed = new RespBufferParser().tryParse(buffer("*0\r\n")).orElseThrow();
+        assertTrue(((RespArray) parsed).getObjects().isEmpty());
+    }
+
+    @Test
+    public void rejectsMalformedLengths() {
+        for (String message : new String[]{"$+5\r\nhello\r\n", "$\r\n", "$12a\r\n", "$5\rx", "*-\r\n",
+            "$2147483648\r\n", "$99999999999\r\n", "*-2\r\n"}) {
+            try {
+                new RespBufferParser().tryParse(buffer(message));
+                fail("Accepted " + message);
+            } catch (IOException ioext) {
+                // ожидаемая ошибка формата
+            }
+        }
+    }
+
+    @Test
+    public void acceptsLargestLength() throws Exception {
+        RespBufferParser parser = new RespBufferParser(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        ByteBuffer buffer = buffer("$2147483647\r\n");
+        assertFalse(parser.tryParse(buffer).isPresent());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Данные приходят по одному байту, и начатые строки, размеры и массивы должны дожидаться продолжения в парсере
+     */
+    @Test
+    public void parsesCommandsFedByteByByte() throws Exception {
+        RespBufferParser parser = new RespBufferParser();
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        byte[] commands = bytes("*3\r\n$3\r\nSET\r\n$0\r\n\r\n*1\r\n$10\r\nhello\r\nyou\r\n*2\r\n$1\r\na\r\n$1\r\nb\r\n");
+        List<RespObject> parsed = new ArrayList<>();
+
+        for (byte b : commands) {
+            buffer.put(b).flip();
+            parser.tryParse(buffer).ifPresent(parsed::add);
+            buffer.compact();
+        }
+
+        assertEquals(2, parsed.size());
+        List<RespObject> first = ((RespArray) parsed.get(0)).getObjects();
+        assertEquals(3, first.size());
+        assertEquals("SET", first.get(0).asString());
+        assertEquals("", first.get(1).asString());
+        List<RespObject> inner = ((RespArray) first.get(2)).getObjects();
+        assertEquals("hello\r\nyou", inner.get(0).asString());
+        List<RespObject> second = ((RespArray) parsed.get(1)).getObjects();
+        assertEquals("a", second.get(0).asString());
+        assertEquals("b", second.get(1).asString());
+        assertEquals(0, buffer.position());
+    }
+
+    /**
+     * Слишком длинная bulk строка отклоняется по заголовку, не дожидаясь ее данных
+     */
+    @Test(expected = IOException.class)
+    public void rejectsOversizedBulkString() throws Exception {
+        new RespBufferParser(10, RespBufferParser.DEFAULT_MAX_COMMAND_LENGTH).tryParse(buffer("*1\r\n$11\r\n"));
+    }
+
+    @Test
+    public void acceptsBulkStringOfMaxLength() throws Exception {
+        RespObject parsed = new RespBufferParser(10, RespBufferParser.DEFAULT_MAX_COMMAND_LENGTH)
+            .tryParse(buffer("$10\r\n0123456789\r\n")).orElseThrow();
+        assertEquals("0123456789", parsed.asString());
+    }
+
+    /**
+     * Размер команды считается по всем пришедшим частям, даже если каждая из них короче ограничения
+     */
+    @Test
+    public void rejectsCommandLongerThanLimitAcrossReads() throws Exception {
+        RespBufferParser parser = new RespBufferParser(RespReader.DEFAULT_MAX_BULK_LENGTH, 31);
+        assertFalse(parser.tryParse(buffer("*3\r\n$8\r\n01234567\r\n")).isPresent());
+        try {
+            parser.tryParse(buffer("$8\r\n01234567\r\n"));
+            fail("Accepted command longer than 31 bytes");
+        } catch (IOException ioext) {
+            // ожидаемая ошибка размера
+        }
+
+        // начатая команда отброшена, следующая разбирается с начала
+        RespObject parsed = parser.tryParse(buffer("*1\r\n$2\r\nok\r\n")).orElseThrow();
+        assertEquals("ok", ((RespArray) parsed).getObjects().get(0).asString());
+    }
+
+    private static ByteBuffer buffer(String message) {
+        return ByteBuffer.wrap(bytes(message));
+    }
+
+    private static byte[] bytes(String message) {
+        return message.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,134 @@
+package com.itmo.java.protocol;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RespReaderTest {
+
+    /**
+     * Строка длиннее буфера чтения и заранее выделяемой памяти приходит маленькими порциями
+     */
+    @Test
+    public void readsLargeBulkStringArrivingInSmallChunks() throws Exception {
+        byte[] value = new byte[3 * 1024 * 1024 + 17];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) ('a' + i % 26);
+        }
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        message.write(bytes("$" + value.length + "\r\n"));
+        message.write(value);
+        message.write(bytes("\r\n$2\r\nok\r\n"));
+
+        RespReader reader = new RespReader(new ChunkedInputStream(message.toByteArray(), 7));
+
+        assertArrayEquals(value, reader.readBulkString().asString().getBytes(StandardCharsets.US_ASCII));
+        assertEquals("ok", reader.readObject().asString());
+    }
+
+    /**
+     * Длина проверяется по заголовку: память под строку не выделяется, а данные не читаются
+     */
+    @Test
+    public void rejectsBulkStringLongerThanLimit() throws Exception {
+        RespReader reader = new RespReader(new ByteArrayInputStream(bytes("$1000000000\r\n")), 100);
+        try {
+            reader.readObject();
+            fail("Accepted bulk string longer than the limit");
+        } catch (IOException ioext) {
+            assertTrue(ioext.getMessage(), ioext.getMessage().contains("too long"));
+        }
+    }
+
+    /**
+     * Все присланные одной пачкой объекты читаются по очереди, а пока они не разобраны, данные считаются доступными
+     */
+    @Test
+    public void readsPipelinedObjects() throws Exception {
+        RespReader reader = new RespReader(new ByteArrayInputStream(
+            bytes("*2\r\n$3\r\nGET\r\n$1\r\na\r\n-ERR oops\r\n$-1\r\n*2\r\n$3\r\nGET\r\n$1\r\nb\r\n")));
+
+        List<RespObject> first = ((RespArray) reader.readObject()).getObjects();
+        assertEquals("a", first.get(1).asString());
+        assertTrue(reader.hasAvailableData());
+        assertTrue(reader.readObject().isError());
+        assertNull(reader.readObject().asString());
+        assertTrue(reader.hasArray());
+        List<RespObject> last = ((RespArray) reader.readObject()).getObjects();
+        assertEquals("b", last.get(1).asString());
+        assertFalse(reader.hasAvailableData());
+
+        try {
+            reader.readObject();
+            fail("Read past the end of stream");
+        } catch (EOFException eofext) {
+            // данные закончились
+        }
+    }
+
+    @Test
+    public void rejectsBulkStringWithoutTrailingCrlf() {
+        RespReader reader = new RespReader(new ByteArrayInputStream(bytes("$2\r\nokay\r\n")));
+        try {
+            reader.readObject();
+            fail("Accepted bulk string longer than its size");
+        } catch (IOException ioext) {
+            // ожидаемая ошибка формата
+        }
+    }
+
+    private static byte[] bytes(String message) {
+        return message.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Отдает данные порциями не больше заданной, как сокет, в который данные приходят постепенно
+     */
+    private static class ChunkedInputStream extends InputStream {
+
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        ChunkedInputStream(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == data.length) {
+                return -1;
+            }
+            int read = Math.min(Math.min(length, chunk), data.length - position);
+            System.arraycopy(data, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+    }
+}
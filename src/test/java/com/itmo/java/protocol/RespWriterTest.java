@@ -0,0 +1,101 @@
+package com.itmo.java.protocol;
+
+import com.itmo.java.protocol.model.RespArray;
+import com.itmo.java.protocol.model.RespBulkString;
+import com.itmo.java.protocol.model.RespCommandId;
+import com.itmo.java.protocol.model.RespError;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class RespWriterTest {
+
+    /**
+     * Длины до и после границы заранее посчитанных представлений кодируются одинаково
+     */
+    @Test
+    public void encodesLengthsAroundCachedRange() throws Exception {
+        for (int length : new int[]{0, 9, 10, 1023, 1024, 123456}) {
+            byte[] value = new byte[length];
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            new RespWriter(os).write(new RespBulkString(value));
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            expected.write(bytes("$" + length + "\r\n"));
+            expected.write(value);
+            expected.write(bytes("\r\n"));
+            assertArrayEquals("length " + length, expected.toByteArray(), os.toByteArray());
+        }
+    }
+
+    @Test
+    public void encodesNestedObjects() throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new RespWriter(os).write(new RespArray(
+            new RespCommandId(1), new RespBulkString(bytes("SET")), RespBulkString.NULL_STRING,
+            new RespError(bytes("ERR")), new RespArray()));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(bytes("*5\r\n!"));
+        expected.write(new byte[]{0, 0, 0, 1});
+        expected.write(bytes("\r\n$3\r\nSET\r\n$-1\r\n-ERR\r\n*0\r\n"));
+        assertArrayEquals(expected.toByteArray(), os.toByteArray());
+    }
+
+    /**
+     * Объекты, добавленные до {@link RespWriter#flush()}, уходят в стрим одной записью и читаются обратно по порядку
+     */
+    @Test
+    public void flushesAppendedObjectsInOneWrite() throws Exception {
+        CountingOutputStream os = new CountingOutputStream();
+        RespWriter writer = new RespWriter(os);
+        for (int i = 0; i < 100; i++) {
+            writer.append(new RespBulkString(bytes("value-" + i)));
+        }
+        assertEquals(0, os.writes);
+        writer.flush();
+        assertEquals(1, os.writes);
+
+        // большой ответ не должен мешать следующим записям после сброса буфера
+        writer.write(new RespBulkString(new byte[2 * 1024 * 1024]));
+        writer.write(new RespBulkString(bytes("last")));
+        assertEquals(3, os.writes);
+
+        RespReader reader = new RespReader(new ByteArrayInputStream(os.bytes.toByteArray()));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value-" + i, reader.readObject().asString());
+        }
+        assertEquals(2 * 1024 * 1024, reader.readBulkString().asString().length());
+        assertEquals("last", reader.readObject().asString());
+        assertFalse(reader.hasAvailableData());
+    }
+
+    private static byte[] bytes(String message) {
+        return message.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int writes;
+
+        @Override
+        public void write(int b) {
+            writes++;
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            writes++;
+            bytes.write(buffer, offset, length);
+        }
+    }
+}